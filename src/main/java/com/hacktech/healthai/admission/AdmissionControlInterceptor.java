@@ -0,0 +1,120 @@
+package com.hacktech.healthai.admission;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the API controllers.
+ *
+ * A request is first checked against its endpoint class's load shedder (503
+ * when overloaded), then against the client's token bucket (429 when over its
+ * rate). Both rejections carry a Retry-After header. The client is the
+ * authenticated principal; otherwise the client id sent in the
+ * {@code admission.client-id-header} header (e.g. one per workstation or API
+ * key), so clinics behind one NAT address get a bucket each; otherwise the
+ * remote address. Any caller can invent a header value, so every value counts
+ * against its remote address, which may create at most
+ * {@code admission.clients.max-per-source} of them (see {@link ClientRateLimiter}).
+ * Behind a proxy, set {@code server.forward-headers-strategy} so the remote
+ * address is the real client's.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlInterceptor.class);
+
+    private static final String ADMITTED_CLASS = AdmissionControlInterceptor.class.getName() + ".class";
+    private static final String ADMITTED_AT = AdmissionControlInterceptor.class.getName() + ".start";
+    // Longer header values are cut, so a client cannot make huge map keys
+    private static final int MAX_CLIENT_ID_LENGTH = 128;
+
+    private final ClientRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final String clientIdHeader; // null when disabled
+
+    public AdmissionControlInterceptor(ClientRateLimiter rateLimiter, LoadShedder loadShedder,
+            @Value("${admission.client-id-header:X-Client-Id}") String clientIdHeader) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.clientIdHeader = clientIdHeader == null || clientIdHeader.isBlank() ? null : clientIdHeader.trim();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        EndpointClass endpointClass = EndpointClass.forPath(request.getRequestURI());
+        // Async dispatches resume a request that was already admitted
+        if (endpointClass == null || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        long retryNanos = loadShedder.tryAcquire(endpointClass);
+        if (retryNanos > 0) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryNanos,
+                    "Service is busy; please retry later.");
+            return false;
+        }
+
+        String source = request.getRemoteAddr();
+        String clientId = clientId(request, source);
+        retryNanos = rateLimiter.tryAcquire(clientId, source, endpointClass);
+        if (retryNanos > 0) {
+            loadShedder.cancel(endpointClass);
+            log.debug("Rate limited client {} on {}", clientId, endpointClass);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryNanos, "Too many requests; please slow down.");
+            return false;
+        }
+
+        request.setAttribute(ADMITTED_CLASS, endpointClass);
+        request.setAttribute(ADMITTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(ADMITTED_CLASS) instanceof EndpointClass endpointClass) {
+            request.removeAttribute(ADMITTED_CLASS);
+            long start = (Long) request.getAttribute(ADMITTED_AT);
+            loadShedder.release(endpointClass, System.nanoTime() - start);
+        }
+    }
+
+    private String clientId(HttpServletRequest request, String source) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String declared = clientIdHeader != null ? request.getHeader(clientIdHeader) : null;
+        if (declared != null && !declared.isBlank()) {
+            declared = declared.trim();
+            return "client:" + (declared.length() > MAX_CLIENT_ID_LENGTH
+                    ? declared.substring(0, MAX_CLIENT_ID_LENGTH) : declared);
+        }
+        return "addr:" + source;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryNanos, String message)
+            throws IOException {
+        // Retry-After is whole seconds; round up so clients never retry too early
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long retrySeconds = Math.max(1, (retryNanos + second - 1) / second);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retrySeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,175 @@
+package com.hacktech.healthai.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client, per-endpoint-class token buckets.
+ *
+ * Buckets live in a concurrent map bounded to {@code admission.clients.max-size}.
+ * A bucket that has been full for {@code admission.clients.idle-minutes} is
+ * removed by a sweep. Removing it loses nothing, because a new bucket starts
+ * full anyway. Sweeps run on the request path, at most once per quarter of
+ * the idle time, or at most once a second while the map is full. One request
+ * thread runs each sweep while the others carry on. If the map is still full
+ * after a sweep, new clients share one overflow bucket per endpoint class.
+ * They then limit each other and cannot push out existing clients.
+ *
+ * Each client key also counts against its source address, which may create at
+ * most {@code admission.clients.max-per-source} keys. Further clients from that
+ * address share one bucket for that address, so one host cannot fill the map by
+ * presenting many identities.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientRateLimiter.class);
+
+    private static final EndpointClass[] CLASSES = EndpointClass.values();
+    private static final long FULL_SWEEP_GAP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final int maxClients;
+    private final int maxPerSource;
+    private final long idleNanos;
+    private final long[] intervalNanos = new long[CLASSES.length];
+    private final int[] burst = new int[CLASSES.length];
+
+    private final ConcurrentHashMap<String, Client> clients = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> keysPerSource = new ConcurrentHashMap<>();
+    private final TokenBucket[] overflow = new TokenBucket[CLASSES.length];
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastSweep;
+
+    public ClientRateLimiter(Environment environment,
+            @Value("${admission.rate-limit.enabled:true}") boolean enabled,
+            @Value("${admission.clients.max-size:100000}") int maxClients,
+            @Value("${admission.clients.max-per-source:256}") int maxPerSource,
+            @Value("${admission.clients.idle-minutes:10}") long idleMinutes) {
+        this.enabled = enabled;
+        this.maxClients = maxClients;
+        this.maxPerSource = Math.max(1, maxPerSource);
+        this.idleNanos = Duration.ofMinutes(idleMinutes).toNanos();
+        long now = System.nanoTime();
+        for (EndpointClass endpointClass : CLASSES) {
+            int i = endpointClass.ordinal();
+            String prefix = "admission." + endpointClass.key() + ".";
+            double rate = environment.getProperty(prefix + "rate-per-second", Double.class,
+                    endpointClass.defaultRatePerSecond);
+            intervalNanos[i] = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            burst[i] = environment.getProperty(prefix + "burst", Integer.class, endpointClass.defaultBurst);
+            overflow[i] = new TokenBucket(intervalNanos[i], burst[i], now);
+            log.info("Rate limit for {}: {}/s per client, burst {}", endpointClass, rate, burst[i]);
+        }
+        this.lastSweep = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token from the client's bucket for the endpoint class.
+     *
+     * @param clientId Key of the client, e.g. its authenticated principal, declared client id or address.
+     * @param source   Address the request came from; it is charged for the keys it creates.
+     * @return 0 if admitted, otherwise the nanoseconds until the client may retry.
+     */
+    public long tryAcquire(String clientId, String source, EndpointClass endpointClass) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        int i = endpointClass.ordinal();
+        String key = endpointClass.key() + '|' + clientId;
+        Client client = clients.get(key);
+        if (client == null) {
+            maybeSweep(now, clients.size() >= maxClients);
+            if (clients.size() >= maxClients) {
+                return overflow[i].tryAcquire(now);
+            }
+            if (!reserve(source)) {
+                // Source is at its key limit: its new clients share the source's own bucket
+                key = endpointClass.key() + '|' + source;
+                client = clients.get(key);
+                if (client == null) {
+                    client = clients.computeIfAbsent(key,
+                            k -> new Client(new TokenBucket(intervalNanos[i], burst[i], now), null));
+                }
+                return client.bucket.tryAcquire(now);
+            }
+            Client created = new Client(new TokenBucket(intervalNanos[i], burst[i], now), source);
+            client = clients.putIfAbsent(key, created);
+            if (client == null) {
+                client = created;
+            } else {
+                // Another request created it first
+                release(source);
+            }
+        } else {
+            maybeSweep(now, false);
+        }
+        return client.bucket.tryAcquire(now);
+    }
+
+    public int trackedClients() {
+        return clients.size();
+    }
+
+    public int trackedSources() {
+        return keysPerSource.size();
+    }
+
+    private boolean reserve(String source) {
+        boolean[] reserved = new boolean[1];
+        keysPerSource.compute(source, (s, keys) -> {
+            int count = keys == null ? 0 : keys;
+            if (count >= maxPerSource) {
+                return keys;
+            }
+            reserved[0] = true;
+            return count + 1;
+        });
+        return reserved[0];
+    }
+
+    private void release(String source) {
+        // Drop the counter at zero so the source map stays as small as the client map
+        keysPerSource.computeIfPresent(source, (s, keys) -> keys <= 1 ? null : keys - 1);
+    }
+
+    private void maybeSweep(long now, boolean full) {
+        long gap = full ? FULL_SWEEP_GAP_NANOS : idleNanos / 4;
+        if (now - lastSweep.get() < gap || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = clients.size();
+            Iterator<Client> it = clients.values().iterator();
+            while (it.hasNext()) {
+                Client client = it.next();
+                if (client.bucket.idleSince(now, idleNanos)) {
+                    it.remove();
+                    if (client.source != null) {
+                        release(client.source);
+                    }
+                }
+            }
+            lastSweep.set(now);
+            log.debug("Rate limiter sweep removed {} idle clients, {} remain", before - clients.size(),
+                    clients.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // Bucket plus the source charged for creating it (null for a source's shared bucket)
+    private record Client(TokenBucket bucket, String source) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.hacktech.healthai.admission;
+
+/**
+ * Groups of endpoints that share admission limits. Each class has its own
+ * per-client token bucket and its own load-shedding gauge, so a flood of OCR
+ * uploads cannot starve prescription validation.
+ *
+ * Defaults can be overridden with {@code admission.<key>.*} properties.
+ */
+public enum EndpointClass {
+
+    // key, path prefix, rate/s, burst, max in flight, latency threshold ms
+    VALIDATION("validation", "/api/prescriptions", 20, 40, 200, 500),
+    OCR("ocr", "/ocr", 1, 5, 32, 5000),
+    LLM("llm", "/llm", 1, 5, 32, 10000);
+
+    private static final EndpointClass[] VALUES = values();
+
+    private final String key;
+    private final String pathPrefix;
+    final double defaultRatePerSecond;
+    final int defaultBurst;
+    final int defaultMaxInFlight;
+    final long defaultLatencyThresholdMs;
+
+    EndpointClass(String key, String pathPrefix, double defaultRatePerSecond, int defaultBurst,
+            int defaultMaxInFlight, long defaultLatencyThresholdMs) {
+        this.key = key;
+        this.pathPrefix = pathPrefix;
+        this.defaultRatePerSecond = defaultRatePerSecond;
+        this.defaultBurst = defaultBurst;
+        this.defaultMaxInFlight = defaultMaxInFlight;
+        this.defaultLatencyThresholdMs = defaultLatencyThresholdMs;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String pathPrefix() {
+        return pathPrefix;
+    }
+
+    /** The class whose path prefix matches the request path, or null if it is not admission-controlled. */
+    public static EndpointClass forPath(String path) {
+        for (EndpointClass endpointClass : VALUES) {
+            String prefix = endpointClass.pathPrefix;
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+}
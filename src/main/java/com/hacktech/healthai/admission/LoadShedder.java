@@ -0,0 +1,129 @@
+package com.hacktech.healthai.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sheds load per endpoint class before a slow dependency can tie up every
+ * request thread.
+ *
+ * Each class tracks its in-flight requests (the queue depth it contributes)
+ * and a moving average of completed-request latency. A request is shed when
+ * the class is at {@code admission.<class>.max-in-flight}. It is also shed
+ * when the average latency is above {@code admission.<class>.latency-threshold-ms}
+ * and a quarter of that capacity is already busy. Those requests keep
+ * measuring the dependency, so admission resumes by itself once latency
+ * recovers.
+ */
+@Component
+public class LoadShedder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadShedder.class);
+
+    private static final EndpointClass[] CLASSES = EndpointClass.values();
+    // Weight of the newest sample in the latency moving average
+    private static final double ALPHA = 0.2;
+
+    private final boolean enabled;
+    private final Gauge[] gauges = new Gauge[CLASSES.length];
+
+    public LoadShedder(Environment environment,
+            @Value("${admission.shedding.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        for (EndpointClass endpointClass : CLASSES) {
+            String prefix = "admission." + endpointClass.key() + ".";
+            int maxInFlight = environment.getProperty(prefix + "max-in-flight", Integer.class,
+                    endpointClass.defaultMaxInFlight);
+            long thresholdMs = environment.getProperty(prefix + "latency-threshold-ms", Long.class,
+                    endpointClass.defaultLatencyThresholdMs);
+            gauges[endpointClass.ordinal()] = new Gauge(maxInFlight, TimeUnit.MILLISECONDS.toNanos(thresholdMs));
+            log.info("Load shedding for {}: max {} in flight, latency threshold {} ms", endpointClass, maxInFlight,
+                    thresholdMs);
+        }
+    }
+
+    /**
+     * Admits a request, counting it as in flight.
+     *
+     * @return 0 if admitted (the caller must then call {@link #release}),
+     *         otherwise a suggested retry delay in nanoseconds.
+     */
+    public long tryAcquire(EndpointClass endpointClass) {
+        Gauge gauge = gauges[endpointClass.ordinal()];
+        int inFlight = gauge.inFlight.incrementAndGet();
+        if (!enabled) {
+            return 0;
+        }
+        long averageNanos = gauge.averageNanos();
+        boolean overloaded = inFlight > gauge.maxInFlight
+                || (averageNanos > gauge.thresholdNanos && inFlight > gauge.probeInFlight);
+        if (!overloaded) {
+            return 0;
+        }
+        gauge.inFlight.decrementAndGet();
+        if (gauge.shed.incrementAndGet() % 1000 == 1) {
+            log.warn("Shedding {} requests: {} in flight, average latency {} ms ({} shed so far)", endpointClass,
+                    inFlight - 1, TimeUnit.NANOSECONDS.toMillis(averageNanos), gauge.shed.get());
+        }
+        // One average request time is a reasonable hint for when capacity frees up
+        return Math.max(averageNanos, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /** Ends an admitted request, recording its latency. */
+    public void release(EndpointClass endpointClass, long elapsedNanos) {
+        Gauge gauge = gauges[endpointClass.ordinal()];
+        gauge.inFlight.decrementAndGet();
+        gauge.record(elapsedNanos);
+    }
+
+    /** Ends an admitted request that was rejected before doing any work; its latency is not recorded. */
+    public void cancel(EndpointClass endpointClass) {
+        gauges[endpointClass.ordinal()].inFlight.decrementAndGet();
+    }
+
+    public int inFlight(EndpointClass endpointClass) {
+        return gauges[endpointClass.ordinal()].inFlight.get();
+    }
+
+    public long shedCount(EndpointClass endpointClass) {
+        return gauges[endpointClass.ordinal()].shed.get();
+    }
+
+    private static final class Gauge {
+        final int maxInFlight;
+        final int probeInFlight;
+        final long thresholdNanos;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong shed = new AtomicLong();
+        // Moving average of latency, as double bits so it can be updated with CAS
+        final AtomicLong averageBits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+        Gauge(int maxInFlight, long thresholdNanos) {
+            this.maxInFlight = maxInFlight;
+            this.probeInFlight = Math.max(1, maxInFlight / 4);
+            this.thresholdNanos = thresholdNanos;
+        }
+
+        long averageNanos() {
+            return (long) Double.longBitsToDouble(averageBits.get());
+        }
+
+        void record(long elapsedNanos) {
+            while (true) {
+                long bits = averageBits.get();
+                double average = Double.longBitsToDouble(bits);
+                double next = average == 0 ? elapsedNanos : average + ALPHA * (elapsedNanos - average);
+                if (averageBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                    return;
+                }
+            }
+        }
+    }
+}
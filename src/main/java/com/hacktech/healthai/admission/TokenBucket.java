@@ -0,0 +1,48 @@
+package com.hacktech.healthai.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, stored as a single "theoretical arrival time" (the
+ * generic cell rate algorithm). Each admitted request pushes that time forward
+ * by one emission interval. A request is admitted while the time stays no
+ * more than {@code burst} intervals ahead of now. Idle time refills the
+ * bucket implicitly, so no refill timer or second field is needed, and one
+ * CAS updates the whole state.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long intervalNanos, int burst, long now) {
+        this.intervalNanos = intervalNanos;
+        this.capacityNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until a token is available.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > capacityNanos) {
+                return ahead - capacityNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** True once the bucket has been full for at least {@code idleNanos}; dropping it then loses no state. */
+    boolean idleSince(long now, long idleNanos) {
+        return now - theoreticalArrival.get() >= idleNanos;
+    }
+}
@@ -0,0 +1,156 @@
+package com.hacktech.healthai.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of journal records.
+ *
+ * <pre>
+ * int    length       bytes of the body (0 marks the end of a segment)
+ * int    crc32        of the body
+ * body:
+ *   byte   version
+ *   byte   type       AuditRecord.Type ordinal
+ *   long   timestamp  epoch millis
+ *   str    patientId, clinicianId, context
+ *   int    entry count, then per entry: str code, str medication, str text
+ * str = int byte length (-1 for null) + UTF-8 bytes
+ * </pre>
+ *
+ * The length is written last, so a record torn by a crash reads as the end of
+ * the segment. On restart the journal continues in a new segment if anything
+ * but zeroes follows the last readable record, so nothing after it is lost.
+ */
+final class AuditCodec {
+
+    static final int HEADER_BYTES = 8;
+    private static final byte VERSION = 1;
+    private static final AuditRecord.Type[] TYPES = AuditRecord.Type.values();
+
+    private AuditCodec() {
+    }
+
+    /** Pre-encoded strings of a record, so its size is known before writing. */
+    static final class Encoded {
+        final AuditRecord record;
+        final byte[][] strings;
+        final int bodyLength;
+
+        Encoded(AuditRecord record) {
+            this.record = record;
+            List<AuditRecord.Entry> entries = record.entries() != null ? record.entries() : List.of();
+            this.strings = new byte[3 + 3 * entries.size()][];
+            strings[0] = utf8(record.patientId());
+            strings[1] = utf8(record.clinicianId());
+            strings[2] = utf8(record.context());
+            for (int i = 0; i < entries.size(); i++) {
+                AuditRecord.Entry entry = entries.get(i);
+                strings[3 + 3 * i] = utf8(entry.code());
+                strings[4 + 3 * i] = utf8(entry.medication());
+                strings[5 + 3 * i] = utf8(entry.text());
+            }
+            int length = 1 + 1 + 8 + 4;
+            for (byte[] s : strings) {
+                length += 4 + (s != null ? s.length : 0);
+            }
+            this.bodyLength = length;
+        }
+
+        int totalLength() {
+            return HEADER_BYTES + bodyLength;
+        }
+    }
+
+    /** Writes the record at the buffer's position and advances it. */
+    static void write(ByteBuffer buffer, Encoded encoded, CRC32 crc) {
+        int start = buffer.position();
+        int bodyStart = start + HEADER_BYTES;
+        buffer.position(bodyStart);
+        buffer.put(VERSION);
+        buffer.put((byte) encoded.record.type().ordinal());
+        buffer.putLong(encoded.record.timestampMillis());
+        putString(buffer, encoded.strings[0]);
+        putString(buffer, encoded.strings[1]);
+        putString(buffer, encoded.strings[2]);
+        buffer.putInt((encoded.strings.length - 3) / 3);
+        for (int i = 3; i < encoded.strings.length; i++) {
+            putString(buffer, encoded.strings[i]);
+        }
+        int end = buffer.position();
+
+        crc.reset();
+        crc.update(buffer.slice(bodyStart, encoded.bodyLength));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, encoded.bodyLength); // commit
+        buffer.position(end);
+    }
+
+    /**
+     * Reads the record at the buffer's position and advances past it.
+     *
+     * @return the record, or null at the end of the segment (zero length,
+     *         truncated or corrupt record).
+     */
+    static AuditRecord read(ByteBuffer buffer, CRC32 crc) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - HEADER_BYTES) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.slice(start + HEADER_BYTES, length));
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+
+        buffer.position(start + HEADER_BYTES);
+        byte version = buffer.get();
+        int typeOrdinal = buffer.get();
+        if (version != VERSION || typeOrdinal < 0 || typeOrdinal >= TYPES.length) {
+            buffer.position(start);
+            return null;
+        }
+        AuditRecord.Type type = TYPES[typeOrdinal];
+        long timestamp = buffer.getLong();
+        String patientId = getString(buffer);
+        String clinicianId = getString(buffer);
+        String context = getString(buffer);
+        int count = buffer.getInt();
+        List<AuditRecord.Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new AuditRecord.Entry(getString(buffer), getString(buffer), getString(buffer)));
+        }
+        buffer.position(start + HEADER_BYTES + length);
+        return new AuditRecord(type, timestamp, patientId, clinicianId, context, entries);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,329 @@
+package com.hacktech.healthai.audit;
+
+import com.hacktech.healthai.dto.PrescribedDrugDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Asynchronous, append-only audit journal for validation outcomes and
+ * prescription decisions.
+ *
+ * Request threads only enqueue onto a lock-free queue (and wake the writer if
+ * it is idle); they never touch the disk. A single writer thread drains the
+ * queue in batches and appends binary records (see {@link AuditCodec}) to
+ * memory-mapped segment files, rolling to a new segment when the current one
+ * is full and forcing it to disk at most every {@code audit.fsync-interval-ms}.
+ * If the queue is full, records are dropped and counted rather than blocking
+ * the request. If the writer thread dies, the journal is marked failed and
+ * rejects every further record, so callers that require an audit trail can
+ * refuse the request; the failure is reported by {@link AuditJournalHealthIndicator}
+ * and the dropped records by {@link AuditJournalMetrics}.
+ *
+ * Only prescription decisions are guaranteed a record: the decisions endpoint
+ * refuses the request when {@link #append} fails. Validation results are
+ * best-effort and are lost on a full queue, and the single-drug dosage check
+ * run while the clinician is typing is not audited at all, as it carries no
+ * patient and its outcome is validated again before any decision.
+ *
+ * Use {@link AuditJournalReader} or {@link AuditLogTool} to replay and query
+ * the journal.
+ */
+@Component
+public class AuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final int MAX_BATCH = 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long fsyncIntervalNanos;
+    private final int queueCapacity;
+
+    private final ConcurrentLinkedQueue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean writerParked;
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private final Thread writer;
+
+    // Writer-thread state
+    private final CRC32 crc = new CRC32();
+    private long segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+
+    public AuditJournal(@Value("${audit.enabled:true}") boolean enabled,
+            @Value("${audit.dir:audit}") String directory,
+            @Value("${audit.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${audit.fsync-interval-ms:1000}") long fsyncIntervalMs,
+            @Value("${audit.queue-capacity:65536}") int queueCapacity) throws IOException {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        this.queueCapacity = queueCapacity;
+
+        if (!enabled) {
+            log.info("Audit journal is disabled via configuration.");
+            this.writer = null;
+            return;
+        }
+        Files.createDirectories(this.directory);
+        openLatestSegment();
+        this.running = true;
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit journal writing to {} (segment {} MB, fsync every {} ms)", this.directory.toAbsolutePath(),
+                segmentSizeMb, fsyncIntervalMs);
+    }
+
+    /**
+     * Enqueues a record without blocking.
+     *
+     * @return false if the journal is disabled, has failed or the queue is full (the record is dropped).
+     */
+    public boolean append(AuditRecord record) {
+        if (!running || failure != null) {
+            return false;
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            if (dropped.incrementAndGet() % 10_000 == 1) {
+                log.warn("Audit queue full; {} records dropped so far", dropped.get());
+            }
+            return false;
+        }
+        queue.offer(record);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        // The writer may have died after the check above; the record is lost then
+        return failure == null;
+    }
+
+    public boolean recordValidation(String patientId, String clinicianId, String context,
+            List<ValidationIssueDto> issues) {
+        List<AuditRecord.Entry> entries = new ArrayList<>(issues.size());
+        for (ValidationIssueDto issue : issues) {
+            entries.add(new AuditRecord.Entry(issue.type(), issue.medication(), issue.details()));
+        }
+        return append(new AuditRecord(AuditRecord.Type.VALIDATION, System.currentTimeMillis(), patientId,
+                clinicianId, context, entries));
+    }
+
+    public boolean recordDecision(String patientId, String clinicianId, List<PrescribedDrugDto> prescriptions) {
+        List<AuditRecord.Entry> entries = new ArrayList<>(prescriptions.size());
+        for (PrescribedDrugDto prescription : prescriptions) {
+            entries.add(new AuditRecord.Entry(prescription.getStatus(), prescription.getMedication(),
+                    prescription.getRationale()));
+        }
+        return append(new AuditRecord(AuditRecord.Type.DECISION, System.currentTimeMillis(), patientId,
+                clinicianId, "decision", entries));
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long writtenCount() {
+        return written.get();
+    }
+
+    public int queuedCount() {
+        return Math.max(queued.get(), 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The error that stopped the writer thread, or null while it is healthy. */
+    public Throwable failure() {
+        return failure;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void runWriter() {
+        try {
+            writeLoop();
+        } catch (Throwable t) {
+            failure = t;
+            int lost = 0;
+            while (queue.poll() != null) {
+                lost++;
+            }
+            queued.addAndGet(-lost);
+            dropped.addAndGet(lost);
+            log.error("Audit writer thread failed; journal is rejecting all records ({} queued records lost)",
+                    lost, t);
+            if (channel != null) {
+                closeSegment();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(MAX_BATCH);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (running || !queue.isEmpty()) {
+            AuditRecord record;
+            while (batch.size() < MAX_BATCH && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (!batch.isEmpty()) {
+                queued.addAndGet(-batch.size());
+                int next = 0;
+                try {
+                    for (; next < batch.size(); next++) {
+                        if (write(batch.get(next))) {
+                            written.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    // Records not reached because the writer failed are lost
+                    dropped.addAndGet(batch.size() - next);
+                    batch.clear();
+                }
+                dirty = true;
+            }
+
+            long now = System.nanoTime();
+            if (dirty && now - lastForce >= fsyncIntervalNanos) {
+                segment.force();
+                dirty = false;
+                lastForce = now;
+            }
+
+            if (queue.isEmpty() && running) {
+                writerParked = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(dirty ? fsyncIntervalNanos - (now - lastForce) : fsyncIntervalNanos);
+                }
+                writerParked = false;
+            }
+        }
+        segment.force();
+        closeSegment();
+        log.info("Audit journal closed after writing {} records ({} dropped)", written.get(), dropped.get());
+    }
+
+    private boolean write(AuditRecord record) {
+        AuditCodec.Encoded encoded = new AuditCodec.Encoded(record);
+        if (encoded.totalLength() + AuditCodec.HEADER_BYTES > segmentBytes) {
+            log.error("Dropping audit record of {} bytes; larger than a segment", encoded.totalLength());
+            dropped.incrementAndGet();
+            return false;
+        }
+        // Keep room for a zero length word terminating the segment
+        if (segment.remaining() < encoded.totalLength() + AuditCodec.HEADER_BYTES) {
+            try {
+                rollSegment();
+            } catch (IOException e) {
+                log.error("Failed to roll audit segment; dropping record: {}", e.getMessage(), e);
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        AuditCodec.write(segment, encoded, crc);
+        return true;
+    }
+
+    private void openLatestSegment() throws IOException {
+        List<Path> segments = AuditJournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0);
+            return;
+        }
+        Path latest = segments.get(segments.size() - 1);
+        openSegment(AuditJournalReader.segmentIndex(latest));
+        // Skip past the records already in the segment
+        while (AuditCodec.read(segment, crc) != null) {
+            // advance
+        }
+        int end = segment.position();
+        if (hasDataAfter(segment, end)) {
+            // A torn or corrupt record; appending here would overwrite whatever follows it
+            log.error("Audit segment {} has an unreadable record at offset {}; leaving it intact and continuing in"
+                    + " a new segment", latest.getFileName(), end);
+            rollSegment();
+        }
+    }
+
+    /** True if any byte from {@code from} on is non-zero, i.e. it is not the unused rest of the segment. */
+    private static boolean hasDataAfter(ByteBuffer buffer, int from) {
+        int i = from;
+        for (; i + Long.BYTES <= buffer.limit(); i += Long.BYTES) {
+            if (buffer.getLong(i) != 0) {
+                return true;
+            }
+        }
+        for (; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rollSegment() throws IOException {
+        segment.force();
+        closeSegment();
+        openSegment(segmentIndex + 1);
+        log.info("Rolled audit journal to segment {}", segmentIndex);
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path path = directory.resolve(AuditJournalReader.segmentName(index));
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, channel.size()));
+        this.segmentIndex = index;
+    }
+
+    private void closeSegment() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit segment {}: {}", segmentIndex, e.getMessage());
+        }
+    }
+}
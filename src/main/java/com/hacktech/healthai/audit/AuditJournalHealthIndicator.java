@@ -0,0 +1,32 @@
+package com.hacktech.healthai.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the audit journal as the "auditJournal" component of /actuator/health:
+ * DOWN once the writer thread has failed, with the record counters as details.
+ */
+@Component
+@RequiredArgsConstructor // Lombok for constructor injection
+public class AuditJournalHealthIndicator implements HealthIndicator {
+
+    private final AuditJournal auditJournal;
+
+    @Override
+    public Health health() {
+        if (!auditJournal.isEnabled()) {
+            return Health.unknown().withDetail("enabled", false).build();
+        }
+        Throwable failure = auditJournal.failure();
+        Health.Builder builder = failure == null ? Health.up()
+                : Health.down().withDetail("error", failure.toString());
+        return builder
+                .withDetail("written", auditJournal.writtenCount())
+                .withDetail("dropped", auditJournal.droppedCount())
+                .withDetail("queued", auditJournal.queuedCount())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.hacktech.healthai.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the audit journal counters as metrics, so records dropped because
+ * the queue was full or the writer failed can be alerted on:
+ * {@code audit.records.written}, {@code audit.records.dropped} and
+ * {@code audit.queue.size}.
+ */
+@Component
+@RequiredArgsConstructor // Lombok for constructor injection
+public class AuditJournalMetrics implements MeterBinder {
+
+    private final AuditJournal auditJournal;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("audit.records.written", auditJournal, AuditJournal::writtenCount)
+                .description("Audit records appended to the journal")
+                .register(registry);
+        FunctionCounter.builder("audit.records.dropped", auditJournal, AuditJournal::droppedCount)
+                .description("Audit records lost because the queue was full or the writer failed")
+                .register(registry);
+        Gauge.builder("audit.queue.size", auditJournal, AuditJournal::queuedCount)
+                .description("Audit records waiting for the writer thread")
+                .register(registry);
+    }
+}
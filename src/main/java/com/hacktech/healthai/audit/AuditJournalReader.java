@@ -0,0 +1,93 @@
+package com.hacktech.healthai.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Replays audit journal segments in append order. Safe to use while the
+ * journal is being written: a record only becomes visible once its length
+ * word is committed.
+ */
+public class AuditJournalReader {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+
+    public AuditJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Callback for {@link #replay}; return false to stop early. */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        boolean visit(AuditRecord record);
+    }
+
+    /**
+     * Visits every record in append order.
+     *
+     * @return the number of records visited.
+     */
+    public long replay(RecordVisitor visitor) throws IOException {
+        CRC32 crc = new CRC32();
+        long count = 0;
+        for (Path segment : listSegments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                AuditRecord record;
+                while ((record = AuditCodec.read(buffer, crc)) != null) {
+                    count++;
+                    if (!visitor.visit(record)) {
+                        return count;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Returns up to {@code limit} records matching the filter, in append order. */
+    public List<AuditRecord> query(Predicate<AuditRecord> filter, int limit) throws IOException {
+        List<AuditRecord> matches = new ArrayList<>();
+        replay(record -> {
+            if (filter.test(record)) {
+                matches.add(record);
+            }
+            return matches.size() < limit;
+        });
+        return matches;
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // Zero-padded indices sort lexicographically in append order
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    static String segmentName(long index) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
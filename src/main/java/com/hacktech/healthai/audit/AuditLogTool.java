@@ -0,0 +1,91 @@
+package com.hacktech.healthai.audit;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Command-line replay/query tool for the audit journal.
+ *
+ * <pre>
+ * java -cp app.jar -Dloader.main=com.hacktech.healthai.audit.AuditLogTool \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --dir audit --type DECISION --patient &lt;id&gt; --from 2026-01-01T00:00:00Z --limit 100
+ * </pre>
+ *
+ * Options: {@code --dir} (default "audit"), {@code --type} (VALIDATION or
+ * DECISION), {@code --patient}, {@code --clinician}, {@code --medication},
+ * {@code --from} / {@code --to} (ISO-8601 instants), {@code --limit}
+ * (default unlimited).
+ */
+public final class AuditLogTool {
+
+    private AuditLogTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Path.of("audit");
+        Predicate<AuditRecord> filter = record -> true;
+        int limit = Integer.MAX_VALUE;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--dir" -> dir = Path.of(value);
+                case "--type" -> {
+                    AuditRecord.Type type = AuditRecord.Type.valueOf(value.toUpperCase(Locale.ROOT));
+                    filter = filter.and(record -> record.type() == type);
+                }
+                case "--patient" -> filter = filter.and(record -> value.equals(record.patientId()));
+                case "--clinician" -> filter = filter.and(record -> value.equals(record.clinicianId()));
+                case "--medication" -> filter = filter.and(record -> record.entries().stream()
+                        .anyMatch(entry -> entry.medication() != null && entry.medication().equalsIgnoreCase(value)));
+                case "--from" -> {
+                    long from = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(record -> record.timestampMillis() >= from);
+                }
+                case "--to" -> {
+                    long to = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(record -> record.timestampMillis() < to);
+                }
+                case "--limit" -> limit = Integer.parseInt(value);
+                default -> {
+                    usage("Unknown option " + option);
+                    return;
+                }
+            }
+        }
+
+        Predicate<AuditRecord> matches = filter;
+        int max = limit;
+        long[] printed = { 0 };
+        long scanned = new AuditJournalReader(dir).replay(record -> {
+            if (matches.test(record)) {
+                print(record);
+                printed[0]++;
+            }
+            return printed[0] < max;
+        });
+        System.err.printf("%d of %d records matched%n", printed[0], scanned);
+    }
+
+    private static void print(AuditRecord record) {
+        System.out.printf("%s %s patient=%s clinician=%s context=%s%n", Instant.ofEpochMilli(record.timestampMillis()),
+                record.type(), record.patientId(), record.clinicianId(), record.context());
+        for (AuditRecord.Entry entry : record.entries()) {
+            System.out.printf("    %s %s: %s%n", entry.code(), entry.medication(), entry.text());
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: AuditLogTool [--dir DIR] [--type VALIDATION|DECISION] [--patient ID]"
+                + " [--clinician ID] [--medication NAME] [--from INSTANT] [--to INSTANT] [--limit N]");
+    }
+}
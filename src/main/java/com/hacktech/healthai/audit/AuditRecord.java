@@ -0,0 +1,26 @@
+package com.hacktech.healthai.audit;
+
+import java.util.List;
+
+/**
+ * One entry of the audit journal.
+ *
+ * Entries are (code, medication, text) triples: for a validation they are the
+ * issues found (type, medication, details), for a decision the prescriptions
+ * decided on (status, medication, rationale).
+ */
+public record AuditRecord(
+        Type type,
+        long timestampMillis,
+        String patientId,
+        String clinicianId,
+        String context, // e.g. "validate", "session:<id>"
+        List<Entry> entries) {
+
+    public enum Type {
+        VALIDATION, DECISION
+    }
+
+    public record Entry(String code, String medication, String text) {
+    }
+}
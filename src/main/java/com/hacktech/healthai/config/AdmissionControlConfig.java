@@ -0,0 +1,31 @@
+package com.hacktech.healthai.config;
+
+import com.hacktech.healthai.admission.AdmissionControlInterceptor;
+import com.hacktech.healthai.admission.EndpointClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Only the API endpoints; static SPA resources are never limited
+        List<String> patterns = new ArrayList<>();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            patterns.add(endpointClass.pathPrefix());
+            patterns.add(endpointClass.pathPrefix() + "/**");
+        }
+        // Polling or streaming an OCR job is cheap and must not spend the client's OCR tokens
+        registry.addInterceptor(admissionControlInterceptor).addPathPatterns(patterns)
+                .excludePathPatterns("/ocr/jobs/*", "/ocr/jobs/*/events");
+    }
+}
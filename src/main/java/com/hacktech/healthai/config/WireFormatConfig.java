@@ -0,0 +1,35 @@
+package com.hacktech.healthai.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers CBOR and Smile message converters next to the default JSON one, so
+ * clients can pick a compact binary format with the Accept (and Content-Type)
+ * header. Both converters write straight to the response stream through a
+ * Jackson generator, like the JSON converter; no intermediate tree is built.
+ *
+ * The mappers start from Spring Boot's builder so they share the JSON mapper's
+ * spring.jackson.* settings and modules.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    // Not defined by Spring's MediaType; this is the type Jackson's Smile converter uses
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
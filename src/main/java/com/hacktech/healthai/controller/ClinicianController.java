@@ -0,0 +1,32 @@
+package com.hacktech.healthai.controller;
+
+import com.hacktech.healthai.dashboard.DashboardReadModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/clinicians")
+@RequiredArgsConstructor // Lombok for constructor injection
+public class ClinicianController {
+
+    private final DashboardReadModel dashboardReadModel;
+
+    @GetMapping("/{clinicianId}/dashboard")
+    public ResponseEntity<?> getDashboard(@PathVariable UUID clinicianId) {
+        if (!dashboardReadModel.isReady()) {
+            // Still loading existing visits and prescriptions; partial counts would be wrong
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Clinician dashboards are still loading; please retry shortly.");
+        }
+        // Served from the precomputed read model; never scans the clinician's history
+        return ResponseEntity.ok(dashboardReadModel.dashboard(clinicianId));
+    }
+}
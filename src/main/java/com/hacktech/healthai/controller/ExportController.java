@@ -0,0 +1,146 @@
+package com.hacktech.healthai.controller;
+
+import com.hacktech.healthai.export.ExportCursor;
+import com.hacktech.healthai.export.ExportFormat;
+import com.hacktech.healthai.export.ExportTable;
+import com.hacktech.healthai.export.HistoryExporter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor // Lombok for constructor injection
+public class ExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+
+    private final HistoryExporter historyExporter;
+
+    /**
+     * Streams all visits or prescriptions, optionally for one clinician and/or
+     * patient, as NDJSON (default) or CSV. Gzip-compressed when the client
+     * accepts it. Pass {@code after=<created_at>,<id>} of the last row received
+     * to resume an interrupted export.
+     *
+     * The body is written straight to the response, so errors are too.
+     */
+    @GetMapping("/{table}")
+    public void export(@PathVariable("table") String tableName,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) UUID clinicianId,
+            @RequestParam(required = false) UUID patientId,
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        ExportTable table = ExportTable.fromPath(tableName);
+        if (table == null) {
+            error(response, HttpStatus.NOT_FOUND, "Unknown export '" + tableName
+                    + "'; expected 'visits' or 'prescriptions'.");
+            return;
+        }
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        if (exportFormat == null) {
+            error(response, HttpStatus.BAD_REQUEST, "Unsupported format '" + format
+                    + "'; expected 'ndjson' or 'csv'.");
+            return;
+        }
+        ExportCursor cursor;
+        try {
+            cursor = after != null && !after.isBlank() ? ExportCursor.parse(after) : null;
+        } catch (IllegalArgumentException e) {
+            error(response, HttpStatus.BAD_REQUEST, "Invalid 'after' parameter: " + e.getMessage());
+            return;
+        }
+        if (!historyExporter.isAvailable()) {
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "Exports require a database connection.");
+            return;
+        }
+        if (!historyExporter.tryReserve()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "30");
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress; please retry later.");
+            return;
+        }
+
+        try {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            response.setContentType(exportFormat.contentType() + ";charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\""
+                    + table.name().toLowerCase(Locale.ROOT) + "." + exportFormat.extension() + "\"");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            OutputStream out = response.getOutputStream();
+            if (gzip) {
+                out = new GZIPOutputStream(out, 1 << 16);
+            }
+            historyExporter.export(table, exportFormat, clinicianId, patientId, cursor, out);
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        } catch (SQLException e) {
+            // Headers are already sent; failing the response makes the client see a truncated transfer
+            log.error("Export of {} failed: {}", table, e.getMessage(), e);
+            throw new IOException("Export failed", e);
+        } finally {
+            historyExporter.release();
+        }
+    }
+
+    /**
+     * True if the Accept-Encoding header allows gzip: listed (or matched by
+     * {@code *} when not listed) with a non-zero q-value, e.g. not {@code gzip;q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0; // Malformed weight: do not risk sending an encoding the client refused
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (name.equals("*")) {
+                any = Math.max(any, q);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
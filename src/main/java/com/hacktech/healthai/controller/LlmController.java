@@ -1,9 +1,15 @@
 package com.hacktech.healthai.controller;
 
+import com.hacktech.healthai.config.WireFormatConfig;
 import com.hacktech.healthai.dto.LlmRequestDto;
 import com.hacktech.healthai.dto.LlmResponseDto;
+import com.hacktech.healthai.service.LlmProviderException;
 import com.hacktech.healthai.service.LlmService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,9 +26,18 @@ public class LlmController {
         this.llmService = llmService;
     }
 
-    @PostMapping("/completion")
+    @PostMapping(value = "/completion", produces = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.APPLICATION_SMILE_VALUE })
     public LlmResponseDto getLlmCompletion(@RequestBody LlmRequestDto requestDto) {
         String response = llmService.getCompletion(requestDto.getPrompt());
         return new LlmResponseDto(response);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(LlmProviderException.class)
+    public ResponseEntity<String> handleProviderFailure(LlmProviderException e) {
+        // Plain text regardless of Accept, which may only list the binary formats
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+}
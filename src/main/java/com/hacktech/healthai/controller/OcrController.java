@@ -1,17 +1,28 @@
 package com.hacktech.healthai.controller;
 
+import com.hacktech.healthai.config.WireFormatConfig;
+import com.hacktech.healthai.dto.OcrJobDto;
 import com.hacktech.healthai.dto.OcrRequestDto;
 import com.hacktech.healthai.dto.OcrResponseDto;
+import com.hacktech.healthai.ocr.OcrJobService;
 import com.hacktech.healthai.service.OcrService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/ocr")
@@ -19,13 +30,17 @@ public class OcrController {
 
     private static final Logger log = LoggerFactory.getLogger(OcrController.class);
     private final OcrService ocrService;
+    private final OcrJobService ocrJobService;
 
     @Autowired
-    public OcrController(OcrService ocrService) {
+    public OcrController(OcrService ocrService, OcrJobService ocrJobService) {
         this.ocrService = ocrService;
+        this.ocrJobService = ocrJobService;
     }
 
-    @PostMapping
+    // JSON by default; CBOR or Smile when the client asks for it via Accept
+    @PostMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.APPLICATION_SMILE_VALUE })
     public ResponseEntity<?> performOcr(@RequestBody OcrRequestDto requestDto) {
         if (requestDto == null || requestDto.getBase64Image() == null || requestDto.getBase64Image().isEmpty()) {
             log.warn("Received OCR request with empty or missing image data.");
@@ -44,4 +59,43 @@ public class OcrController {
                     .body("Failed to process image due to an internal error.");
         }
     }
-}
\ No newline at end of file
+
+    // Queues the image for background OCR and returns at once; poll the Location or subscribe to its events
+    @PostMapping(path = "/jobs", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.APPLICATION_SMILE_VALUE })
+    public ResponseEntity<?> submitOcrJob(@RequestBody OcrRequestDto requestDto) {
+        if (requestDto == null || requestDto.getBase64Image() == null || requestDto.getBase64Image().isEmpty()) {
+            log.warn("Received OCR job with empty or missing image data.");
+            return ResponseEntity.badRequest().body("Missing or empty 'base64Image' field in request.");
+        }
+        OcrJobDto job = ocrJobService.submit(requestDto);
+        if (job == null) {
+            log.warn("OCR job queue is full; rejecting submission.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(ocrJobService.retryAfterSeconds()))
+                    .body("OCR queue is full; please retry later.");
+        }
+        return ResponseEntity.accepted().location(URI.create("/ocr/jobs/" + job.jobId())).body(job);
+    }
+
+    @GetMapping(path = "/jobs/{jobId}", produces = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.APPLICATION_SMILE_VALUE })
+    public ResponseEntity<?> getOcrJob(@PathVariable UUID jobId) {
+        OcrJobDto job = ocrJobService.status(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown or expired OCR job.");
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // Server-sent "status" events until the job finishes
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOcrJob(@PathVariable UUID jobId) {
+        SseEmitter emitter = ocrJobService.subscribe(jobId);
+        if (emitter == null) {
+            // No body: the declared SseEmitter type is what lets Spring stream the success case
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,87 @@
+package com.hacktech.healthai.controller;
+
+import com.hacktech.healthai.dto.RescreenJobDto;
+import com.hacktech.healthai.dto.RescreenRequest;
+import com.hacktech.healthai.rescreen.RescreenService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/rescreening")
+@RequiredArgsConstructor // Lombok for constructor injection
+public class RescreenController {
+
+    private static final Logger log = LoggerFactory.getLogger(RescreenController.class);
+
+    private final RescreenService rescreenService;
+
+    // Starts a population-wide re-screen for a new interaction or recall; poll the Location for progress
+    @PostMapping
+    public ResponseEntity<?> start(@RequestBody RescreenRequest request) {
+        if (!rescreenService.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Re-screening requires a database connection.");
+        }
+        RescreenJobDto job;
+        try {
+            job = rescreenService.start(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Could not create re-screening job: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to start re-screening due to an internal error.");
+        }
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60")
+                    .body("Too many re-screening jobs running; please retry later.");
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/rescreening/" + job.jobId())).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> status(@PathVariable UUID jobId) {
+        RescreenJobDto job = rescreenService.status(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown re-screening job.");
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // Affected patients found so far, one JSON object per line
+    @GetMapping("/{jobId}/affected")
+    public ResponseEntity<?> affected(@PathVariable UUID jobId, HttpServletResponse response) throws IOException {
+        if (rescreenService.status(jobId) == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown re-screening job.");
+        }
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        rescreenService.writeResults(jobId, response.getOutputStream());
+        // The body has been written directly to the response
+        return null;
+    }
+
+    // Stops the job after its current batch; results so far are kept
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancel(@PathVariable UUID jobId) {
+        if (!rescreenService.cancel(jobId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown re-screening job.");
+        }
+        return ResponseEntity.accepted().body(rescreenService.status(jobId));
+    }
+}
@@ -0,0 +1,40 @@
+package com.hacktech.healthai.controller;
+
+import com.hacktech.healthai.dto.NoteSearchResponse;
+import com.hacktech.healthai.search.NoteIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor // Lombok for constructor injection
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final NoteIndex noteIndex;
+
+    /**
+     * Full-text search over visit reasons/notes and prescription notes, ranked
+     * by relevance. All terms must match unless {@code any=true}.
+     */
+    @GetMapping("/notes")
+    public ResponseEntity<?> searchNotes(@RequestParam(value = "q", required = false) String query,
+            @RequestParam(required = false) UUID clinicianId,
+            @RequestParam(required = false) UUID patientId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean any) {
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest().body("Missing or empty 'q' parameter.");
+        }
+        int clamped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        NoteSearchResponse response = noteIndex.search(query, clinicianId, patientId, !any, clamped);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,29 +1,103 @@
 package com.hacktech.healthai.controller;
 
+import com.hacktech.healthai.audit.AuditJournal;
+import com.hacktech.healthai.config.WireFormatConfig;
+import com.hacktech.healthai.dto.PrescriptionChangeDto;
+import com.hacktech.healthai.dto.PrescriptionDecisionRequest;
 import com.hacktech.healthai.dto.PrescriptionValidationRequest;
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
 import com.hacktech.healthai.dto.ValidationResponse;
 import com.hacktech.healthai.service.ValidationService;
+import com.hacktech.healthai.service.ValidationSessionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
-@RequestMapping("/api/prescriptions")
+// JSON by default; CBOR or Smile when the client asks for it via Accept
+@RequestMapping(value = "/api/prescriptions", produces = { MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE, WireFormatConfig.APPLICATION_SMILE_VALUE })
 @RequiredArgsConstructor // Lombok for constructor injection
 public class ValidationController {
 
     // Dependency Injection: Spring injects the service bean
     private final ValidationService validationService;
+    private final ValidationSessionService validationSessionService;
+    // Compliance trail; appends are asynchronous and never block the request
+    private final AuditJournal auditJournal;
 
     @PostMapping("/validate")
     public ResponseEntity<ValidationResponse> validatePrescriptions(
             @RequestBody PrescriptionValidationRequest request) {
         // Delegate the core logic to the service layer
         ValidationResponse response = validationService.validatePrescriptions(request);
+        // Best-effort: a record dropped on a full queue is counted in audit.records.dropped
+        auditJournal.recordValidation(request.patientId(), request.clinicianId(), "validate",
+                response.validationIssues());
         return ResponseEntity.ok(response); // Return 200 OK with the validation results
     }
 
+    @PostMapping("/validate/dosage")
+    public ResponseEntity<ValidationResponse> validateDosage(@RequestBody ProposedPrescriptionDto proposed) {
+        // Lightweight single-drug check used while the clinician is typing; not audited (see AuditJournal)
+        return ResponseEntity.ok(validationService.validateDosage(proposed));
+    }
+
+    // Final approve/reject decisions are recorded in the audit journal
+    @PostMapping("/decisions")
+    public ResponseEntity<?> recordDecisions(@RequestBody PrescriptionDecisionRequest request) {
+        if (request == null || request.prescriptions() == null || request.prescriptions().isEmpty()) {
+            return ResponseEntity.badRequest().body("Missing or empty 'prescriptions' field in request.");
+        }
+        if (!auditJournal.recordDecision(request.patientId(), request.clinicianId(), request.prescriptions())) {
+            // A decision that cannot be audited must not be silently accepted
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Audit journal unavailable.");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    // --- Review sessions: validate once, then send one edit at a time ---
+
+    @PutMapping("/validate/sessions/{sessionId}")
+    public ResponseEntity<ValidationResponse> startValidationSession(@PathVariable String sessionId,
+            @RequestBody PrescriptionValidationRequest request) {
+        ValidationResponse response = validationSessionService.startSession(sessionId, request);
+        auditJournal.recordValidation(request.patientId(), request.clinicianId(), "session:" + sessionId,
+                response.validationIssues());
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/validate/sessions/{sessionId}")
+    public ResponseEntity<?> updateValidationSession(@PathVariable String sessionId,
+            @RequestBody PrescriptionChangeDto change) {
+        try {
+            return validationSessionService.applyChange(sessionId, change)
+                    .<ResponseEntity<?>>map(update -> {
+                        auditJournal.recordValidation(update.patientId(), update.clinicianId(),
+                                "session:" + sessionId, update.response().validationIssues());
+                        return ResponseEntity.ok(update.response());
+                    })
+                    // Expired or unknown: the client resends the full list with PUT
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body("Validation session not found or expired."));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/validate/sessions/{sessionId}")
+    public ResponseEntity<Void> endValidationSession(@PathVariable String sessionId) {
+        validationSessionService.endSession(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.hacktech.healthai.dashboard;
+
+import com.hacktech.healthai.dto.ClinicianDashboardDto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Dashboard state of one clinician, maintained from visit and prescription
+ * writes rather than recomputed from their history.
+ *
+ * <ul>
+ * <li>Patients: a {@link UuidCountTable} of patient id to the number of visits
+ * and prescriptions linking them to this clinician.</li>
+ * <li>Recent visits: the newest {@code capacity} visits by visit date, in
+ * parallel primitive arrays sorted newest first.</li>
+ * <li>Pending prescriptions: all of them (a work queue, not history), sorted
+ * by creation time so the newest are read from the tail, however late a
+ * prescription went (back) to pending.</li>
+ * </ul>
+ *
+ * A snapshot therefore costs O(recent + pending limit) regardless of how many
+ * patients or visits the clinician has. A visit deleted from the recent list
+ * is not backfilled from older history. The list stays short until newer
+ * visits arrive or the model is reloaded.
+ *
+ * All methods synchronize on the instance.
+ */
+final class ClinicianDashboard {
+
+    private final UUID clinicianId;
+    private final UuidCountTable patients = new UuidCountTable();
+    private int visitCount;
+    private int prescriptionCount;
+
+    // Recent visits, sorted by visit date descending
+    private final long[] visitHi;
+    private final long[] visitLo;
+    private final long[] visitPatientHi;
+    private final long[] visitPatientLo;
+    private final long[] visitDateMillis;
+    private final String[] visitReason;
+    private int recentSize;
+
+    private static final Comparator<ClinicianDashboardDto.PendingPrescription> BY_CREATION = Comparator
+            .comparing(ClinicianDashboardDto.PendingPrescription::createdAt)
+            .thenComparing(ClinicianDashboardDto.PendingPrescription::prescriptionId);
+
+    private final HashMap<UUID, ClinicianDashboardDto.PendingPrescription> pending = new HashMap<>();
+    private final TreeSet<ClinicianDashboardDto.PendingPrescription> pendingByCreation = new TreeSet<>(BY_CREATION);
+
+    ClinicianDashboard(UUID clinicianId, int recentCapacity) {
+        this.clinicianId = clinicianId;
+        this.visitHi = new long[recentCapacity];
+        this.visitLo = new long[recentCapacity];
+        this.visitPatientHi = new long[recentCapacity];
+        this.visitPatientLo = new long[recentCapacity];
+        this.visitDateMillis = new long[recentCapacity];
+        this.visitReason = new String[recentCapacity];
+    }
+
+    synchronized void visitAdded(UUID visitId, UUID patientId, long dateMillis, String reason) {
+        patients.increment(patientId);
+        visitCount++;
+        offerRecent(visitId, patientId, dateMillis, reason);
+    }
+
+    /** Visits cannot change patient or clinician (Visit rejects it), so only the recent list can be affected. */
+    synchronized void visitUpdated(UUID visitId, UUID patientId, long dateMillis, String reason) {
+        removeRecent(visitId);
+        offerRecent(visitId, patientId, dateMillis, reason);
+    }
+
+    synchronized void visitRemoved(UUID visitId, UUID patientId) {
+        patients.decrement(patientId);
+        visitCount--;
+        removeRecent(visitId);
+    }
+
+    synchronized void prescriptionAdded(ClinicianDashboardDto.PendingPrescription prescription, boolean isPending) {
+        patients.increment(prescription.patientId());
+        prescriptionCount++;
+        if (isPending) {
+            putPending(prescription);
+        }
+    }
+
+    synchronized void prescriptionUpdated(ClinicianDashboardDto.PendingPrescription prescription,
+            boolean isPending) {
+        if (isPending) {
+            putPending(prescription);
+        } else {
+            removePending(prescription.prescriptionId());
+        }
+    }
+
+    synchronized void prescriptionRemoved(UUID prescriptionId, UUID patientId) {
+        patients.decrement(patientId);
+        prescriptionCount--;
+        removePending(prescriptionId);
+    }
+
+    synchronized ClinicianDashboardDto snapshot(int pendingLimit) {
+        List<ClinicianDashboardDto.RecentVisit> recent = new ArrayList<>(recentSize);
+        for (int i = 0; i < recentSize; i++) {
+            recent.add(new ClinicianDashboardDto.RecentVisit(new UUID(visitHi[i], visitLo[i]),
+                    new UUID(visitPatientHi[i], visitPatientLo[i]), Instant.ofEpochMilli(visitDateMillis[i]),
+                    visitReason[i]));
+        }
+        List<ClinicianDashboardDto.PendingPrescription> newestPending = new ArrayList<>(
+                Math.min(pendingLimit, pending.size()));
+        Iterator<ClinicianDashboardDto.PendingPrescription> it = pendingByCreation.descendingIterator();
+        while (it.hasNext() && newestPending.size() < pendingLimit) {
+            newestPending.add(it.next());
+        }
+        return new ClinicianDashboardDto(clinicianId, patients.size(), visitCount, prescriptionCount, pending.size(),
+                recent, newestPending);
+    }
+
+    private void putPending(ClinicianDashboardDto.PendingPrescription prescription) {
+        removePending(prescription.prescriptionId());
+        pending.put(prescription.prescriptionId(), prescription);
+        pendingByCreation.add(prescription);
+    }
+
+    private void removePending(UUID prescriptionId) {
+        ClinicianDashboardDto.PendingPrescription removed = pending.remove(prescriptionId);
+        if (removed != null) {
+            pendingByCreation.remove(removed);
+        }
+    }
+
+    private void offerRecent(UUID visitId, UUID patientId, long dateMillis, String reason) {
+        int capacity = visitHi.length;
+        // Insertion point keeps newest first; ties go after existing entries
+        int at = recentSize;
+        while (at > 0 && visitDateMillis[at - 1] < dateMillis) {
+            at--;
+        }
+        if (at >= capacity) {
+            return; // older than everything in a full list
+        }
+        int moved = Math.min(recentSize, capacity - 1) - at;
+        System.arraycopy(visitHi, at, visitHi, at + 1, moved);
+        System.arraycopy(visitLo, at, visitLo, at + 1, moved);
+        System.arraycopy(visitPatientHi, at, visitPatientHi, at + 1, moved);
+        System.arraycopy(visitPatientLo, at, visitPatientLo, at + 1, moved);
+        System.arraycopy(visitDateMillis, at, visitDateMillis, at + 1, moved);
+        System.arraycopy(visitReason, at, visitReason, at + 1, moved);
+        visitHi[at] = visitId.getMostSignificantBits();
+        visitLo[at] = visitId.getLeastSignificantBits();
+        visitPatientHi[at] = patientId.getMostSignificantBits();
+        visitPatientLo[at] = patientId.getLeastSignificantBits();
+        visitDateMillis[at] = dateMillis;
+        visitReason[at] = reason;
+        recentSize = Math.min(recentSize + 1, capacity);
+    }
+
+    private void removeRecent(UUID visitId) {
+        long hi = visitId.getMostSignificantBits();
+        long lo = visitId.getLeastSignificantBits();
+        for (int i = 0; i < recentSize; i++) {
+            if (visitHi[i] == hi && visitLo[i] == lo) {
+                int moved = recentSize - i - 1;
+                System.arraycopy(visitHi, i + 1, visitHi, i, moved);
+                System.arraycopy(visitLo, i + 1, visitLo, i, moved);
+                System.arraycopy(visitPatientHi, i + 1, visitPatientHi, i, moved);
+                System.arraycopy(visitPatientLo, i + 1, visitPatientLo, i, moved);
+                System.arraycopy(visitDateMillis, i + 1, visitDateMillis, i, moved);
+                System.arraycopy(visitReason, i + 1, visitReason, i, moved);
+                recentSize--;
+                visitReason[recentSize] = null;
+                return;
+            }
+        }
+    }
+}
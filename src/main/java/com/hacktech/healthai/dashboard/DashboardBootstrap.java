@@ -0,0 +1,136 @@
+package com.hacktech.healthai.dashboard;
+
+import com.hacktech.healthai.entity.Prescription;
+import com.hacktech.healthai.entity.Visit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Loads existing visits and prescriptions into the {@link DashboardReadModel}
+ * once the application is up, then lets it start serving.
+ *
+ * Everything runs in one repeatable-read transaction, so both scans and the
+ * final membership check see the same snapshot. Live changes that arrived
+ * meanwhile are held back by the model; their rows are looked up in that
+ * snapshot so the model can replay exactly the changes the scans missed. With
+ * JPA not configured (no {@link EntityManagerFactory} bean) the model starts
+ * empty.
+ */
+@Component
+public class DashboardBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardBootstrap.class);
+
+    private static final int FETCH_SIZE = 1000;
+    // Ids per "in" list when checking held changes against the snapshot
+    private static final int ID_CHUNK = 500;
+
+    private final DashboardReadModel readModel;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public DashboardBootstrap(DashboardReadModel readModel, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.readModel = readModel;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            log.info("JPA is not configured; clinician dashboards start empty.");
+            readModel.finishWarming(readModel.heldCount(), Set.of());
+            return;
+        }
+        long start = System.nanoTime();
+        long visits = 0;
+        long prescriptions = 0;
+        int replayed;
+        EntityManager entityManager = factory.createEntityManager();
+        // PostgreSQL only honours the fetch size (cursor) inside a transaction
+        entityManager.getTransaction().begin();
+        try {
+            entityManager.createNativeQuery("set transaction isolation level repeatable read").executeUpdate();
+            // Only ids are read from patient and clinician, so their lazy proxies are never initialized
+            try (Stream<Visit> rows = entityManager
+                    .createQuery("select v from Visit v order by v.createdAt", Visit.class)
+                    .setHint("org.hibernate.fetchSize", FETCH_SIZE)
+                    .setHint("org.hibernate.readOnly", true)
+                    .getResultStream()) {
+                for (Visit visit : (Iterable<Visit>) rows::iterator) {
+                    readModel.loadVisit(visit);
+                    if (++visits % FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            try (Stream<Prescription> rows = entityManager
+                    .createQuery("select p from Prescription p order by p.createdAt", Prescription.class)
+                    .setHint("org.hibernate.fetchSize", FETCH_SIZE)
+                    .setHint("org.hibernate.readOnly", true)
+                    .getResultStream()) {
+                for (Prescription prescription : (Iterable<Prescription>) rows::iterator) {
+                    readModel.loadPrescription(prescription);
+                    if (++prescriptions % FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            replayed = catchUp(entityManager);
+        } catch (RuntimeException e) {
+            readModel.abandonWarming();
+            log.error("Failed to load clinician dashboards; they stay unavailable until restart", e);
+            return;
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+        log.info("Loaded clinician dashboards for {} clinicians from {} visits and {} prescriptions "
+                + "(+{} live changes) in {} ms", readModel.clinicianCount(), visits, prescriptions, replayed,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Checks the rows touched by held changes against the snapshot until no new change arrives in between
+    private int catchUp(EntityManager entityManager) {
+        Set<UUID> inSnapshot = new HashSet<>();
+        int seen = 0;
+        while (true) {
+            int held = readModel.heldCount();
+            if (held > seen) {
+                Set<UUID> visitIds = new HashSet<>();
+                Set<UUID> prescriptionIds = new HashSet<>();
+                readModel.collectHeldIds(seen, held, visitIds, prescriptionIds);
+                inSnapshot.addAll(existing(entityManager, "select v.id from Visit v where v.id in :ids", visitIds));
+                inSnapshot.addAll(existing(entityManager, "select p.id from Prescription p where p.id in :ids",
+                        prescriptionIds));
+                seen = held;
+            }
+            if (readModel.finishWarming(seen, inSnapshot)) {
+                return seen;
+            }
+        }
+    }
+
+    private static List<UUID> existing(EntityManager entityManager, String query, Set<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<UUID> found = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += ID_CHUNK) {
+            found.addAll(entityManager.createQuery(query, UUID.class)
+                    .setParameter("ids", all.subList(from, Math.min(from + ID_CHUNK, all.size())))
+                    .getResultList());
+        }
+        return found;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hacktech.healthai.dashboard;
+
+import com.hacktech.healthai.config.TransactionHooks;
+import com.hacktech.healthai.entity.Prescription;
+import com.hacktech.healthai.entity.Visit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link Visit} and {@link Prescription} that feeds the
+ * {@link DashboardReadModel}. Hibernate obtains it from Spring's bean
+ * container, so the read model is constructor-injected.
+ *
+ * Changes are applied after commit (see {@link TransactionHooks}).
+ */
+public class DashboardEntityListener {
+
+    private final DashboardReadModel readModel;
+
+    public DashboardEntityListener(DashboardReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        if (entity instanceof Visit visit) {
+            TransactionHooks.afterCommit(() -> readModel.visitCreated(visit));
+        } else if (entity instanceof Prescription prescription) {
+            TransactionHooks.afterCommit(() -> readModel.prescriptionCreated(prescription));
+        }
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        if (entity instanceof Visit visit) {
+            TransactionHooks.afterCommit(() -> readModel.visitUpdated(visit));
+        } else if (entity instanceof Prescription prescription) {
+            TransactionHooks.afterCommit(() -> readModel.prescriptionUpdated(prescription));
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Visit visit) {
+            TransactionHooks.afterCommit(() -> readModel.visitDeleted(visit));
+        } else if (entity instanceof Prescription prescription) {
+            TransactionHooks.afterCommit(() -> readModel.prescriptionDeleted(prescription));
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.hacktech.healthai.dashboard;
+
+import com.hacktech.healthai.dto.ClinicianDashboardDto;
+import com.hacktech.healthai.entity.Prescription;
+import com.hacktech.healthai.entity.Visit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory read model behind the clinician dashboard.
+ *
+ * {@link DashboardEntityListener} applies every committed visit and
+ * prescription write here, and {@link DashboardBootstrap} replays the
+ * existing rows at startup. Reading a dashboard is one map lookup plus a copy
+ * of a bounded number of entries. See {@link ClinicianDashboard} for the
+ * per-clinician layout.
+ *
+ * Until the bootstrap finishes the model is warming: dashboards are not served
+ * and live changes are held back rather than applied, since the rows they touch
+ * may or may not be in the bootstrap's snapshot. The bootstrap then reports
+ * which of the touched rows its snapshot contained, and each held change is
+ * replayed only if it is not already reflected (a create of a row the snapshot
+ * lacked, a delete or update of one it had).
+ */
+@Component
+public class DashboardReadModel {
+
+    private final int recentVisits;
+    private final int pendingLimit;
+    private final ConcurrentHashMap<UUID, ClinicianDashboard> dashboards = new ConcurrentHashMap<>();
+
+    private enum State {
+        WARMING, READY, FAILED
+    }
+
+    private enum Op {
+        CREATE, UPDATE, DELETE
+    }
+
+    // A live change captured while warming; the entity's fields are read when it is captured
+    private record HeldChange(UUID entityId, boolean visit, Op op, Runnable apply) {
+    }
+
+    private final Object warmupLock = new Object();
+    private volatile State state = State.WARMING;
+    private List<HeldChange> held = new ArrayList<>(); // guarded by warmupLock; null once warm
+
+    public DashboardReadModel(@Value("${dashboard.recent-visits:20}") int recentVisits,
+            @Value("${dashboard.pending-limit:50}") int pendingLimit) {
+        this.recentVisits = recentVisits;
+        this.pendingLimit = pendingLimit;
+    }
+
+    /** False while the bootstrap is still loading (or failed to load) existing rows. */
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /** The clinician's dashboard; an empty one if nothing has been recorded for them. */
+    public ClinicianDashboardDto dashboard(UUID clinicianId) {
+        ClinicianDashboard dashboard = dashboards.get(clinicianId);
+        if (dashboard == null) {
+            return new ClinicianDashboardDto(clinicianId, 0, 0, 0, 0, List.of(), List.of());
+        }
+        return dashboard.snapshot(pendingLimit);
+    }
+
+    public void visitCreated(Visit visit) {
+        UUID clinicianId = visit.getClinician().getId();
+        UUID visitId = visit.getId();
+        UUID patientId = visit.getPatient().getId();
+        long dateMillis = epochMillis(visit.getVisitDate());
+        String reason = visit.getReason();
+        submit(visitId, true, Op.CREATE,
+                () -> dashboardFor(clinicianId).visitAdded(visitId, patientId, dateMillis, reason));
+    }
+
+    public void visitUpdated(Visit visit) {
+        UUID clinicianId = visit.getClinician().getId();
+        UUID visitId = visit.getId();
+        UUID patientId = visit.getPatient().getId();
+        long dateMillis = epochMillis(visit.getVisitDate());
+        String reason = visit.getReason();
+        submit(visitId, true, Op.UPDATE,
+                () -> dashboardFor(clinicianId).visitUpdated(visitId, patientId, dateMillis, reason));
+    }
+
+    public void visitDeleted(Visit visit) {
+        UUID clinicianId = visit.getClinician().getId();
+        UUID visitId = visit.getId();
+        UUID patientId = visit.getPatient().getId();
+        submit(visitId, true, Op.DELETE, () -> dashboardFor(clinicianId).visitRemoved(visitId, patientId));
+    }
+
+    public void prescriptionCreated(Prescription prescription) {
+        UUID clinicianId = prescription.getClinician().getId();
+        ClinicianDashboardDto.PendingPrescription summary = summary(prescription);
+        boolean pending = isPending(prescription.getStatus());
+        submit(summary.prescriptionId(), false, Op.CREATE,
+                () -> dashboardFor(clinicianId).prescriptionAdded(summary, pending));
+    }
+
+    public void prescriptionUpdated(Prescription prescription) {
+        UUID clinicianId = prescription.getClinician().getId();
+        ClinicianDashboardDto.PendingPrescription summary = summary(prescription);
+        boolean pending = isPending(prescription.getStatus());
+        submit(summary.prescriptionId(), false, Op.UPDATE,
+                () -> dashboardFor(clinicianId).prescriptionUpdated(summary, pending));
+    }
+
+    public void prescriptionDeleted(Prescription prescription) {
+        UUID clinicianId = prescription.getClinician().getId();
+        UUID prescriptionId = prescription.getId();
+        UUID patientId = prescription.getPatient().getId();
+        submit(prescriptionId, false, Op.DELETE,
+                () -> dashboardFor(clinicianId).prescriptionRemoved(prescriptionId, patientId));
+    }
+
+    // --- Bootstrap: rows from the snapshot go straight in; live changes wait ---
+
+    void loadVisit(Visit visit) {
+        dashboardFor(visit.getClinician().getId()).visitAdded(visit.getId(), visit.getPatient().getId(),
+                epochMillis(visit.getVisitDate()), visit.getReason());
+    }
+
+    void loadPrescription(Prescription prescription) {
+        dashboardFor(prescription.getClinician().getId()).prescriptionAdded(summary(prescription),
+                isPending(prescription.getStatus()));
+    }
+
+    /** Number of live changes held back so far. */
+    int heldCount() {
+        synchronized (warmupLock) {
+            return held == null ? 0 : held.size();
+        }
+    }
+
+    /** Adds the ids of the visits and prescriptions touched by held changes [from, to). */
+    void collectHeldIds(int from, int to, Set<UUID> visitIds, Set<UUID> prescriptionIds) {
+        synchronized (warmupLock) {
+            for (HeldChange change : held.subList(from, to)) {
+                (change.visit ? visitIds : prescriptionIds).add(change.entityId);
+            }
+        }
+    }
+
+    /**
+     * Replays the held changes against the loaded snapshot and starts serving.
+     *
+     * @param seen       Number of held changes whose ids the caller has checked.
+     * @param inSnapshot Those of the checked ids the snapshot contains.
+     * @return false, leaving the model warming, if more changes arrived since the caller's check.
+     */
+    boolean finishWarming(int seen, Set<UUID> inSnapshot) {
+        synchronized (warmupLock) {
+            if (held.size() > seen) {
+                return false;
+            }
+            Set<UUID> present = new HashSet<>(inSnapshot);
+            for (HeldChange change : held) {
+                boolean exists = present.contains(change.entityId);
+                if (change.op == Op.CREATE ? !exists : exists) {
+                    change.apply.run();
+                }
+                if (change.op == Op.CREATE) {
+                    present.add(change.entityId);
+                } else if (change.op == Op.DELETE) {
+                    present.remove(change.entityId);
+                }
+            }
+            held = null;
+            state = State.READY;
+            return true;
+        }
+    }
+
+    /** Gives up on warming after a failed bootstrap: the model stays unavailable and stops collecting changes. */
+    void abandonWarming() {
+        synchronized (warmupLock) {
+            held = null;
+            state = State.FAILED;
+        }
+    }
+
+    public int clinicianCount() {
+        return dashboards.size();
+    }
+
+    /** No status yet, or explicitly waiting on the clinician, counts as pending. */
+    static boolean isPending(String status) {
+        return status == null || "PENDING".equalsIgnoreCase(status) || "NEEDS_REVIEW".equalsIgnoreCase(status);
+    }
+
+    private void submit(UUID entityId, boolean visit, Op op, Runnable apply) {
+        if (state == State.WARMING) {
+            synchronized (warmupLock) {
+                if (state == State.WARMING) {
+                    held.add(new HeldChange(entityId, visit, op, apply));
+                    return;
+                }
+            }
+        }
+        if (state == State.READY) {
+            apply.run();
+        }
+    }
+
+    private ClinicianDashboard dashboardFor(UUID clinicianId) {
+        return dashboards.computeIfAbsent(clinicianId, id -> new ClinicianDashboard(id, recentVisits));
+    }
+
+    private static ClinicianDashboardDto.PendingPrescription summary(Prescription prescription) {
+        OffsetDateTime createdAt = prescription.getCreatedAt();
+        return new ClinicianDashboardDto.PendingPrescription(prescription.getId(), prescription.getPatient().getId(),
+                prescription.getMedication(), createdAt != null ? createdAt.toInstant() : Instant.now());
+    }
+
+    private static long epochMillis(OffsetDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant().toEpochMilli() : 0L;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hacktech.healthai.dashboard;
+
+import java.util.UUID;
+
+/**
+ * Open-addressing multiset of UUIDs: each key is stored as two longs in one
+ * array and its count in a parallel int array, 20 bytes per slot and no
+ * per-entry objects (a {@code HashMap<UUID, Integer>} spends over 100 bytes
+ * per entry on the entry, UUID and Integer objects). Deletion uses backward
+ * shifting, so the table never collects tombstones.
+ *
+ * Not thread-safe.
+ */
+final class UuidCountTable {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys; // hi, lo pairs
+    private int[] counts; // 0 marks an empty slot
+    private int size;
+    private int mask;
+
+    UuidCountTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Adds one occurrence of the key and returns its new count. */
+    int increment(UUID key) {
+        long hi = key.getMostSignificantBits();
+        long lo = key.getLeastSignificantBits();
+        int slot = find(hi, lo);
+        if (counts[slot] != 0) {
+            return ++counts[slot];
+        }
+        if ((size + 1) * 4 > counts.length * 3) {
+            rehash(counts.length * 2);
+            slot = find(hi, lo);
+        }
+        keys[2 * slot] = hi;
+        keys[2 * slot + 1] = lo;
+        counts[slot] = 1;
+        size++;
+        return 1;
+    }
+
+    /** Removes one occurrence of the key and returns its new count (0 once gone or if absent). */
+    int decrement(UUID key) {
+        int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (counts[slot] == 0) {
+            return 0;
+        }
+        if (--counts[slot] > 0) {
+            return counts[slot];
+        }
+        size--;
+        shiftBack(slot);
+        return 0;
+    }
+
+    int count(UUID key) {
+        return counts[find(key.getMostSignificantBits(), key.getLeastSignificantBits())];
+    }
+
+    /** Slot holding the key, or the empty slot where it would go. */
+    private int find(long hi, long lo) {
+        int slot = hash(hi, lo) & mask;
+        while (counts[slot] != 0 && (keys[2 * slot] != hi || keys[2 * slot + 1] != lo)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Closes the gap at {@code hole} by moving back any later entry that probed past it. */
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (counts[slot] == 0) {
+                break;
+            }
+            int home = hash(keys[2 * slot], keys[2 * slot + 1]) & mask;
+            // Move the entry if its home is not cyclically within (hole, slot]
+            boolean movable = hole <= slot ? (home <= hole || home > slot) : (home <= hole && home > slot);
+            if (movable) {
+                keys[2 * hole] = keys[2 * slot];
+                keys[2 * hole + 1] = keys[2 * slot + 1];
+                counts[hole] = counts[slot];
+                hole = slot;
+            }
+        }
+        counts[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(capacity);
+        for (int i = 0; i < oldCounts.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = find(oldKeys[2 * i], oldKeys[2 * i + 1]);
+                keys[2 * slot] = oldKeys[2 * i];
+                keys[2 * slot + 1] = oldKeys[2 * i + 1];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[2 * capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
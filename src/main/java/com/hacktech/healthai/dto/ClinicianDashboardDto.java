@@ -0,0 +1,23 @@
+package com.hacktech.healthai.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Precomputed clinician dashboard (see DashboardReadModel)
+public record ClinicianDashboardDto(
+        UUID clinicianId,
+        int patientCount, // Distinct patients with at least one visit or prescription
+        int visitCount,
+        int prescriptionCount,
+        int pendingPrescriptionCount,
+        List<RecentVisit> recentVisits, // Newest first
+        List<PendingPrescription> pendingPrescriptions // Newest first, capped at dashboard.pending-limit
+) {
+
+    public record RecentVisit(UUID visitId, UUID patientId, Instant visitDate, String reason) {
+    }
+
+    public record PendingPrescription(UUID prescriptionId, UUID patientId, String medication, Instant createdAt) {
+    }
+}
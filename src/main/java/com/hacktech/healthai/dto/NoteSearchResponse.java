@@ -0,0 +1,19 @@
+package com.hacktech.healthai.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Ranked note search results (see NoteIndex)
+public record NoteSearchResponse(
+        long totalHits, // All matching notes, not just those returned
+        List<Hit> hits // Best first
+) {
+
+    public record Hit(
+            String type, // "VISIT" or "PRESCRIPTION"
+            UUID id,
+            UUID clinicianId,
+            UUID patientId,
+            double score) {
+    }
+}
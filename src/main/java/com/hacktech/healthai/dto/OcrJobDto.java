@@ -0,0 +1,16 @@
+package com.hacktech.healthai.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// State of an asynchronous OCR job (see OcrJobService)
+public record OcrJobDto(
+        UUID jobId,
+        String status, // QUEUED, RUNNING, SUCCEEDED or FAILED
+        Instant submittedAt,
+        Instant startedAt, // null while queued
+        Instant finishedAt, // null until done
+        OcrResponseDto result, // Only when SUCCEEDED
+        String error // Only when FAILED
+) {
+}
@@ -0,0 +1,12 @@
+package com.hacktech.healthai.dto;
+
+// A single edit to the proposed list of a validation session
+public record PrescriptionChangeDto(
+        Operation op, // ADD appends, REMOVE and CHANGE address an existing entry
+        Integer index, // Position in the proposed list; ignored for ADD
+        ProposedPrescriptionDto prescription // Required for ADD and CHANGE
+) {
+    public enum Operation {
+        ADD, REMOVE, CHANGE
+    }
+}
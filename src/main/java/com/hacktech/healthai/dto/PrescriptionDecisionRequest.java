@@ -0,0 +1,10 @@
+package com.hacktech.healthai.dto;
+
+import java.util.List;
+
+// Clinician's final decision on a set of prescriptions (approve/reject with rationale)
+public record PrescriptionDecisionRequest(
+        String patientId,
+        String clinicianId,
+        List<PrescribedDrugDto> prescriptions) {
+}
@@ -6,6 +6,7 @@ import java.util.List;
 public record PrescriptionValidationRequest(
                 // patientId might still be useful for logging/context, but not for DB lookup
                 String patientId,
+                String clinicianId, // clinician requesting the check; recorded in the audit journal
                 List<ProposedPrescriptionDto> proposedPrescriptions,
                 List<String> patientAllergies, // Frontend provides known allergies
                 List<CurrentPrescriptionDto> currentPrescriptions // Frontend provides current meds
@@ -3,7 +3,7 @@ package com.hacktech.healthai.dto;
 // Using record for immutable DTO
 public record ProposedPrescriptionDto(
         String medicationName,
-        String dosage, // Optional: include for potential dosage checks later
-        String frequency // Optional: include for potential frequency checks later
+        String dosage, // Optional: e.g. "500 mg", checked against the max daily dose
+        String frequency // Optional: e.g. "1 tab BID", "q6h prn"
 ) {
 }
\ No newline at end of file
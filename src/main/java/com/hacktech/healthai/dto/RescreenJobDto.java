@@ -0,0 +1,23 @@
+package com.hacktech.healthai.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Progress and results of a population re-screening job
+public record RescreenJobDto(
+        UUID jobId,
+        String name,
+        String status, // RUNNING, INTERRUPTED (resumes on the next start), COMPLETED, CANCELLED or FAILED
+        long patientsScreened,
+        long prescriptionsScreened,
+        long affectedPatients, // Details per patient at /api/rescreening/{jobId}/affected
+        List<AffectedClinician> affectedClinicians, // Most affected patients first
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+
+    public record AffectedClinician(UUID clinicianId, int affectedPatients) {
+    }
+}
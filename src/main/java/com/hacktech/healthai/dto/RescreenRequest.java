@@ -0,0 +1,12 @@
+package com.hacktech.healthai.dto;
+
+import java.util.List;
+
+// A newly published rule to re-screen every patient's active prescriptions against (see RescreenService)
+public record RescreenRequest(
+        String name, // e.g. the advisory or recall reference
+        String type, // "INTERACTION" or "RECALL"
+        List<String> drugs, // Drug names or ATC codes at any level, e.g. "sertraline" or "N06AB"
+        List<String> interactsWith // INTERACTION only: the other side of the pair
+) {
+}
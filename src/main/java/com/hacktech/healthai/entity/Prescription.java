@@ -1,5 +1,7 @@
 package com.hacktech.healthai.entity;
 
+import com.hacktech.healthai.dashboard.DashboardEntityListener;
+import com.hacktech.healthai.search.NoteIndexListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,6 +13,8 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+// Keep the clinician dashboard read model and the note search index current
+@EntityListeners({ DashboardEntityListener.class, NoteIndexListener.class })
 @Table(name = "prescriptions")
 public class Prescription {
 
@@ -42,6 +46,10 @@ public class Prescription {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Added by db/add-prescription-status.sql; apply it before deploying
+    @Column(name = "status", columnDefinition = "TEXT")
+    private String status; // e.g., 'PENDING' (or null), 'NEEDS_REVIEW', 'APPROVED', 'REJECTED'
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "timestamp with time zone")
     private OffsetDateTime createdAt;
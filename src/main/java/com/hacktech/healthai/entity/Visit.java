@@ -1,6 +1,9 @@
 package com.hacktech.healthai.entity;
 
+import com.hacktech.healthai.dashboard.DashboardEntityListener;
+import com.hacktech.healthai.search.NoteIndexListener;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,6 +15,8 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+// Keep the clinician dashboard read model and the note search index current
+@EntityListeners({ DashboardEntityListener.class, NoteIndexListener.class })
 @Table(name = "visits")
 public class Visit {
 
@@ -44,5 +49,31 @@ public class Visit {
     @OneToMany(mappedBy = "visit")
     private List<Prescription> prescriptions;
 
+    // Owner when last loaded or saved. The dashboard read model counts each visit under one clinician and
+    // patient for good, so moving a visit is rejected; delete it and create a new one instead.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private UUID savedClinicianId;
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private UUID savedPatientId;
+
+    @PostLoad
+    @PostPersist
+    void rememberOwner() {
+        savedClinicianId = clinician.getId();
+        savedPatientId = patient.getId();
+    }
+
+    @PreUpdate
+    void rejectOwnerChange() {
+        if (savedClinicianId != null && (!savedClinicianId.equals(clinician.getId())
+                || !savedPatientId.equals(patient.getId()))) {
+            throw new IllegalStateException("Visit " + id + " cannot be moved to another clinician or patient");
+        }
+    }
+
     // Constructors, Getters, Setters, etc.
 }
\ No newline at end of file
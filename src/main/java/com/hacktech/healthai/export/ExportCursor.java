@@ -0,0 +1,34 @@
+package com.hacktech.healthai.export;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Keyset position in an export: the created_at and id of the last row a
+ * client received. Written as {@code <created_at>,<id>}, e.g.
+ * {@code 2025-04-05T10:15:30.123456Z,1b4e28ba-2fa1-11d2-883f-0016d3cca427}.
+ * Both values appear in every exported row, so a client can resume from
+ * whatever it last stored.
+ */
+public record ExportCursor(OffsetDateTime createdAt, UUID id) {
+
+    /** Parses the cursor, or throws IllegalArgumentException if it is malformed. */
+    public static ExportCursor parse(String value) {
+        int comma = value.lastIndexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Expected '<created_at>,<id>'");
+        }
+        try {
+            return new ExportCursor(OffsetDateTime.parse(value.substring(0, comma).trim()),
+                    UUID.fromString(value.substring(comma + 1).trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid created_at: " + e.getParsedString(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "," + id;
+    }
+}
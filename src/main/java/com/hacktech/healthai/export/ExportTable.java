@@ -0,0 +1,65 @@
+package com.hacktech.healthai.export;
+
+import java.util.List;
+
+/**
+ * Tables that can be exported, with their columns in output order. Every
+ * table is read in (created_at, id) order, which is also the keyset used to
+ * resume an interrupted export.
+ */
+public enum ExportTable {
+
+    VISITS("visits", List.of(
+            Column.uuid("id"), Column.uuid("patient_id"), Column.uuid("clinician_id"),
+            Column.timestamp("visit_date"), Column.text("reason"), Column.text("notes"),
+            Column.timestamp("created_at"))),
+    PRESCRIPTIONS("prescriptions", List.of(
+            Column.uuid("id"), Column.uuid("patient_id"), Column.uuid("clinician_id"), Column.uuid("visit_id"),
+            Column.text("medication"), Column.text("dosage"), Column.text("frequency"), Column.text("notes"),
+            Column.text("status"), Column.timestamp("created_at")));
+
+    enum Kind {
+        UUID, TEXT, TIMESTAMP
+    }
+
+    record Column(String name, Kind kind) {
+
+        static Column uuid(String name) {
+            return new Column(name, Kind.UUID);
+        }
+
+        static Column text(String name) {
+            return new Column(name, Kind.TEXT);
+        }
+
+        static Column timestamp(String name) {
+            return new Column(name, Kind.TIMESTAMP);
+        }
+    }
+
+    private final String tableName;
+    private final List<Column> columns;
+
+    ExportTable(String tableName, List<Column> columns) {
+        this.tableName = tableName;
+        this.columns = columns;
+    }
+
+    String tableName() {
+        return tableName;
+    }
+
+    List<Column> columns() {
+        return columns;
+    }
+
+    /** The table for a path segment such as "visits", or null. */
+    public static ExportTable fromPath(String value) {
+        for (ExportTable table : values()) {
+            if (table.tableName.equalsIgnoreCase(value)) {
+                return table;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.hacktech.healthai.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Streams visit or prescription history straight from a forward-only JDBC
+ * cursor to an output stream, so memory use does not depend on the export
+ * size. Rows are read {@code export.fetch-size} at a time inside a read-only
+ * transaction (PostgreSQL only uses a cursor when auto-commit is off) and
+ * written as they arrive; JPA and its persistence context are bypassed.
+ *
+ * Rows come out in (created_at, id) order. Passing the last row's position
+ * as an {@link ExportCursor} continues after it, using a keyset predicate
+ * rather than an offset, so resuming never rescans what was already sent.
+ * An index on (clinician_id, created_at, id) or (patient_id, created_at, id)
+ * keeps filtered exports from sorting.
+ *
+ * At most {@code export.max-concurrent} exports run at once, since each
+ * holds a database connection and a request thread for its whole duration.
+ */
+@Component
+public class HistoryExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryExporter.class);
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final int fetchSize;
+    private final Semaphore permits;
+
+    public HistoryExporter(ObjectProvider<DataSource> dataSource,
+            @Value("${export.fetch-size:1000}") int fetchSize,
+            @Value("${export.max-concurrent:4}") int maxConcurrent) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /** False while no DataSource is configured. */
+    public boolean isAvailable() {
+        return dataSource.getIfAvailable() != null;
+    }
+
+    /** Claims an export slot; call {@link #release()} when the export ends. */
+    public boolean tryReserve() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Writes the matching rows to {@code out} and returns how many were written.
+     * The stream is flushed but not closed.
+     *
+     * @param clinicianId only rows for this clinician, when not null
+     * @param patientId   only rows for this patient, when not null
+     * @param after       continue after this position, when not null
+     */
+    public long export(ExportTable table, ExportFormat format, UUID clinicianId, UUID patientId,
+            ExportCursor after, OutputStream out) throws SQLException, IOException {
+        DataSource source = dataSource.getIfAvailable();
+        if (source == null) {
+            throw new IllegalStateException("No DataSource is configured");
+        }
+        List<ExportTable.Column> columns = table.columns();
+        List<Object> parameters = new ArrayList<>(4);
+        StringBuilder sql = new StringBuilder("select ")
+                .append(columns.stream().map(ExportTable.Column::name).collect(Collectors.joining(", ")))
+                .append(" from ").append(table.tableName()).append(" where true");
+        if (clinicianId != null) {
+            sql.append(" and clinician_id = ?");
+            parameters.add(clinicianId);
+        }
+        if (patientId != null) {
+            sql.append(" and patient_id = ?");
+            parameters.add(patientId);
+        }
+        if (after != null) {
+            sql.append(" and (created_at, id) > (?, ?)");
+            parameters.add(after.createdAt());
+            parameters.add(after.id());
+        }
+        sql.append(" order by created_at, id");
+
+        long start = System.nanoTime();
+        long rows = 0;
+        RowWriter writer = RowWriter.create(format, out);
+        writer.header(columns);
+        try (Connection connection = source.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                String[] values = new String[columns.size()];
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = read(resultSet, i + 1, columns.get(i).kind());
+                        }
+                        writer.row(values);
+                        rows++;
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+        writer.finish();
+        log.info("Exported {} {} rows as {} in {} ms", rows, table.tableName(), format,
+                (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private static String read(ResultSet resultSet, int index, ExportTable.Kind kind) throws SQLException {
+        if (kind == ExportTable.Kind.TIMESTAMP) {
+            OffsetDateTime value = resultSet.getObject(index, OffsetDateTime.class);
+            return value != null ? value.toString() : null;
+        }
+        return resultSet.getString(index);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hacktech.healthai.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** Writes exported rows one at a time; nothing is buffered beyond the stream's own buffer. */
+abstract class RowWriter {
+
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    abstract void header(List<ExportTable.Column> columns) throws IOException;
+
+    /** One row; values are strings (UUIDs and ISO-8601 timestamps already formatted) or null. */
+    abstract void row(String[] values) throws IOException;
+
+    /** Flushes buffered output without closing the underlying stream. */
+    abstract void finish() throws IOException;
+
+    static RowWriter create(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(JSON.createGenerator(out));
+            case CSV -> new Csv(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16));
+        };
+    }
+
+    /** One JSON object per line, keyed by column name. */
+    private static final class Ndjson extends RowWriter {
+        private final JsonGenerator generator;
+        private String[] names;
+
+        Ndjson(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        void header(List<ExportTable.Column> columns) {
+            names = columns.stream().map(ExportTable.Column::name).toArray(String[]::new);
+        }
+
+        @Override
+        void row(String[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                generator.writeStringField(names[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /** RFC 4180: header line, CRLF line endings, fields quoted only when needed. */
+    private static final class Csv extends RowWriter {
+        private final Writer writer;
+
+        Csv(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void header(List<ExportTable.Column> columns) throws IOException {
+            String[] names = columns.stream().map(ExportTable.Column::name).toArray(String[]::new);
+            row(names);
+        }
+
+        @Override
+        void row(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.hacktech.healthai.ocr;
+
+import com.hacktech.healthai.dto.OcrJobDto;
+import com.hacktech.healthai.dto.OcrRequestDto;
+import com.hacktech.healthai.dto.OcrResponseDto;
+import com.hacktech.healthai.service.OcrService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs OCR requests as background jobs so that large uploads do not hold a
+ * servlet thread (or the client's connection) for the whole Vision call.
+ *
+ * Submitted jobs go into a bounded queue served by a fixed pool of
+ * {@code ocr.jobs.workers} threads. When the queue is full, submission fails
+ * immediately and the caller answers 503 with an estimated Retry-After rather
+ * than letting work pile up. Clients poll the job or subscribe to it over
+ * server-sent events; finished jobs are kept for {@code ocr.jobs.result-ttl-seconds}
+ * and then forgotten. Jobs live in memory only and do not survive a restart.
+ *
+ * Each SSE subscriber has a small queue of pending events, sent in order by a
+ * virtual thread of its own while any are pending, so a client stuck in a
+ * blocking write ties up only that thread and delays only its own stream. A
+ * subscriber whose send has been blocked for longer than
+ * {@code ocr.jobs.sse-send-timeout-seconds}, or whose queue is full, is
+ * dropped: it gets no further events and its stream is closed with an error,
+ * again on a thread of its own, since closing waits for the blocked write.
+ */
+@Service
+public class OcrJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(OcrJobService.class);
+
+    // A job emits at most three events (current state, RUNNING, final), so a full queue means a stuck client
+    private static final int MAX_PENDING_EVENTS = 4;
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    private final OcrService ocrService;
+    private final int workers;
+    private final int maxJobs;
+    private final long resultTtlNanos;
+    private final long sseTimeoutMillis;
+    private final long sendTimeoutNanos;
+
+    private final ConcurrentHashMap<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    // Sweeps expired jobs and slow subscribers; never blocks on a client
+    private final ScheduledExecutorService notifier;
+    // Delivers SSE events, one thread per task, so a slow subscriber never stalls a worker, the sweeps or
+    // another subscriber
+    private final ExecutorService sender;
+    private final AtomicLong averageJobNanos = new AtomicLong(TimeUnit.SECONDS.toNanos(2));
+
+    public OcrJobService(OcrService ocrService,
+            @Value("${ocr.jobs.workers:4}") int workers,
+            @Value("${ocr.jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${ocr.jobs.max-jobs:10000}") int maxJobs,
+            @Value("${ocr.jobs.result-ttl-seconds:600}") long resultTtlSeconds,
+            @Value("${ocr.jobs.sse-timeout-seconds:300}") long sseTimeoutSeconds,
+            @Value("${ocr.jobs.sse-send-timeout-seconds:10}") long sendTimeoutSeconds) {
+        this.ocrService = ocrService;
+        this.workers = workers;
+        this.maxJobs = maxJobs;
+        this.resultTtlNanos = TimeUnit.SECONDS.toNanos(resultTtlSeconds);
+        this.sseTimeoutMillis = TimeUnit.SECONDS.toMillis(sseTimeoutSeconds);
+        this.sendTimeoutNanos = TimeUnit.SECONDS.toNanos(sendTimeoutSeconds);
+
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ocr-job-" + workerNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.notifier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ocr-job-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ocr-job-sse-", 1).factory());
+        long sweepNanos = Math.max(TimeUnit.SECONDS.toNanos(1), resultTtlNanos / 4);
+        notifier.scheduleWithFixedDelay(this::expireFinishedJobs, sweepNanos, sweepNanos, TimeUnit.NANOSECONDS);
+        long slowCheckNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(100), sendTimeoutNanos / 2);
+        notifier.scheduleWithFixedDelay(this::dropSlowSubscribers, slowCheckNanos, slowCheckNanos,
+                TimeUnit.NANOSECONDS);
+        log.info("OCR job service started with {} workers and a queue of {}", workers, queueCapacity);
+    }
+
+    /** Queues the request and returns the new job, or null if the queue (or the job table) is full. */
+    public OcrJobDto submit(OcrRequestDto request) {
+        if (jobs.size() >= maxJobs) {
+            return null;
+        }
+        Job job = new Job(UUID.randomUUID(), request);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            return null;
+        }
+        return job.snapshot();
+    }
+
+    /** The job's current state, or null if it is unknown or has expired. */
+    public OcrJobDto status(UUID jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.snapshot() : null;
+    }
+
+    /**
+     * Streams the job's status: one "status" event now and one on each change,
+     * completing after the final state. Returns null if the job is unknown.
+     */
+    public SseEmitter subscribe(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        SseEmitter emitter = newEmitter(sseTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        Runnable unsubscribe = () -> {
+            subscriber.close();
+            job.removeSubscriber(subscriber);
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        // Queued under the job's lock so this first event cannot overtake a concurrent change
+        synchronized (job) {
+            OcrJobDto current = job.snapshot();
+            if (!Status.valueOf(current.status()).isFinished()) {
+                job.subscribers.add(subscriber);
+            }
+            subscriber.offer(current);
+        }
+        return emitter;
+    }
+
+    // Overridden in tests to observe or stall a client
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /** Rough wait until a queue slot frees up, from the queue length and recent job times. */
+    public long retryAfterSeconds() {
+        long queuedNanos = (executor.getQueue().size() + 1) * averageJobNanos.get() / Math.max(1, workers);
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(queuedNanos));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Abandoning {} queued OCR jobs on shutdown", executor.shutdownNow().size());
+        }
+        notifier.shutdown();
+        sender.shutdown();
+    }
+
+    private void run(Job job) {
+        OcrRequestDto request = job.start();
+        publish(job);
+        long start = System.nanoTime();
+        try {
+            OcrResponseDto result = ocrService.extractTextFromImage(request);
+            job.finish(result, null);
+            log.info("OCR job {} succeeded", job.id);
+        } catch (Exception e) {
+            log.error("OCR job {} failed: {}", job.id, e.getMessage(), e);
+            job.finish(null, "Failed to process image due to an internal error.");
+        }
+        long elapsed = System.nanoTime() - start;
+        // EWMA with weight 1/8 for the Retry-After estimate
+        averageJobNanos.getAndUpdate(average -> average + (elapsed - average) / 8);
+        publish(job);
+    }
+
+    private void publish(Job job) {
+        synchronized (job) {
+            if (job.subscribers.isEmpty()) {
+                return;
+            }
+            OcrJobDto snapshot = job.snapshot();
+            for (Subscriber subscriber : List.copyOf(job.subscribers)) {
+                if (!subscriber.offer(snapshot)) {
+                    drop(job, subscriber, "its event queue is full");
+                }
+            }
+        }
+    }
+
+    private void dropSlowSubscribers() {
+        long now = System.nanoTime();
+        for (Job job : jobs.values()) {
+            for (Subscriber subscriber : job.subscribers()) {
+                if (subscriber.isSendingSince(now - sendTimeoutNanos)) {
+                    drop(job, subscriber, "a send has been blocked for over "
+                            + TimeUnit.NANOSECONDS.toSeconds(sendTimeoutNanos) + " s");
+                }
+            }
+        }
+    }
+
+    private void drop(Job job, Subscriber subscriber, String reason) {
+        job.removeSubscriber(subscriber);
+        if (!subscriber.close()) {
+            return;
+        }
+        log.warn("Dropping SSE subscriber of OCR job {}: {}", job.id, reason);
+        // Completing takes the emitter's write lock, which a blocked send holds, so on a thread of its own
+        try {
+            sender.execute(() -> subscriber.emitter.completeWithError(new IOException("SSE client too slow")));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; open streams are closed by the container
+        }
+    }
+
+    private void expireFinishedJobs() {
+        long now = System.nanoTime();
+        int expired = 0;
+        for (Job job : jobs.values()) {
+            if (job.isExpired(now, resultTtlNanos) && jobs.remove(job.id, job)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} finished OCR jobs", expired);
+        }
+    }
+
+    private static final class Job {
+        final UUID id;
+        final Instant submittedAt = Instant.now();
+        // Guarded by this
+        private OcrRequestDto request; // Dropped once started so finished jobs do not keep the image
+        private Status status = Status.QUEUED;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private long finishedNanos;
+        private OcrResponseDto result;
+        private String error;
+        final List<Subscriber> subscribers = new ArrayList<>();
+
+        Job(UUID id, OcrRequestDto request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        synchronized OcrRequestDto start() {
+            OcrRequestDto started = request;
+            request = null;
+            status = Status.RUNNING;
+            startedAt = Instant.now();
+            return started;
+        }
+
+        synchronized void finish(OcrResponseDto result, String error) {
+            this.result = result;
+            this.error = error;
+            status = error == null ? Status.SUCCEEDED : Status.FAILED;
+            finishedAt = Instant.now();
+            finishedNanos = System.nanoTime();
+        }
+
+        synchronized boolean isExpired(long now, long ttlNanos) {
+            return status.isFinished() && now - finishedNanos >= ttlNanos;
+        }
+
+        synchronized OcrJobDto snapshot() {
+            return new OcrJobDto(id, status.name(), submittedAt, startedAt, finishedAt, result, error);
+        }
+
+        synchronized List<Subscriber> subscribers() {
+            return List.copyOf(subscribers);
+        }
+
+        synchronized void removeSubscriber(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /** One SSE stream. At most one drain task per subscriber is queued or running, which keeps its events in order. */
+    private final class Subscriber {
+        final SseEmitter emitter;
+        // Guarded by this
+        private final ArrayDeque<OcrJobDto> pending = new ArrayDeque<>(MAX_PENDING_EVENTS);
+        private boolean scheduled;
+        private boolean closed;
+        private boolean inSend;
+        private long sendStartedNanos;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Queues an event; false if the queue is full. */
+        synchronized boolean offer(OcrJobDto snapshot) {
+            if (closed) {
+                return true;
+            }
+            if (pending.size() == MAX_PENDING_EVENTS) {
+                return false;
+            }
+            pending.add(snapshot);
+            if (!scheduled) {
+                try {
+                    sender.execute(this::drain);
+                    scheduled = true;
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; open streams are closed by the container
+                }
+            }
+            return true;
+        }
+
+        /** Stops further sends; true if this call closed it. */
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            pending.clear();
+            return true;
+        }
+
+        synchronized boolean isSendingSince(long nanos) {
+            return inSend && !closed && sendStartedNanos - nanos < 0;
+        }
+
+        private void drain() {
+            while (true) {
+                OcrJobDto snapshot;
+                synchronized (this) {
+                    snapshot = pending.poll();
+                    if (snapshot == null || closed) {
+                        scheduled = false;
+                        return;
+                    }
+                    inSend = true;
+                    sendStartedNanos = System.nanoTime();
+                }
+                boolean sent = send(snapshot);
+                synchronized (this) {
+                    inSend = false;
+                    if (!sent) {
+                        close();
+                    }
+                }
+            }
+        }
+
+        private boolean send(OcrJobDto snapshot) {
+            try {
+                emitter.send(SseEmitter.event().name("status").id(snapshot.status()).data(snapshot));
+                if (Status.valueOf(snapshot.status()).isFinished()) {
+                    emitter.complete();
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.hacktech.healthai.rescreen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** A patient the rule applies to, with the prescriptions that triggered it. */
+final class AffectedPatient {
+
+    final UUID patientId;
+    final List<UUID> prescriptionIds = new ArrayList<>(2);
+    final List<String> medications = new ArrayList<>(2);
+    // Distinct, in prescription order
+    final List<UUID> clinicianIds = new ArrayList<>(2);
+
+    AffectedPatient(UUID patientId) {
+        this.patientId = patientId;
+    }
+
+    void add(UUID prescriptionId, UUID clinicianId, String medication) {
+        prescriptionIds.add(prescriptionId);
+        medications.add(medication);
+        if (clinicianId != null && !clinicianIds.contains(clinicianId)) {
+            clinicianIds.add(clinicianId);
+        }
+    }
+}
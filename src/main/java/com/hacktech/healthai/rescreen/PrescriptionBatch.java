@@ -0,0 +1,96 @@
+package com.hacktech.healthai.rescreen;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A run of whole patients' active prescriptions, stored column-wise in
+ * primitive arrays (UUIDs as long pairs) so that a batch of tens of thousands
+ * of patients costs a few arrays rather than an object per row. Rows of one
+ * patient are contiguous; {@link #firstRow} gives each patient's range.
+ */
+final class PrescriptionBatch {
+
+    private int patientCount;
+    private int[] patientStart = new int[1024];
+    private long[] patients = new long[2048];
+
+    private int rowCount;
+    private int[] drugIds = new int[4096];
+    private long[] clinicians = new long[8192];
+    private long[] prescriptions = new long[8192];
+    private String[] medications = new String[4096];
+
+    void startPatient(UUID patientId) {
+        if (patientCount + 1 == patientStart.length) {
+            patientStart = Arrays.copyOf(patientStart, patientStart.length * 2);
+            patients = Arrays.copyOf(patients, patientStart.length * 2);
+        }
+        patients[2 * patientCount] = patientId.getMostSignificantBits();
+        patients[2 * patientCount + 1] = patientId.getLeastSignificantBits();
+        patientStart[patientCount] = rowCount;
+        patientCount++;
+        patientStart[patientCount] = rowCount;
+    }
+
+    /** Adds a row to the patient started last. */
+    void addRow(UUID prescriptionId, UUID clinicianId, String medication, int drugId) {
+        if (rowCount == drugIds.length) {
+            int capacity = rowCount * 2;
+            drugIds = Arrays.copyOf(drugIds, capacity);
+            clinicians = Arrays.copyOf(clinicians, capacity * 2);
+            prescriptions = Arrays.copyOf(prescriptions, capacity * 2);
+            medications = Arrays.copyOf(medications, capacity);
+        }
+        drugIds[rowCount] = drugId;
+        put(clinicians, rowCount, clinicianId);
+        put(prescriptions, rowCount, prescriptionId);
+        medications[rowCount] = medication;
+        rowCount++;
+        patientStart[patientCount] = rowCount;
+    }
+
+    int patientCount() {
+        return patientCount;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /** First row of the patient; {@code firstRow(patientCount())} is the row count. */
+    int firstRow(int patient) {
+        return patientStart[patient];
+    }
+
+    UUID patientId(int patient) {
+        return new UUID(patients[2 * patient], patients[2 * patient + 1]);
+    }
+
+    int drugId(int row) {
+        return drugIds[row];
+    }
+
+    UUID clinicianId(int row) {
+        return get(clinicians, row);
+    }
+
+    UUID prescriptionId(int row) {
+        return get(prescriptions, row);
+    }
+
+    String medication(int row) {
+        return medications[row];
+    }
+
+    private static void put(long[] pairs, int row, UUID value) {
+        pairs[2 * row] = value != null ? value.getMostSignificantBits() : 0L;
+        pairs[2 * row + 1] = value != null ? value.getLeastSignificantBits() : 0L;
+    }
+
+    private static UUID get(long[] pairs, int row) {
+        long hi = pairs[2 * row];
+        long lo = pairs[2 * row + 1];
+        return hi == 0 && lo == 0 ? null : new UUID(hi, lo);
+    }
+}
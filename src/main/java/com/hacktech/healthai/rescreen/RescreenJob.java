@@ -0,0 +1,209 @@
+package com.hacktech.healthai.rescreen;
+
+import com.hacktech.healthai.dto.RescreenJobDto;
+import com.hacktech.healthai.dto.RescreenRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * State of one re-screening job and its checkpoint.
+ *
+ * Each job has a directory holding {@code affected.ndjson} (one line per
+ * affected patient) and {@code job.properties}. The properties file is
+ * replaced atomically after every batch. It records the rule, the last
+ * patient fully screened, the counters, the per-clinician tallies and how
+ * many bytes of the results file are covered. Resuming truncates the results
+ * to that length and continues after that patient, so a crash never
+ * duplicates or loses results.
+ *
+ * A job that cannot be resumed at startup (no database, or too many jobs
+ * already running) is marked {@code INTERRUPTED} and retried on the next
+ * start.
+ */
+final class RescreenJob {
+
+    enum Status {
+        RUNNING, INTERRUPTED, COMPLETED, CANCELLED, FAILED
+    }
+
+    static final String CHECKPOINT = "job.properties";
+    static final String RESULTS = "affected.ndjson";
+
+    final UUID id;
+    final Path directory;
+    final RescreenRequest request;
+    volatile boolean cancelRequested;
+
+    // Guarded by this; written by the job's runner thread only
+    private Status status = Status.RUNNING;
+    private UUID lastPatientId;
+    private long patientsScreened;
+    private long prescriptionsScreened;
+    private long affectedPatients;
+    private long resultBytes;
+    private final Map<UUID, int[]> clinicianCounts = new HashMap<>();
+    private final Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    RescreenJob(UUID id, Path directory, RescreenRequest request, Instant startedAt) {
+        this.id = id;
+        this.directory = directory;
+        this.request = request;
+        this.startedAt = startedAt;
+    }
+
+    synchronized Status status() {
+        return status;
+    }
+
+    synchronized UUID lastPatientId() {
+        return lastPatientId;
+    }
+
+    synchronized long resultBytes() {
+        return resultBytes;
+    }
+
+    /** Records a batch whose results have been written and forced up to {@code resultBytes}. */
+    synchronized void batchDone(UUID lastPatientId, int patients, int prescriptions,
+            List<AffectedPatient> affected, long resultBytes) {
+        this.lastPatientId = lastPatientId;
+        patientsScreened += patients;
+        prescriptionsScreened += prescriptions;
+        affectedPatients += affected.size();
+        for (AffectedPatient patient : affected) {
+            for (UUID clinicianId : patient.clinicianIds) {
+                clinicianCounts.computeIfAbsent(clinicianId, id -> new int[1])[0]++;
+            }
+        }
+        this.resultBytes = resultBytes;
+    }
+
+    synchronized void finish(Status status, String error) {
+        this.status = status;
+        this.error = error;
+        finishedAt = Instant.now();
+    }
+
+    /** Marks a running job that could not be resumed. Returns false if it is not running. */
+    synchronized boolean interrupt(String reason) {
+        if (status != Status.RUNNING) {
+            return false;
+        }
+        status = Status.INTERRUPTED;
+        error = reason;
+        return true;
+    }
+
+    /** Marks a running or interrupted job as running again. Returns false if it has finished. */
+    synchronized boolean resume() {
+        if (status != Status.RUNNING && status != Status.INTERRUPTED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        error = null;
+        return true;
+    }
+
+    /** Cancels an interrupted job, which has no runner to notice the request. */
+    synchronized boolean cancelIfInterrupted() {
+        if (status != Status.INTERRUPTED) {
+            return false;
+        }
+        finish(Status.CANCELLED, null);
+        return true;
+    }
+
+    synchronized RescreenJobDto snapshot() {
+        List<RescreenJobDto.AffectedClinician> clinicians = new ArrayList<>(clinicianCounts.size());
+        for (Map.Entry<UUID, int[]> entry : clinicianCounts.entrySet()) {
+            clinicians.add(new RescreenJobDto.AffectedClinician(entry.getKey(), entry.getValue()[0]));
+        }
+        clinicians.sort((a, b) -> Integer.compare(b.affectedPatients(), a.affectedPatients()));
+        return new RescreenJobDto(id, request.name(), status.name(), patientsScreened, prescriptionsScreened,
+                affectedPatients, clinicians, startedAt, finishedAt, error);
+    }
+
+    /** Replaces the checkpoint atomically. */
+    synchronized void save() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("name", request.name() != null ? request.name() : "");
+        properties.setProperty("type", request.type());
+        properties.setProperty("drugs", String.join("\n", request.drugs()));
+        if (request.interactsWith() != null) {
+            properties.setProperty("interactsWith", String.join("\n", request.interactsWith()));
+        }
+        properties.setProperty("status", status.name());
+        if (lastPatientId != null) {
+            properties.setProperty("lastPatientId", lastPatientId.toString());
+        }
+        properties.setProperty("patientsScreened", Long.toString(patientsScreened));
+        properties.setProperty("prescriptionsScreened", Long.toString(prescriptionsScreened));
+        properties.setProperty("affectedPatients", Long.toString(affectedPatients));
+        properties.setProperty("resultBytes", Long.toString(resultBytes));
+        StringBuilder clinicians = new StringBuilder();
+        for (Map.Entry<UUID, int[]> entry : clinicianCounts.entrySet()) {
+            clinicians.append(entry.getKey()).append(':').append(entry.getValue()[0]).append('\n');
+        }
+        properties.setProperty("clinicians", clinicians.toString());
+        properties.setProperty("startedAt", startedAt.toString());
+        if (finishedAt != null) {
+            properties.setProperty("finishedAt", finishedAt.toString());
+        }
+        if (error != null) {
+            properties.setProperty("error", error);
+        }
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Re-screening job " + id);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static RescreenJob load(Path directory) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(CHECKPOINT), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String interactsWith = properties.getProperty("interactsWith");
+        RescreenRequest request = new RescreenRequest(properties.getProperty("name"), properties.getProperty("type"),
+                Arrays.asList(properties.getProperty("drugs").split("\n")),
+                interactsWith != null ? Arrays.asList(interactsWith.split("\n")) : null);
+        RescreenJob job = new RescreenJob(UUID.fromString(directory.getFileName().toString()), directory, request,
+                Instant.parse(properties.getProperty("startedAt")));
+        job.status = Status.valueOf(properties.getProperty("status"));
+        String lastPatientId = properties.getProperty("lastPatientId");
+        job.lastPatientId = lastPatientId != null ? UUID.fromString(lastPatientId) : null;
+        job.patientsScreened = Long.parseLong(properties.getProperty("patientsScreened"));
+        job.prescriptionsScreened = Long.parseLong(properties.getProperty("prescriptionsScreened"));
+        job.affectedPatients = Long.parseLong(properties.getProperty("affectedPatients"));
+        job.resultBytes = Long.parseLong(properties.getProperty("resultBytes"));
+        for (String line : properties.getProperty("clinicians", "").split("\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                job.clinicianCounts.put(UUID.fromString(line.substring(0, colon)),
+                        new int[] { Integer.parseInt(line.substring(colon + 1)) });
+            }
+        }
+        String finishedAt = properties.getProperty("finishedAt");
+        job.finishedAt = finishedAt != null ? Instant.parse(finishedAt) : null;
+        job.error = properties.getProperty("error");
+        return job;
+    }
+}
@@ -0,0 +1,408 @@
+package com.hacktech.healthai.rescreen;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hacktech.healthai.dto.RescreenJobDto;
+import com.hacktech.healthai.dto.RescreenRequest;
+import com.hacktech.healthai.service.DrugClassIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Re-screens every patient's active prescriptions against a newly published
+ * interaction or recall ({@link ScreeningRule}).
+ *
+ * A job streams active prescriptions ordered by patient from one forward-only
+ * JDBC cursor and cuts them into batches of {@code rescreen.batch-patients}
+ * whole patients ({@link PrescriptionBatch}). Each batch is evaluated on a
+ * shared fork-join pool sized to the cores while the next batch is read, so
+ * the database read and the evaluation overlap. After each batch the affected
+ * patients are appended to the job's results file and the job is checkpointed
+ * (see {@link RescreenJob}). Jobs still running at shutdown, or at a crash,
+ * resume after their last checkpointed patient on the next start; if there is
+ * no database or no free {@code rescreen.max-concurrent} slot then, they are
+ * marked interrupted until the start after.
+ */
+@Service
+public class RescreenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RescreenService.class);
+
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final int MAX_CACHED_MEDICATIONS = 100_000;
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final DrugClassIndex drugClassIndex;
+    private final Path directory;
+    private final int batchPatients;
+    private final int fetchSize;
+    private final Semaphore permits;
+    private final ForkJoinPool pool;
+
+    private final ConcurrentHashMap<UUID, RescreenJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, Thread> runners = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    public RescreenService(ObjectProvider<DataSource> dataSource, DrugClassIndex drugClassIndex,
+            @Value("${rescreen.dir:rescreen}") String directory,
+            @Value("${rescreen.parallelism:0}") int parallelism,
+            @Value("${rescreen.batch-patients:20000}") int batchPatients,
+            @Value("${rescreen.fetch-size:5000}") int fetchSize,
+            @Value("${rescreen.max-concurrent:2}") int maxConcurrent) throws IOException {
+        this.dataSource = dataSource;
+        this.drugClassIndex = drugClassIndex;
+        this.directory = Path.of(directory);
+        this.batchPatients = batchPatients;
+        this.fetchSize = fetchSize;
+        this.permits = new Semaphore(maxConcurrent);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        if (Files.isDirectory(this.directory)) {
+            try (Stream<Path> entries = Files.list(this.directory)) {
+                for (Path entry : (Iterable<Path>) entries::iterator) {
+                    if (Files.exists(entry.resolve(RescreenJob.CHECKPOINT))) {
+                        RescreenJob job = RescreenJob.load(entry);
+                        jobs.put(job.id, job);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Restarts jobs that were interrupted by a shutdown or crash. Jobs that
+     * cannot be restarted now are marked interrupted and retried on the next
+     * start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (RescreenJob job : jobs.values()) {
+            RescreenJob.Status status = job.status();
+            if (status != RescreenJob.Status.RUNNING && status != RescreenJob.Status.INTERRUPTED) {
+                continue;
+            }
+            String reason = null;
+            if (dataSource.getIfAvailable() == null) {
+                reason = "No database connection at startup; the job resumes on the next start.";
+            } else if (!permits.tryAcquire()) {
+                reason = "Too many re-screening jobs running at startup; the job resumes on the next start.";
+            }
+            if (reason != null) {
+                log.warn("Cannot resume re-screening job {}: {}", job.id, reason);
+                if (job.interrupt(reason)) {
+                    saveQuietly(job);
+                }
+                continue;
+            }
+            ScreeningRule rule;
+            try {
+                rule = ScreeningRule.compile(job.request.type(), job.request.drugs(), job.request.interactsWith(),
+                        drugClassIndex);
+            } catch (IllegalArgumentException e) {
+                // The drug index changed since the job started
+                permits.release();
+                log.error("Cannot resume re-screening job {}: {}", job.id, e.getMessage());
+                job.finish(RescreenJob.Status.FAILED, e.getMessage());
+                saveQuietly(job);
+                continue;
+            }
+            if (!job.resume()) {
+                // Cancelled while interrupted
+                permits.release();
+                continue;
+            }
+            log.info("Resuming re-screening job {} after patient {}", job.id, job.lastPatientId());
+            saveQuietly(job);
+            launch(job, rule);
+        }
+    }
+
+    /** False while no DataSource is configured. */
+    public boolean isAvailable() {
+        return dataSource.getIfAvailable() != null;
+    }
+
+    /**
+     * Validates the rule and starts a job.
+     *
+     * @return the new job, or null if {@code rescreen.max-concurrent} jobs are already running.
+     * @throws IllegalArgumentException if the rule is invalid or names unknown drugs.
+     */
+    public RescreenJobDto start(RescreenRequest request) throws IOException {
+        ScreeningRule rule = ScreeningRule.compile(request.type(), request.drugs(), request.interactsWith(),
+                drugClassIndex);
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+        UUID id = UUID.randomUUID();
+        Path jobDirectory = directory.resolve(id.toString());
+        RescreenJob job;
+        try {
+            Files.createDirectories(jobDirectory);
+            job = new RescreenJob(id, jobDirectory, request, Instant.now());
+            job.save();
+        } catch (IOException e) {
+            permits.release();
+            throw e;
+        }
+        jobs.put(id, job);
+        launch(job, rule);
+        return job.snapshot();
+    }
+
+    /** The job's progress, or null if it is unknown. */
+    public RescreenJobDto status(UUID jobId) {
+        RescreenJob job = jobs.get(jobId);
+        return job != null ? job.snapshot() : null;
+    }
+
+    /**
+     * Asks a running job to stop after its current batch, or cancels an
+     * interrupted one. Returns false if the job is unknown.
+     */
+    public boolean cancel(UUID jobId) {
+        RescreenJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.cancelRequested = true;
+        if (job.cancelIfInterrupted()) {
+            saveQuietly(job);
+        }
+        return true;
+    }
+
+    /**
+     * Copies the job's checkpointed results (NDJSON, one affected patient per
+     * line) to {@code out}. Returns false if the job is unknown.
+     */
+    public boolean writeResults(UUID jobId, OutputStream out) throws IOException {
+        RescreenJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        Path results = job.directory.resolve(RescreenJob.RESULTS);
+        if (!Files.exists(results)) {
+            return true;
+        }
+        // Only the checkpointed prefix; anything past it may be rewritten
+        long length = job.resultBytes();
+        try (FileChannel channel = FileChannel.open(results, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, Channels.newChannel(out));
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        for (Thread runner : runners.values()) {
+            runner.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        pool.shutdown();
+    }
+
+    private void launch(RescreenJob job, ScreeningRule rule) {
+        Thread runner = new Thread(() -> {
+            try {
+                run(job, rule);
+            } finally {
+                runners.remove(job.id);
+                permits.release();
+            }
+        }, "rescreen-" + job.id.toString().substring(0, 8));
+        runner.setDaemon(true);
+        runners.put(job.id, runner);
+        runner.start();
+    }
+
+    private void run(RescreenJob job, ScreeningRule rule) {
+        long start = System.nanoTime();
+        try {
+            screen(job, rule);
+            if (stopping) {
+                log.info("Re-screening job {} interrupted by shutdown; it will resume on restart", job.id);
+                return;
+            }
+            job.finish(job.cancelRequested ? RescreenJob.Status.CANCELLED : RescreenJob.Status.COMPLETED, null);
+            RescreenJobDto done = job.snapshot();
+            log.info("Re-screening job {} {} in {} s: {} of {} patients affected", job.id, done.status(),
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), done.affectedPatients(),
+                    done.patientsScreened());
+        } catch (Exception e) {
+            log.error("Re-screening job {} failed: {}", job.id, e.getMessage(), e);
+            job.finish(RescreenJob.Status.FAILED, "Re-screening failed due to an internal error.");
+        }
+        saveQuietly(job);
+    }
+
+    private static void saveQuietly(RescreenJob job) {
+        try {
+            job.save();
+        } catch (IOException e) {
+            log.error("Could not save state of re-screening job {}: {}", job.id, e.getMessage(), e);
+        }
+    }
+
+    private void screen(RescreenJob job, ScreeningRule rule) throws SQLException, IOException {
+        DataSource source = dataSource.getIfAvailable();
+        if (source == null) {
+            throw new IllegalStateException("No DataSource is configured");
+        }
+        UUID after = job.lastPatientId();
+        String sql = "select patient_id, id, clinician_id, medication from prescriptions"
+                + " where (status is null or upper(status) not in ('REJECTED', 'CANCELLED', 'DISCONTINUED'))"
+                + (after != null ? " and patient_id > ?" : "") + " order by patient_id";
+        try (Connection connection = source.getConnection();
+                FileChannel results = FileChannel.open(job.directory.resolve(RescreenJob.RESULTS),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop results written after the last checkpoint
+            results.truncate(job.resultBytes());
+            results.position(job.resultBytes());
+            // PostgreSQL only uses a cursor (and honours the fetch size) with auto-commit off
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                if (after != null) {
+                    statement.setObject(1, after);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    BatchReader reader = new BatchReader(resultSet);
+                    PrescriptionBatch evaluating = null;
+                    ForkJoinTask<List<AffectedPatient>> pending = null;
+                    while (true) {
+                        // Read the next batch while the pool evaluates the previous one
+                        PrescriptionBatch next = stopping || job.cancelRequested ? null : reader.read();
+                        if (pending != null) {
+                            record(job, evaluating, pending.join(), results);
+                        }
+                        if (next == null || next.patientCount() == 0) {
+                            break;
+                        }
+                        evaluating = next;
+                        pending = pool.submit(new RescreenTask(rule, next, 0, next.patientCount()));
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    /** Appends a batch's results, forces them, then checkpoints past the batch. */
+    private void record(RescreenJob job, PrescriptionBatch batch, List<AffectedPatient> affected,
+            FileChannel results) throws IOException {
+        if (!affected.isEmpty()) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(results), 1 << 16);
+            try (JsonGenerator generator = JSON.createGenerator(out)) {
+                for (AffectedPatient patient : affected) {
+                    generator.writeStartObject();
+                    generator.writeStringField("patientId", patient.patientId.toString());
+                    writeArray(generator, "clinicianIds", patient.clinicianIds);
+                    writeArray(generator, "prescriptionIds", patient.prescriptionIds);
+                    writeArray(generator, "medications", patient.medications);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+            out.flush();
+            results.force(false);
+        }
+        job.batchDone(batch.patientId(batch.patientCount() - 1), batch.patientCount(), batch.rowCount(), affected,
+                results.position());
+        job.save();
+    }
+
+    private static void writeArray(JsonGenerator generator, String field, List<?> values) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (Object value : values) {
+            generator.writeString(value != null ? value.toString() : null);
+        }
+        generator.writeEndArray();
+    }
+
+    /** Cuts the ordered result set into batches of whole patients. */
+    private final class BatchReader {
+        private final ResultSet resultSet;
+        private final Map<String, Integer> drugIds = new HashMap<>();
+        // True when the cursor is on a row that belongs to the next batch
+        private boolean onRow;
+
+        BatchReader(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        PrescriptionBatch read() throws SQLException {
+            PrescriptionBatch batch = new PrescriptionBatch();
+            UUID current = null;
+            while (onRow || resultSet.next()) {
+                onRow = true;
+                UUID patientId = resultSet.getObject(1, UUID.class);
+                if (!patientId.equals(current)) {
+                    if (batch.patientCount() >= batchPatients) {
+                        break;
+                    }
+                    batch.startPatient(patientId);
+                    current = patientId;
+                }
+                String medication = resultSet.getString(4);
+                batch.addRow(resultSet.getObject(2, UUID.class), resultSet.getObject(3, UUID.class), medication,
+                        drugId(medication));
+                onRow = false;
+            }
+            return batch;
+        }
+
+        private int drugId(String medication) {
+            if (medication == null) {
+                return -1;
+            }
+            Integer cached = drugIds.get(medication);
+            if (cached != null) {
+                return cached;
+            }
+            int id = drugClassIndex.drugId(medication);
+            if (drugIds.size() < MAX_CACHED_MEDICATIONS) {
+                drugIds.put(medication, id);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hacktech.healthai.rescreen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a rule over a range of a batch's patients, splitting in halves
+ * until ranges are small enough to run directly. Results keep patient order.
+ */
+final class RescreenTask extends RecursiveTask<List<AffectedPatient>> {
+
+    // Patients per leaf; each is a few array reads, so leaves must be fairly large to amortize forking
+    private static final int LEAF_PATIENTS = 2048;
+
+    private final ScreeningRule rule;
+    private final PrescriptionBatch batch;
+    private final int from;
+    private final int to;
+
+    RescreenTask(ScreeningRule rule, PrescriptionBatch batch, int from, int to) {
+        this.rule = rule;
+        this.batch = batch;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected List<AffectedPatient> compute() {
+        if (to - from <= LEAF_PATIENTS) {
+            List<AffectedPatient> affected = new ArrayList<>();
+            for (int patient = from; patient < to; patient++) {
+                AffectedPatient result = rule.evaluate(batch, patient);
+                if (result != null) {
+                    affected.add(result);
+                }
+            }
+            return affected;
+        }
+        int middle = (from + to) >>> 1;
+        RescreenTask left = new RescreenTask(rule, batch, from, middle);
+        left.fork();
+        List<AffectedPatient> right = new RescreenTask(rule, batch, middle, to).compute();
+        List<AffectedPatient> affected = left.join();
+        if (affected.isEmpty()) {
+            return right;
+        }
+        affected.addAll(right);
+        return affected;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hacktech.healthai.rescreen;
+
+import com.hacktech.healthai.service.DrugClassIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A rule compiled against the {@link DrugClassIndex}: each side becomes a
+ * per-drug lookup table, so checking a prescription is one array read.
+ *
+ * A RECALL affects every patient with an active prescription matching
+ * {@code drugs}. An INTERACTION affects patients with one active prescription
+ * matching {@code drugs} and a different one matching {@code interactsWith}.
+ * Terms are drug names or ATC codes at any level, so "N06AB" covers every SSRI.
+ */
+final class ScreeningRule {
+
+    enum Type {
+        INTERACTION, RECALL
+    }
+
+    private final Type type;
+    private final boolean[] matchesDrugs;
+    private final boolean[] matchesOther;
+
+    private ScreeningRule(Type type, boolean[] matchesDrugs, boolean[] matchesOther) {
+        this.type = type;
+        this.matchesDrugs = matchesDrugs;
+        this.matchesOther = matchesOther;
+    }
+
+    /** Compiles the rule, or throws IllegalArgumentException naming what could not be resolved. */
+    static ScreeningRule compile(String type, List<String> drugs, List<String> interactsWith,
+            DrugClassIndex drugClassIndex) {
+        Type ruleType;
+        try {
+            ruleType = Type.valueOf(type == null ? "" : type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("'type' must be INTERACTION or RECALL");
+        }
+        if (drugs == null || drugs.isEmpty()) {
+            throw new IllegalArgumentException("'drugs' must name at least one drug or ATC class");
+        }
+        boolean[] matchesDrugs = resolve(drugs, drugClassIndex);
+        boolean[] matchesOther = null;
+        if (ruleType == Type.INTERACTION) {
+            if (interactsWith == null || interactsWith.isEmpty()) {
+                throw new IllegalArgumentException("An INTERACTION needs 'interactsWith'");
+            }
+            matchesOther = resolve(interactsWith, drugClassIndex);
+        }
+        return new ScreeningRule(ruleType, matchesDrugs, matchesOther);
+    }
+
+    private static boolean[] resolve(List<String> terms, DrugClassIndex drugClassIndex) {
+        long[] mask = drugClassIndex.newBitset();
+        List<String> unknown = new ArrayList<>();
+        for (String term : terms) {
+            int classId = term == null ? -1 : drugClassIndex.classIdForCode(term);
+            if (classId < 0 && term != null) {
+                // A drug name stands for its substance class
+                int drugId = drugClassIndex.drugId(term);
+                classId = drugId >= 0 ? drugClassIndex.classIdForCode(drugClassIndex.atcCode(drugId)) : -1;
+            }
+            if (classId < 0) {
+                unknown.add(term);
+            } else {
+                drugClassIndex.addClass(mask, classId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown drugs or ATC codes: " + unknown);
+        }
+        boolean[] matches = new boolean[drugClassIndex.drugCount()];
+        for (int drugId = 0; drugId < matches.length; drugId++) {
+            matches[drugId] = drugClassIndex.intersects(drugClassIndex.classBits(drugId), mask);
+        }
+        return matches;
+    }
+
+    /**
+     * Checks one patient of the batch.
+     *
+     * @return the patient's matching prescriptions, or null if the rule does not apply.
+     */
+    AffectedPatient evaluate(PrescriptionBatch batch, int patient) {
+        int from = batch.firstRow(patient);
+        int to = batch.firstRow(patient + 1);
+        int drugMatches = 0;
+        int otherMatches = 0;
+        int drugRow = -1;
+        int otherRow = -1;
+        for (int row = from; row < to; row++) {
+            int drugId = batch.drugId(row);
+            if (drugId < 0) {
+                continue;
+            }
+            if (matchesDrugs[drugId]) {
+                drugMatches++;
+                drugRow = row;
+            }
+            if (matchesOther != null && matchesOther[drugId]) {
+                otherMatches++;
+                otherRow = row;
+            }
+        }
+        boolean affected = type == Type.RECALL ? drugMatches > 0
+                // A single prescription matching both sides is not a pair
+                : drugMatches > 0 && otherMatches > 0
+                        && !(drugMatches == 1 && otherMatches == 1 && drugRow == otherRow);
+        if (!affected) {
+            return null;
+        }
+        AffectedPatient result = new AffectedPatient(batch.patientId(patient));
+        for (int row = from; row < to; row++) {
+            int drugId = batch.drugId(row);
+            if (drugId >= 0 && (matchesDrugs[drugId] || (matchesOther != null && matchesOther[drugId]))) {
+                result.add(batch.prescriptionId(row), batch.clinicianId(row), batch.medication(row));
+            }
+        }
+        return result;
+    }
+}
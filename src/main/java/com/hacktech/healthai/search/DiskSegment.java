@@ -0,0 +1,360 @@
+package com.hacktech.healthai.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Immutable, memory-mapped segment written by {@link SegmentWriter}.
+ *
+ * <pre>
+ * header    64 bytes: magic, version, maxDoc, termCount, totalLength and section offsets
+ * docs      maxDoc x 56 bytes: id, clinician id, patient id (2 longs each), length, type
+ * keys      maxDoc ints: doc numbers sorted by id, for update/delete lookups
+ * postings  per term: vint block count, (first doc, data offset) per block of 128,
+ *           then per posting vint doc delta and vint frequency
+ * termIndex termCount ints: offset of each term entry, in term order
+ * terms     per term: short length, UTF-8 bytes, int doc freq, long postings offset
+ * </pre>
+ *
+ * The block table lets {@link PostingsCursor#advance} skip whole blocks, so an
+ * intersection driven by a rare term does not decode the common term's full
+ * postings. Deletions live in a sidecar {@code .del} bitset written at commit.
+ */
+final class DiskSegment extends Segment {
+
+    static final int MAGIC = 0x4E494458; // "NIDX"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int DOC_BYTES = 56;
+    static final int BLOCK_SIZE = 128;
+    static final String SUFFIX = ".seg";
+    static final String DELETES_SUFFIX = ".del";
+    /** Largest segment a single mapped buffer (int positions) can address. */
+    static final long MAX_BYTES = Integer.MAX_VALUE;
+
+    private static final NoteDocument.Type[] TYPES = NoteDocument.Type.values();
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int maxDoc;
+    private final int termCount;
+    private final long totalLength;
+    private final int docsOffset;
+    private final int keysOffset;
+    private final int postingsOffset;
+    private final int termIndexOffset;
+    private final int termsOffset;
+    private boolean deletesDirty;
+
+    private DiskSegment(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a note index segment: " + path);
+        }
+        this.maxDoc = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.totalLength = buffer.getLong(16);
+        this.docsOffset = offset(24);
+        this.keysOffset = offset(32);
+        this.postingsOffset = offset(40);
+        this.termIndexOffset = offset(48);
+        this.termsOffset = offset(56);
+    }
+
+    /** Reads a section offset from the header, rejecting one outside the file. */
+    private int offset(int at) {
+        long value = buffer.getLong(at);
+        if (value < HEADER_BYTES || value > buffer.capacity()) {
+            throw new IllegalStateException("Corrupt note index segment " + path + ": offset " + value
+                    + " outside " + buffer.capacity() + " bytes");
+        }
+        return (int) value;
+    }
+
+    static DiskSegment open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_BYTES) {
+                throw new IOException("Note index segment " + path + " exceeds " + MAX_BYTES + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        DiskSegment segment = new DiskSegment(path, buffer);
+        Path deletes = segment.deletesPath();
+        if (Files.exists(deletes)) {
+            ByteBuffer bits = ByteBuffer.wrap(Files.readAllBytes(deletes));
+            segment.setDeleted(BitSet.valueOf(bits));
+        }
+        return segment;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    String name() {
+        String file = path.getFileName().toString();
+        return file.substring(0, file.length() - SUFFIX.length());
+    }
+
+    long sizeBytes() {
+        return buffer.capacity();
+    }
+
+    /** Marks the deletion bitset as changed since it was last written. */
+    void markDeletesDirty() {
+        deletesDirty = true;
+    }
+
+    /** Persists the deletion bitset if it changed; replaced atomically so a crash keeps the old one. */
+    void writeDeletes() throws IOException {
+        if (!deletesDirty) {
+            return;
+        }
+        Path target = deletesPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, deleted.toByteArray());
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deletesDirty = false;
+    }
+
+    /** Unmapping is left to the GC; deleting the files is safe on POSIX while still mapped. */
+    void deleteFiles() throws IOException {
+        Files.deleteIfExists(deletesPath());
+        Files.deleteIfExists(path);
+    }
+
+    private Path deletesPath() {
+        return path.resolveSibling(name() + DELETES_SUFFIX);
+    }
+
+    @Override
+    int maxDoc() {
+        return maxDoc;
+    }
+
+    @Override
+    long totalLength() {
+        return totalLength;
+    }
+
+    @Override
+    NoteDocument.Type docType(int doc) {
+        return TYPES[buffer.get(docsOffset + doc * DOC_BYTES + 52)];
+    }
+
+    @Override
+    UUID docId(int doc) {
+        return uuid(docsOffset + doc * DOC_BYTES);
+    }
+
+    @Override
+    UUID clinicianId(int doc) {
+        return uuid(docsOffset + doc * DOC_BYTES + 16);
+    }
+
+    @Override
+    UUID patientId(int doc) {
+        return uuid(docsOffset + doc * DOC_BYTES + 32);
+    }
+
+    @Override
+    int docLength(int doc) {
+        return buffer.getInt(docsOffset + doc * DOC_BYTES + 48);
+    }
+
+    @Override
+    int findDoc(NoteDocument.Type type, UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int low = 0;
+        int high = maxDoc - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int doc = buffer.getInt(keysOffset + mid * 4);
+            int at = docsOffset + doc * DOC_BYTES;
+            int cmp = Long.compare(buffer.getLong(at), hi);
+            if (cmp == 0) {
+                cmp = Long.compare(buffer.getLong(at + 8), lo);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return buffer.get(at + 52) == type.ordinal() ? doc : -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    PostingsCursor postings(String term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = termsOffset + buffer.getInt(termIndexOffset + mid * 4);
+            int cmp = termAt(entry).compareTo(term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                int length = buffer.getShort(entry) & 0xFFFF;
+                int docFreq = buffer.getInt(entry + 2 + length);
+                long offset = buffer.getLong(entry + 6 + length);
+                return new BlockCursor(Math.toIntExact(postingsOffset + offset), docFreq);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    Iterator<String> terms() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < termCount;
+            }
+
+            @Override
+            public String next() {
+                if (next >= termCount) {
+                    throw new NoSuchElementException();
+                }
+                return termAt(termsOffset + buffer.getInt(termIndexOffset + 4 * next++));
+            }
+        };
+    }
+
+    private String termAt(int entry) {
+        int length = buffer.getShort(entry) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(entry + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private UUID uuid(int at) {
+        long hi = buffer.getLong(at);
+        long lo = buffer.getLong(at + 8);
+        return hi == 0 && lo == 0 ? null : new UUID(hi, lo);
+    }
+
+    /** Decodes block-encoded postings lazily, using the block table to skip. */
+    private final class BlockCursor implements PostingsCursor {
+        private final int docFreq;
+        private final int blockCount;
+        private final int skipTable;
+        private final int dataStart;
+        private int block = -1;
+        private int remainingInBlock;
+        private int consumed;
+        private int position;
+        private int doc = -1;
+        private int freq;
+
+        BlockCursor(int start, int docFreq) {
+            this.docFreq = docFreq;
+            this.position = start;
+            this.blockCount = readVInt();
+            this.skipTable = position;
+            this.dataStart = skipTable + blockCount * 8;
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public int freq() {
+            return freq;
+        }
+
+        @Override
+        public int next() {
+            if (consumed >= docFreq) {
+                return doc = NO_MORE_DOCS;
+            }
+            if (remainingInBlock == 0) {
+                enterBlock(block + 1);
+            }
+            doc += readVInt();
+            freq = readVInt();
+            remainingInBlock--;
+            consumed++;
+            return doc;
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            // Jump to the last block starting at or before the target, if that is ahead of us
+            if (block + 1 < blockCount && firstDoc(block + 1) <= target) {
+                int low = block + 1;
+                int high = blockCount - 1;
+                while (low < high) {
+                    int mid = (low + high + 1) >>> 1;
+                    if (firstDoc(mid) <= target) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                enterBlock(low);
+            }
+            while (next() < target) {
+                // linear scan within the block
+            }
+            return doc;
+        }
+
+        @Override
+        public int docFreq() {
+            return docFreq;
+        }
+
+        private void enterBlock(int index) {
+            block = index;
+            consumed = index * BLOCK_SIZE;
+            remainingInBlock = Math.min(BLOCK_SIZE, docFreq - consumed);
+            position = dataStart + buffer.getInt(skipTable + index * 8 + 4);
+            doc = firstDoc(index); // the block's first delta is 0
+        }
+
+        private int firstDoc(int index) {
+            return buffer.getInt(skipTable + index * 8);
+        }
+
+        private int readVInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.hacktech.healthai.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The writable segment that receives new and updated notes until it is
+ * flushed to a {@link DiskSegment}. Postings are growable int arrays per term;
+ * doc metadata is kept in parallel primitive arrays.
+ */
+final class MemorySegment extends Segment {
+
+    private static final NoteDocument.Type[] TYPES = NoteDocument.Type.values();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> docsById = new HashMap<>();
+
+    private int maxDoc;
+    private long totalLength;
+    private byte[] types = new byte[64];
+    private long[] ids = new long[128];
+    private long[] clinicians = new long[128];
+    private long[] patients = new long[128];
+    private int[] lengths = new int[64];
+
+    /** Adds a document and returns its doc number. The caller deletes any previous version first. */
+    int add(NoteDocument document) {
+        int doc = maxDoc++;
+        if (doc == lengths.length) {
+            int capacity = doc * 2;
+            types = Arrays.copyOf(types, capacity);
+            ids = Arrays.copyOf(ids, capacity * 2);
+            clinicians = Arrays.copyOf(clinicians, capacity * 2);
+            patients = Arrays.copyOf(patients, capacity * 2);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        types[doc] = (byte) document.type().ordinal();
+        put(ids, doc, document.id());
+        put(clinicians, doc, document.clinicianId());
+        put(patients, doc, document.patientId());
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] length = { 0 };
+        TextAnalyzer.analyze(document.text(), term -> {
+            frequencies.computeIfAbsent(term, t -> new int[1])[0]++;
+            length[0]++;
+        });
+        if (document.clinicianId() != null) {
+            frequencies.put(clinicianTerm(document.clinicianId()), new int[] { 1 });
+        }
+        if (document.patientId() != null) {
+            frequencies.put(patientTerm(document.patientId()), new int[] { 1 });
+        }
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new Postings()).add(doc, entry.getValue()[0]);
+        }
+        lengths[doc] = length[0];
+        totalLength += length[0];
+        docsById.put(document.id(), doc);
+        return doc;
+    }
+
+    @Override
+    int maxDoc() {
+        return maxDoc;
+    }
+
+    @Override
+    long totalLength() {
+        return totalLength;
+    }
+
+    @Override
+    NoteDocument.Type docType(int doc) {
+        return TYPES[types[doc]];
+    }
+
+    @Override
+    UUID docId(int doc) {
+        return get(ids, doc);
+    }
+
+    @Override
+    UUID clinicianId(int doc) {
+        return get(clinicians, doc);
+    }
+
+    @Override
+    UUID patientId(int doc) {
+        return get(patients, doc);
+    }
+
+    @Override
+    int docLength(int doc) {
+        return lengths[doc];
+    }
+
+    @Override
+    int findDoc(NoteDocument.Type type, UUID id) {
+        Integer doc = docsById.get(id);
+        return doc != null && types[doc] == type.ordinal() ? doc : -1;
+    }
+
+    @Override
+    PostingsCursor postings(String term) {
+        Postings list = postings.get(term);
+        return list != null ? new ArrayCursor(list.docs, list.freqs, list.size) : null;
+    }
+
+    @Override
+    Iterator<String> terms() {
+        List<String> sorted = new ArrayList<>(postings.keySet());
+        sorted.sort(null);
+        return sorted.iterator();
+    }
+
+    private static void put(long[] pairs, int doc, UUID value) {
+        if (value != null) {
+            pairs[2 * doc] = value.getMostSignificantBits();
+            pairs[2 * doc + 1] = value.getLeastSignificantBits();
+        }
+    }
+
+    private static UUID get(long[] pairs, int doc) {
+        long hi = pairs[2 * doc];
+        long lo = pairs[2 * doc + 1];
+        return hi == 0 && lo == 0 ? null : new UUID(hi, lo);
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    /** Cursor over sorted doc arrays; advance gallops then binary-searches. */
+    static final class ArrayCursor implements PostingsCursor {
+        private final int[] docs;
+        private final int[] freqs;
+        private final int size;
+        private int index = -1;
+        private int doc = -1;
+
+        ArrayCursor(int[] docs, int[] freqs, int size) {
+            this.docs = docs;
+            this.freqs = freqs;
+            this.size = size;
+        }
+
+        @Override
+        public int doc() {
+            return doc;
+        }
+
+        @Override
+        public int freq() {
+            return freqs[index];
+        }
+
+        @Override
+        public int next() {
+            index++;
+            return doc = index < size ? docs[index] : NO_MORE_DOCS;
+        }
+
+        @Override
+        public int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            int low = index + 1;
+            int step = 1;
+            int high = low;
+            while (high < size && docs[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size - 1);
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            index = low;
+            return doc = index < size ? docs[index] : NO_MORE_DOCS;
+        }
+
+        @Override
+        public int docFreq() {
+            return size;
+        }
+    }
+}
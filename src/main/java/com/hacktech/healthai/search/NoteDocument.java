@@ -0,0 +1,11 @@
+package com.hacktech.healthai.search;
+
+import java.util.UUID;
+
+/** Searchable text of one visit (reason + notes) or prescription (notes). */
+public record NoteDocument(Type type, UUID id, UUID clinicianId, UUID patientId, String text) {
+
+    public enum Type {
+        VISIT, PRESCRIPTION
+    }
+}
@@ -0,0 +1,585 @@
+package com.hacktech.healthai.search;
+
+import com.hacktech.healthai.dto.NoteSearchResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Embedded full-text index over visit reasons/notes and prescription notes.
+ *
+ * Writes are queued and applied by a single "note-indexer" thread to an
+ * in-memory segment. That segment is flushed to an immutable, memory-mapped
+ * {@link DiskSegment} when it reaches {@code search.memory-docs} documents or
+ * every {@code search.flush-interval-seconds}. Updates delete the previous
+ * version wherever it lives and add the new one to memory. When there are
+ * more than {@code search.max-segments} disk segments, the smallest are
+ * merged, which also drops deleted docs, as long as the result stays within
+ * {@code search.max-segment-docs} and {@code search.max-segment-mb}. The
+ * {@code segments} manifest is replaced atomically on each commit and names
+ * the live segment files.
+ *
+ * Every write is first appended to a {@link NoteWriteAheadLog}. The manifest
+ * records the last log entry included in the commit, and on startup the later
+ * entries are applied again, so updates and deletes that were queued but not
+ * yet committed are not lost.
+ *
+ * Queries are ranked with BM25 and can be filtered by clinician and/or
+ * patient; the filters are reserved terms intersected like any other.
+ * Searches share a read lock; the indexer takes the write lock only to apply
+ * a batch or swap segments, never while writing files.
+ */
+@Component
+public class NoteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteIndex.class);
+
+    private static final String MANIFEST = "segments";
+    private static final int MAX_BATCH = 1024;
+    // BM25 parameters (the usual defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Wakes the indexer on close; interrupting it could abort file I/O mid-write
+    private static final Operation WAKE_UP = new Operation(0, null, null, null);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int memoryDocs;
+    private final long flushIntervalNanos;
+    private final int maxSegments;
+    private final int mergeFactor;
+    private final int maxSegmentDocs;
+    private final long maxSegmentBytes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Operation> queue;
+    private final Thread indexer;
+    private volatile boolean running;
+    private NoteWriteAheadLog wal;
+
+    // Guarded by lock
+    private MemorySegment memory = new MemorySegment();
+    private List<DiskSegment> segments = new ArrayList<>();
+    // Indexer thread only
+    private long nextSegment;
+    private boolean uncommittedDeletes;
+    private volatile long lastCommitMillis;
+    // Every log entry up to appliedSeq is applied; later ones that were applied early wait in appliedAhead
+    private long appliedSeq;
+    private final PriorityQueue<Long> appliedAhead = new PriorityQueue<>();
+    private long committedSeq;
+
+    /**
+     * A queued write: index {@code document}, or delete when it is null.
+     *
+     * @param seq Write-ahead log sequence number, 0 if the write could not be logged.
+     */
+    private record Operation(long seq, NoteDocument.Type type, UUID id, NoteDocument document) {
+    }
+
+    public NoteIndex(@Value("${search.enabled:true}") boolean enabled,
+            @Value("${search.dir:search-index}") String directory,
+            @Value("${search.memory-docs:50000}") int memoryDocs,
+            @Value("${search.flush-interval-seconds:30}") long flushIntervalSeconds,
+            @Value("${search.max-segments:10}") int maxSegments,
+            @Value("${search.merge-factor:4}") int mergeFactor,
+            @Value("${search.max-segment-docs:5000000}") int maxSegmentDocs,
+            @Value("${search.max-segment-mb:1024}") long maxSegmentMegabytes,
+            @Value("${search.queue-capacity:100000}") int queueCapacity) throws IOException {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.memoryDocs = memoryDocs;
+        this.flushIntervalNanos = TimeUnit.SECONDS.toNanos(flushIntervalSeconds);
+        this.maxSegments = maxSegments;
+        this.mergeFactor = Math.max(2, mergeFactor);
+        this.maxSegmentDocs = maxSegmentDocs;
+        this.maxSegmentBytes = Math.min(maxSegmentMegabytes * 1024 * 1024, DiskSegment.MAX_BYTES);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        if (!enabled) {
+            log.info("Note search index is disabled via configuration.");
+            this.indexer = null;
+            return;
+        }
+        Files.createDirectories(this.directory);
+        load();
+        this.running = true;
+        this.indexer = new Thread(this::runIndexer, "note-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    /** Queues a new or changed note. Blocks only if the indexer is far behind. */
+    public void index(NoteDocument document) {
+        enqueue(document.type(), document.id(), document);
+    }
+
+    public void delete(NoteDocument.Type type, UUID id) {
+        enqueue(type, id, null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** True when nothing has ever been committed (used to decide on a full rebuild). */
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return segments.isEmpty() && memory.maxDoc() == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Wall-clock time of the last commit loaded or written, 0 if none. */
+    public long lastCommitMillis() {
+        return lastCommitMillis;
+    }
+
+    /**
+     * Ranked search.
+     *
+     * @param matchAll when true every query term must occur; otherwise any term
+     *                 matches and documents with more of them rank higher.
+     * @return up to {@code limit} hits, best first, and the total number of matches.
+     */
+    public NoteSearchResponse search(String query, UUID clinicianId, UUID patientId, boolean matchAll, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        if (terms.isEmpty() || limit <= 0 || !enabled) {
+            return new NoteSearchResponse(0, List.of());
+        }
+        List<String> filters = new ArrayList<>(2);
+        if (clinicianId != null) {
+            filters.add(Segment.clinicianTerm(clinicianId));
+        }
+        if (patientId != null) {
+            filters.add(Segment.patientTerm(patientId));
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Segment> all = new ArrayList<>(segments);
+            all.add(memory);
+
+            // Collection statistics across segments (doc freqs include deleted docs, as is usual)
+            long maxDocs = 0;
+            long totalLength = 0;
+            for (Segment segment : all) {
+                maxDocs += segment.maxDoc();
+                totalLength += segment.totalLength();
+            }
+            double averageLength = maxDocs > 0 ? (double) totalLength / maxDocs : 1;
+            String[] termArray = terms.toArray(new String[0]);
+            double[] idf = new double[termArray.length];
+            for (int t = 0; t < termArray.length; t++) {
+                long docFreq = 0;
+                for (Segment segment : all) {
+                    PostingsCursor cursor = segment.postings(termArray[t]);
+                    docFreq += cursor != null ? cursor.docFreq() : 0;
+                }
+                idf[t] = Math.log(1 + (maxDocs - docFreq + 0.5) / (docFreq + 0.5));
+            }
+
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(limit + 1,
+                    Comparator.comparingDouble(ScoredDoc::score));
+            long[] total = { 0 };
+            for (Segment segment : all) {
+                searchSegment(segment, termArray, idf, filters, matchAll, averageLength, limit, top, total);
+            }
+
+            List<ScoredDoc> best = new ArrayList<>(top);
+            best.sort(Comparator.comparingDouble(ScoredDoc::score).reversed());
+            List<NoteSearchResponse.Hit> hits = new ArrayList<>(best.size());
+            for (ScoredDoc scored : best) {
+                Segment segment = scored.segment();
+                int doc = scored.doc();
+                hits.add(new NoteSearchResponse.Hit(segment.docType(doc).name(), segment.docId(doc),
+                        segment.clinicianId(doc), segment.patientId(doc), scored.score()));
+            }
+            return new NoteSearchResponse(total[0], hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record ScoredDoc(double score, Segment segment, int doc) {
+    }
+
+    private static void searchSegment(Segment segment, String[] terms, double[] idf, List<String> filters,
+            boolean matchAll, double averageLength, int limit, PriorityQueue<ScoredDoc> top, long[] total) {
+        PostingsCursor[] termCursors = new PostingsCursor[terms.length];
+        int present = 0;
+        for (int t = 0; t < terms.length; t++) {
+            termCursors[t] = segment.postings(terms[t]);
+            if (termCursors[t] != null) {
+                present++;
+            } else if (matchAll) {
+                return;
+            }
+        }
+        if (present == 0) {
+            return;
+        }
+        PostingsCursor[] filterCursors = new PostingsCursor[filters.size()];
+        for (int f = 0; f < filterCursors.length; f++) {
+            filterCursors[f] = segment.postings(filters.get(f));
+            if (filterCursors[f] == null) {
+                return;
+            }
+        }
+
+        if (matchAll) {
+            // Leapfrog intersection led by the rarest list
+            PostingsCursor[] all = new PostingsCursor[terms.length + filterCursors.length];
+            System.arraycopy(termCursors, 0, all, 0, terms.length);
+            System.arraycopy(filterCursors, 0, all, terms.length, filterCursors.length);
+            Arrays.sort(all, Comparator.comparingInt(PostingsCursor::docFreq));
+            PostingsCursor lead = all[0];
+            int doc = lead.next();
+            outer:
+            while (doc != PostingsCursor.NO_MORE_DOCS) {
+                for (int i = 1; i < all.length; i++) {
+                    int other = all[i].advance(doc);
+                    if (other > doc) {
+                        doc = lead.advance(other);
+                        continue outer;
+                    }
+                }
+                collect(segment, doc, termCursors, idf, averageLength, limit, top, total);
+                doc = lead.next();
+            }
+            return;
+        }
+
+        // Any term: visit docs in order across the term lists, checking filters as we go
+        for (PostingsCursor cursor : termCursors) {
+            if (cursor != null) {
+                cursor.next();
+            }
+        }
+        while (true) {
+            int doc = PostingsCursor.NO_MORE_DOCS;
+            for (PostingsCursor cursor : termCursors) {
+                if (cursor != null && cursor.doc() < doc) {
+                    doc = cursor.doc();
+                }
+            }
+            if (doc == PostingsCursor.NO_MORE_DOCS) {
+                return;
+            }
+            int target = doc;
+            for (PostingsCursor filter : filterCursors) {
+                target = Math.max(target, filter.advance(doc));
+            }
+            if (target == doc) {
+                collect(segment, doc, termCursors, idf, averageLength, limit, top, total);
+                target = doc + 1;
+            }
+            if (target == PostingsCursor.NO_MORE_DOCS) {
+                return;
+            }
+            for (PostingsCursor cursor : termCursors) {
+                if (cursor != null) {
+                    cursor.advance(target);
+                }
+            }
+        }
+    }
+
+    private static void collect(Segment segment, int doc, PostingsCursor[] termCursors, double[] idf,
+            double averageLength, int limit, PriorityQueue<ScoredDoc> top, long[] total) {
+        if (segment.isDeleted(doc)) {
+            return;
+        }
+        total[0]++;
+        double norm = K1 * (1 - B + B * segment.docLength(doc) / averageLength);
+        double score = 0;
+        for (int t = 0; t < termCursors.length; t++) {
+            PostingsCursor cursor = termCursors[t];
+            if (cursor != null && cursor.doc() == doc) {
+                int freq = cursor.freq();
+                score += idf[t] * freq * (K1 + 1) / (freq + norm);
+            }
+        }
+        if (top.size() < limit) {
+            top.add(new ScoredDoc(score, segment, doc));
+        } else if (score > top.peek().score()) {
+            top.poll();
+            top.add(new ScoredDoc(score, segment, doc));
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        queue.offer(WAKE_UP);
+        indexer.join(TimeUnit.SECONDS.toMillis(30));
+        wal.close();
+    }
+
+    private void enqueue(NoteDocument.Type type, UUID id, NoteDocument document) {
+        if (!running) {
+            return;
+        }
+        long seq = 0;
+        try {
+            seq = wal.append(type, id, document);
+        } catch (IOException e) {
+            log.error("Failed to log note {} before indexing; it is lost if the process stops before the next commit: {}",
+                    id, e.getMessage());
+        }
+        // A logged write must reach the indexer, or the commit watermark would never pass it
+        Operation operation = new Operation(seq, type, id, document);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(operation);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Indexer thread ---
+
+    private void runIndexer() {
+        List<Operation> batch = new ArrayList<>(MAX_BATCH);
+        long lastFlush = System.nanoTime();
+        while (running || !queue.isEmpty()) {
+            try {
+                Operation first = queue.poll(Math.max(1, flushIntervalNanos / 4), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    apply(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Note indexer interrupted; stopping without a final commit");
+                return;
+            }
+            boolean due = System.nanoTime() - lastFlush >= flushIntervalNanos || !running;
+            if (memory.maxDoc() >= memoryDocs || (due && hasUncommittedChanges())) {
+                try {
+                    commit();
+                    maybeMerge();
+                } catch (IOException e) {
+                    log.error("Failed to commit note index; will retry: {}", e.getMessage(), e);
+                }
+                lastFlush = System.nanoTime();
+            }
+        }
+        log.info("Note index closed with {} segments", segments.size());
+    }
+
+    private void apply(List<Operation> batch) {
+        lock.writeLock().lock();
+        try {
+            for (Operation operation : batch) {
+                if (operation == WAKE_UP) {
+                    continue;
+                }
+                int doc = memory.findDoc(operation.type(), operation.id());
+                if (doc >= 0) {
+                    memory.delete(doc);
+                }
+                for (DiskSegment segment : segments) {
+                    doc = segment.findDoc(operation.type(), operation.id());
+                    if (doc >= 0 && segment.delete(doc)) {
+                        segment.markDeletesDirty();
+                        uncommittedDeletes = true;
+                    }
+                }
+                if (operation.document() != null) {
+                    memory.add(operation.document());
+                }
+                markApplied(operation.seq());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Advances the applied watermark; writers log in order but may reach the queue out of order. */
+    private void markApplied(long seq) {
+        if (seq == 0) {
+            return;
+        }
+        if (seq != appliedSeq + 1) {
+            appliedAhead.add(seq);
+            return;
+        }
+        appliedSeq = seq;
+        while (!appliedAhead.isEmpty() && appliedAhead.peek() == appliedSeq + 1) {
+            appliedSeq = appliedAhead.poll();
+        }
+    }
+
+    private boolean hasUncommittedChanges() {
+        return memory.maxDoc() > 0 || uncommittedDeletes;
+    }
+
+    /** Flushes the memory segment, persists deletions and writes a new manifest. */
+    private void commit() throws IOException {
+        List<DiskSegment> next = new ArrayList<>(segments);
+        if (memory.liveDocs() > 0) {
+            next.add(SegmentWriter.write(directory.resolve(newSegmentName()), List.of(memory)));
+        }
+        for (DiskSegment segment : segments) {
+            segment.writeDeletes();
+        }
+        long seq = appliedSeq;
+        writeManifest(next, seq);
+        committedSeq = seq;
+        lock.writeLock().lock();
+        try {
+            segments = next;
+            memory = new MemorySegment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        uncommittedDeletes = false;
+        wal.checkpoint(seq);
+    }
+
+    /** Merges the smallest segments while there are too many. */
+    private void maybeMerge() throws IOException {
+        while (segments.size() > maxSegments) {
+            List<DiskSegment> bySize = new ArrayList<>(segments);
+            bySize.sort(Comparator.comparingInt(Segment::liveDocs));
+            List<DiskSegment> merging = new ArrayList<>();
+            long docs = 0;
+            long bytes = 0;
+            for (DiskSegment candidate : bySize) {
+                if (merging.size() == mergeFactor || docs + candidate.liveDocs() > maxSegmentDocs
+                        || bytes + candidate.sizeBytes() > maxSegmentBytes) {
+                    break;
+                }
+                merging.add(candidate);
+                docs += candidate.liveDocs();
+                bytes += candidate.sizeBytes();
+            }
+            if (merging.size() < 2) {
+                log.warn("Note index has {} segments but none can be merged under {} docs and {} bytes",
+                        segments.size(), maxSegmentDocs, maxSegmentBytes);
+                return;
+            }
+            long start = System.nanoTime();
+            DiskSegment merged = SegmentWriter.write(directory.resolve(newSegmentName()), merging);
+            List<DiskSegment> next = new ArrayList<>(segments);
+            next.removeAll(merging);
+            next.add(merged);
+            writeManifest(next, committedSeq);
+            lock.writeLock().lock();
+            try {
+                segments = next;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (DiskSegment old : merging) {
+                old.deleteFiles();
+            }
+            log.info("Merged {} note index segments into {} ({} docs) in {} ms", merging.size(), merged.name(),
+                    merged.maxDoc(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private String newSegmentName() {
+        return String.format("seg-%010d%s", nextSegment++, DiskSegment.SUFFIX);
+    }
+
+    private void writeManifest(List<DiskSegment> live, long seq) throws IOException {
+        long now = System.currentTimeMillis();
+        List<String> lines = new ArrayList<>(live.size() + 3);
+        lines.add("commit " + now);
+        lines.add("next " + nextSegment);
+        lines.add("wal " + seq);
+        for (DiskSegment segment : live) {
+            lines.add(segment.path().getFileName().toString());
+        }
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        Files.write(temp, lines);
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        lastCommitMillis = now;
+    }
+
+    /**
+     * Opens the segments named by the manifest, removes files left over from
+     * interrupted work and applies the log entries written after the last commit.
+     */
+    private void load() throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        Set<String> live = new HashSet<>();
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest)) {
+                if (line.startsWith("commit ")) {
+                    lastCommitMillis = Long.parseLong(line.substring(7).trim());
+                } else if (line.startsWith("next ")) {
+                    nextSegment = Long.parseLong(line.substring(5).trim());
+                } else if (line.startsWith("wal ")) {
+                    committedSeq = Long.parseLong(line.substring(4).trim());
+                } else if (!line.isBlank()) {
+                    segments.add(DiskSegment.open(directory.resolve(line.trim())));
+                    live.add(line.trim());
+                }
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                boolean segmentFile = name.endsWith(DiskSegment.SUFFIX) || name.endsWith(DiskSegment.DELETES_SUFFIX)
+                        || name.endsWith(".tmp");
+                String base = name.endsWith(DiskSegment.DELETES_SUFFIX)
+                        ? name.substring(0, name.length() - DiskSegment.DELETES_SUFFIX.length()) + DiskSegment.SUFFIX
+                        : name;
+                if (segmentFile && !live.contains(base)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        wal = new NoteWriteAheadLog(directory, committedSeq);
+        appliedSeq = committedSeq;
+        List<Operation> replay = new ArrayList<>(wal.recovered().size());
+        for (NoteWriteAheadLog.Entry entry : wal.recovered()) {
+            replay.add(new Operation(entry.seq(), entry.type(), entry.id(), entry.document()));
+        }
+        apply(replay);
+        // Entries lost to a torn tail can never arrive, so the watermark moves past them
+        appliedAhead.clear();
+        appliedSeq = wal.lastSeq();
+        long docs = segments.stream().mapToLong(Segment::liveDocs).sum();
+        log.info("Note search index at {}: {} segments, {} live notes", directory.toAbsolutePath(), segments.size(),
+                docs);
+    }
+}
@@ -0,0 +1,97 @@
+package com.hacktech.healthai.search;
+
+import com.hacktech.healthai.entity.Prescription;
+import com.hacktech.healthai.entity.Visit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Fills the {@link NoteIndex} from the database at startup. An empty index is
+ * built from every visit and prescription. Otherwise only rows created since
+ * shortly before the last commit are re-indexed, as a safety net for inserts
+ * that never reached the index. Updates and deletes queued by this process
+ * but not yet committed are replayed by {@link NoteIndex} from its write-ahead
+ * log; changes made while no instance was running (for example directly in
+ * the database) still need a rebuild (delete {@code search.dir}). This does
+ * nothing while JPA is not configured or the index is disabled.
+ */
+@Component
+public class NoteIndexBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteIndexBootstrap.class);
+
+    private static final int FETCH_SIZE = 1000;
+    // Margin for clock skew between this host and the database
+    private static final long CATCH_UP_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final NoteIndex noteIndex;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public NoteIndexBootstrap(NoteIndex noteIndex, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.noteIndex = noteIndex;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!noteIndex.isEnabled()) {
+            return;
+        }
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            log.info("JPA is not configured; note search index is not bootstrapped from the database.");
+            return;
+        }
+        OffsetDateTime since = noteIndex.isEmpty() ? null
+                : Instant.ofEpochMilli(noteIndex.lastCommitMillis() - CATCH_UP_MARGIN_MILLIS).atOffset(ZoneOffset.UTC);
+        long start = System.nanoTime();
+        EntityManager entityManager = factory.createEntityManager();
+        // PostgreSQL only honours the fetch size (cursor) inside a transaction
+        entityManager.getTransaction().begin();
+        try {
+            long visits = indexAll(entityManager, Visit.class, "Visit", since, NoteIndexListener::document);
+            long prescriptions = indexAll(entityManager, Prescription.class, "Prescription", since,
+                    NoteIndexListener::document);
+            log.info("Queued {} visits and {} prescriptions for note indexing ({}) in {} ms", visits, prescriptions,
+                    since == null ? "full build" : "since " + since, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    private static <T> long indexAll(EntityManager entityManager, Class<T> type, String entity,
+            OffsetDateTime since, Function<T, NoteDocument> toDocument) {
+        String jpql = "select e from " + entity + " e" + (since != null ? " where e.createdAt >= :since" : "");
+        TypedQuery<T> query = entityManager.createQuery(jpql, type)
+                .setHint("org.hibernate.fetchSize", FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true);
+        if (since != null) {
+            query.setParameter("since", since);
+        }
+        long count = 0;
+        try (Stream<T> rows = query.getResultStream()) {
+            for (T row : (Iterable<T>) rows::iterator) {
+                noteIndex.index(toDocument.apply(row));
+                if (++count % FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,56 @@
+package com.hacktech.healthai.search;
+
+import com.hacktech.healthai.config.TransactionHooks;
+import com.hacktech.healthai.entity.Prescription;
+import com.hacktech.healthai.entity.Visit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link Visit} and {@link Prescription} that keeps the
+ * {@link NoteIndex} current. Changes are queued after commit (see
+ * {@link TransactionHooks}).
+ */
+public class NoteIndexListener {
+
+    private final NoteIndex noteIndex;
+
+    public NoteIndexListener(NoteIndex noteIndex) {
+        this.noteIndex = noteIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        if (entity instanceof Visit visit) {
+            NoteDocument document = document(visit);
+            TransactionHooks.afterCommit(() -> noteIndex.index(document));
+        } else if (entity instanceof Prescription prescription) {
+            NoteDocument document = document(prescription);
+            TransactionHooks.afterCommit(() -> noteIndex.index(document));
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Visit visit) {
+            TransactionHooks.afterCommit(() -> noteIndex.delete(NoteDocument.Type.VISIT, visit.getId()));
+        } else if (entity instanceof Prescription prescription) {
+            TransactionHooks.afterCommit(
+                    () -> noteIndex.delete(NoteDocument.Type.PRESCRIPTION, prescription.getId()));
+        }
+    }
+
+    static NoteDocument document(Visit visit) {
+        String text = visit.getReason() == null ? visit.getNotes()
+                : visit.getNotes() == null ? visit.getReason() : visit.getReason() + "\n" + visit.getNotes();
+        return new NoteDocument(NoteDocument.Type.VISIT, visit.getId(), visit.getClinician().getId(),
+                visit.getPatient().getId(), text);
+    }
+
+    static NoteDocument document(Prescription prescription) {
+        return new NoteDocument(NoteDocument.Type.PRESCRIPTION, prescription.getId(),
+                prescription.getClinician().getId(), prescription.getPatient().getId(), prescription.getNotes());
+    }
+}
@@ -0,0 +1,268 @@
+package com.hacktech.healthai.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of note index operations, so that index updates and deletes
+ * accepted after the last commit survive a restart.
+ *
+ * Request threads append each operation, numbered with an increasing sequence
+ * number, before queueing it for the indexer. Each commit records the sequence
+ * number up to which every operation is in the committed segments; the log
+ * then rolls to a new file and deletes the files holding only older entries.
+ * On startup the entries after that number are handed back for replay.
+ *
+ * A record is {@code int length, int CRC-32, payload}; reading stops at the
+ * first short or corrupt record, which is where a crash can leave a torn tail.
+ * Appends are not forced to disk, so the log survives a process crash but an
+ * operating system crash may lose the last few seconds.
+ */
+final class NoteWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteWriteAheadLog.class);
+
+    static final String PREFIX = "wal-";
+    static final String SUFFIX = ".log";
+
+    private static final NoteDocument.Type[] TYPES = NoteDocument.Type.values();
+    private static final int FIXED_BYTES = 8 + 1 + 1 + 16;
+    private static final int DOCUMENT_BYTES = 16 + 16 + 4;
+
+    /** A logged operation: index {@code document}, or delete when it is null. */
+    record Entry(long seq, NoteDocument.Type type, UUID id, NoteDocument document) {
+    }
+
+    private final Path directory;
+    private final List<Entry> recovered = new ArrayList<>();
+    // Closed log files by first sequence number, with the last sequence number each holds
+    private final TreeMap<Long, Long> closedFiles = new TreeMap<>();
+    private final CRC32 crc = new CRC32();
+
+    // Guarded by this
+    private FileChannel channel;
+    private long currentFirstSeq;
+    private long lastSeq;
+
+    /**
+     * Reads the existing log files and opens a new one for appends.
+     *
+     * @param committedSeq Sequence number recorded by the last commit; older entries are not recovered.
+     */
+    NoteWriteAheadLog(Path directory, long committedSeq) throws IOException {
+        this.directory = directory;
+        this.lastSeq = committedSeq;
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(NoteWriteAheadLog::isLogFile).sorted().toList();
+        }
+        for (Path file : files) {
+            long last = read(file, committedSeq);
+            if (last < firstSeq(file)) {
+                // Opened but never written; a new file may reuse its name
+                Files.delete(file);
+                continue;
+            }
+            closedFiles.put(firstSeq(file), last);
+            lastSeq = Math.max(lastSeq, last);
+        }
+        openFile();
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} uncommitted note index operations from the write-ahead log", recovered.size());
+        }
+    }
+
+    static boolean isLogFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    /** Entries logged after the last commit, in log order. */
+    List<Entry> recovered() {
+        return recovered;
+    }
+
+    /** Highest sequence number logged so far. */
+    synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Logs an operation.
+     *
+     * @return its sequence number.
+     */
+    synchronized long append(NoteDocument.Type type, UUID id, NoteDocument document) throws IOException {
+        long seq = lastSeq + 1;
+        ByteBuffer record = encode(seq, type, id, document);
+        long position = channel.position();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            // Cut off the partial record so later appends stay readable
+            channel.truncate(position);
+            channel.position(position);
+            throw e;
+        }
+        lastSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Called after a commit that covers every entry up to {@code committedSeq}:
+     * rolls to a new file if the current one has entries, and deletes the files
+     * that are fully committed.
+     */
+    void checkpoint(long committedSeq) throws IOException {
+        synchronized (this) {
+            if (lastSeq >= currentFirstSeq) {
+                channel.close();
+                closedFiles.put(currentFirstSeq, lastSeq);
+                openFile();
+            }
+        }
+        Iterator<Map.Entry<Long, Long>> it = closedFiles.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Long> file = it.next();
+            if (file.getValue() <= committedSeq) {
+                Files.deleteIfExists(fileFor(file.getKey()));
+                it.remove();
+            }
+        }
+    }
+
+    synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close note index write-ahead log: {}", e.getMessage());
+        }
+    }
+
+    private void openFile() throws IOException {
+        currentFirstSeq = lastSeq + 1;
+        channel = FileChannel.open(fileFor(currentFirstSeq), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private Path fileFor(long firstSeq) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, firstSeq, SUFFIX));
+    }
+
+    private static long firstSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /** Collects the entries after {@code committedSeq}; returns the file's last sequence number. */
+    private long read(Path file, long committedSeq) throws IOException {
+        long last = firstSeq(file) - 1;
+        try (InputStream stream = Files.newInputStream(file);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < FIXED_BYTES) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Ignoring corrupt tail of note index write-ahead log {}", file.getFileName());
+                    break;
+                }
+                Entry entry = decode(ByteBuffer.wrap(payload));
+                last = entry.seq();
+                if (entry.seq() > committedSeq) {
+                    recovered.add(entry);
+                }
+            }
+        }
+        return last;
+    }
+
+    private ByteBuffer encode(long seq, NoteDocument.Type type, UUID id, NoteDocument document) {
+        byte[] text = document != null && document.text() != null
+                ? document.text().getBytes(StandardCharsets.UTF_8) : null;
+        int length = FIXED_BYTES + (document != null ? DOCUMENT_BYTES + (text != null ? text.length : 0) : 0);
+        ByteBuffer record = ByteBuffer.allocate(8 + length);
+        record.position(8);
+        record.putLong(seq).put((byte) type.ordinal()).put((byte) (document != null ? 1 : 0));
+        putUuid(record, id);
+        if (document != null) {
+            putUuid(record, document.clinicianId());
+            putUuid(record, document.patientId());
+            record.putInt(text != null ? text.length : -1);
+            if (text != null) {
+                record.put(text);
+            }
+        }
+        crc.reset();
+        crc.update(record.array(), 8, length);
+        record.putInt(0, length).putInt(4, (int) crc.getValue());
+        return record.flip().position(0);
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        long seq = payload.getLong();
+        NoteDocument.Type type = TYPES[payload.get()];
+        boolean indexed = payload.get() != 0;
+        UUID id = getUuid(payload);
+        NoteDocument document = null;
+        if (indexed) {
+            UUID clinicianId = getUuid(payload);
+            UUID patientId = getUuid(payload);
+            int textLength = payload.getInt();
+            String text = null;
+            if (textLength >= 0) {
+                byte[] bytes = new byte[textLength];
+                payload.get(bytes);
+                text = new String(bytes, StandardCharsets.UTF_8);
+            }
+            document = new NoteDocument(type, id, clinicianId, patientId, text);
+        }
+        return new Entry(seq, type, id, document);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID value) {
+        buffer.putLong(value != null ? value.getMostSignificantBits() : 0L);
+        buffer.putLong(value != null ? value.getLeastSignificantBits() : 0L);
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        long hi = buffer.getLong();
+        long lo = buffer.getLong();
+        return hi == 0 && lo == 0 ? null : new UUID(hi, lo);
+    }
+}
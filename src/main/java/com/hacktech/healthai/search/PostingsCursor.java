@@ -0,0 +1,21 @@
+package com.hacktech.healthai.search;
+
+/** Forward-only iterator over one term's postings in a segment, in doc order. */
+interface PostingsCursor {
+
+    int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    /** Current doc, -1 before the first {@link #next()}, {@link #NO_MORE_DOCS} when exhausted. */
+    int doc();
+
+    /** Term frequency in the current doc. */
+    int freq();
+
+    int next();
+
+    /** Moves to the first doc at or after {@code target} and returns it. */
+    int advance(int target);
+
+    /** Number of docs in the postings list. */
+    int docFreq();
+}
@@ -0,0 +1,85 @@
+package com.hacktech.healthai.search;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * One immutable-postings slice of the note index: documents numbered
+ * 0..maxDoc-1, an inverted index from term to postings, and a deletion bitset
+ * (the only mutable part). A document that is updated is deleted from its old
+ * segment and added again to the in-memory segment.
+ *
+ * Clinician and patient ids are indexed as reserved terms, so filters are just
+ * more postings to intersect with.
+ *
+ * Callers synchronize through {@link NoteIndex}'s lock.
+ */
+abstract class Segment {
+
+    private static final String CLINICIAN_PREFIX = "\u0001c:";
+    private static final String PATIENT_PREFIX = "\u0001p:";
+
+    protected final BitSet deleted = new BitSet();
+    private int deletedCount;
+
+    abstract int maxDoc();
+
+    /** Sum of all docs' text lengths in terms, deleted docs included. */
+    abstract long totalLength();
+
+    abstract NoteDocument.Type docType(int doc);
+
+    abstract UUID docId(int doc);
+
+    abstract UUID clinicianId(int doc);
+
+    abstract UUID patientId(int doc);
+
+    abstract int docLength(int doc);
+
+    /** The doc holding the given note, or -1. Deleted docs may be returned. */
+    abstract int findDoc(NoteDocument.Type type, UUID id);
+
+    /** Postings for a term, or null if no doc in this segment has it. */
+    abstract PostingsCursor postings(String term);
+
+    /** All terms of the segment in sorted order. */
+    abstract Iterator<String> terms();
+
+    final boolean isDeleted(int doc) {
+        return deleted.get(doc);
+    }
+
+    final boolean delete(int doc) {
+        if (deleted.get(doc)) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        return true;
+    }
+
+    final int liveDocs() {
+        return maxDoc() - deletedCount;
+    }
+
+    final int deletedCount() {
+        return deletedCount;
+    }
+
+    /** Used when loading a persisted deletion bitset. */
+    protected final void setDeleted(BitSet bits) {
+        deleted.clear();
+        deleted.or(bits);
+        deletedCount = bits.cardinality();
+    }
+
+    static String clinicianTerm(UUID clinicianId) {
+        return CLINICIAN_PREFIX + clinicianId;
+    }
+
+    static String patientTerm(UUID patientId) {
+        return PATIENT_PREFIX + patientId;
+    }
+}
@@ -0,0 +1,320 @@
+package com.hacktech.healthai.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Writes the live documents of one or more segments into a new
+ * {@link DiskSegment}. The same path serves both flushing the memory segment
+ * and merging disk segments. Docs are renumbered densely in source order, so
+ * concatenating each source's remapped postings keeps every postings list
+ * sorted. Terms are merged k-way from the sources' sorted term iterators.
+ *
+ * The file is written to a temporary name, forced, and then renamed into
+ * place, so a crash never leaves a partial segment under the final name.
+ * A segment that grows past {@link DiskSegment#MAX_BYTES} cannot be mapped;
+ * writing stops there and the temporary file is removed.
+ */
+final class SegmentWriter {
+
+    private SegmentWriter() {
+    }
+
+    static DiskSegment write(Path target, List<? extends Segment> sources) throws IOException {
+        // Dense renumbering of live docs
+        List<int[]> docMaps = new ArrayList<>(sources.size());
+        int maxDoc = 0;
+        long totalLength = 0;
+        for (Segment source : sources) {
+            int[] map = new int[source.maxDoc()];
+            for (int doc = 0; doc < map.length; doc++) {
+                if (source.isDeleted(doc)) {
+                    map[doc] = -1;
+                } else {
+                    map[doc] = maxDoc++;
+                    totalLength += source.docLength(doc);
+                }
+            }
+            docMaps.add(map);
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            return write(target, temp, sources, docMaps, maxDoc, totalLength);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static DiskSegment write(Path target, Path temp, List<? extends Segment> sources, List<int[]> docMaps,
+            int maxDoc, long totalLength) throws IOException {
+        long[] offsets = new long[5];
+        int termCount;
+        try (CountingOutput out = new CountingOutput(Files.newOutputStream(temp))) {
+            out.write(new byte[DiskSegment.HEADER_BYTES]);
+
+            offsets[0] = out.position();
+            long[] keyHi = new long[maxDoc];
+            long[] keyLo = new long[maxDoc];
+            for (int s = 0; s < sources.size(); s++) {
+                Segment source = sources.get(s);
+                int[] map = docMaps.get(s);
+                for (int doc = 0; doc < map.length; doc++) {
+                    if (map[doc] < 0) {
+                        continue;
+                    }
+                    UUID id = source.docId(doc);
+                    keyHi[map[doc]] = id.getMostSignificantBits();
+                    keyLo[map[doc]] = id.getLeastSignificantBits();
+                    writeUuid(out, id);
+                    writeUuid(out, source.clinicianId(doc));
+                    writeUuid(out, source.patientId(doc));
+                    out.writeInt(source.docLength(doc));
+                    out.writeByte(source.docType(doc).ordinal());
+                    out.write(new byte[3]);
+                }
+            }
+
+            offsets[1] = out.position();
+            for (int doc : sortedByKey(keyHi, keyLo)) {
+                out.writeInt(doc);
+            }
+
+            offsets[2] = out.position();
+            List<byte[]> termBytes = new ArrayList<>();
+            List<long[]> termInfo = new ArrayList<>(); // doc freq, postings offset
+            PostingsBuffer postings = new PostingsBuffer();
+            PriorityQueue<TermSource> queue = new PriorityQueue<>();
+            for (int s = 0; s < sources.size(); s++) {
+                TermSource termSource = new TermSource(s, sources.get(s).terms());
+                if (termSource.advance()) {
+                    queue.add(termSource);
+                }
+            }
+            while (!queue.isEmpty()) {
+                String term = queue.peek().term;
+                postings.clear();
+                // Sources are polled in term order; equal terms in source order so docs stay sorted
+                List<TermSource> sameTerm = new ArrayList<>();
+                while (!queue.isEmpty() && queue.peek().term.equals(term)) {
+                    sameTerm.add(queue.poll());
+                }
+                sameTerm.sort((a, b) -> Integer.compare(a.source, b.source));
+                for (TermSource termSource : sameTerm) {
+                    int[] map = docMaps.get(termSource.source);
+                    PostingsCursor cursor = sources.get(termSource.source).postings(term);
+                    for (int doc = cursor.next(); doc != PostingsCursor.NO_MORE_DOCS; doc = cursor.next()) {
+                        if (map[doc] >= 0) {
+                            postings.add(map[doc], cursor.freq());
+                        }
+                    }
+                    if (termSource.advance()) {
+                        queue.add(termSource);
+                    }
+                }
+                if (postings.size > 0) {
+                    termBytes.add(term.getBytes(StandardCharsets.UTF_8));
+                    termInfo.add(new long[] { postings.size, out.position() - offsets[2] });
+                    postings.writeTo(out);
+                    checkSize(out);
+                }
+            }
+            termCount = termBytes.size();
+
+            offsets[3] = out.position();
+            int entryOffset = 0;
+            for (byte[] bytes : termBytes) {
+                out.writeInt(entryOffset);
+                entryOffset += 2 + bytes.length + 4 + 8;
+            }
+            offsets[4] = out.position();
+            for (int i = 0; i < termCount; i++) {
+                byte[] bytes = termBytes.get(i);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+                out.writeInt((int) termInfo.get(i)[0]);
+                out.writeLong(termInfo.get(i)[1]);
+            }
+            checkSize(out);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(DiskSegment.HEADER_BYTES);
+        header.putInt(DiskSegment.MAGIC).putInt(DiskSegment.VERSION).putInt(maxDoc).putInt(termCount)
+                .putLong(totalLength);
+        for (long offset : offsets) {
+            header.putLong(offset);
+        }
+        header.flip();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return DiskSegment.open(target);
+    }
+
+    /** Gives up as soon as the file can no longer be mapped, rather than after writing it all. */
+    private static void checkSize(CountingOutput out) throws IOException {
+        if (out.position() > DiskSegment.MAX_BYTES) {
+            throw new IOException("Note index segment exceeds " + DiskSegment.MAX_BYTES
+                    + " bytes; lower search.max-segment-mb or search.max-segment-docs");
+        }
+    }
+
+    private static int[] sortedByKey(long[] hi, long[] lo) {
+        Integer[] order = new Integer[hi.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Long.compare(hi[a], hi[b]);
+            return cmp != 0 ? cmp : Long.compare(lo[a], lo[b]);
+        });
+        int[] docs = new int[order.length];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = order[i];
+        }
+        return docs;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeLong(value != null ? value.getMostSignificantBits() : 0L);
+        out.writeLong(value != null ? value.getLeastSignificantBits() : 0L);
+    }
+
+    private static final class TermSource implements Comparable<TermSource> {
+        final int source;
+        final Iterator<String> terms;
+        String term;
+
+        TermSource(int source, Iterator<String> terms) {
+            this.source = source;
+            this.terms = terms;
+        }
+
+        boolean advance() {
+            term = terms.hasNext() ? terms.next() : null;
+            return term != null;
+        }
+
+        @Override
+        public int compareTo(TermSource other) {
+            int cmp = term.compareTo(other.term);
+            return cmp != 0 ? cmp : Integer.compare(source, other.source);
+        }
+    }
+
+    /** One term's remapped postings, encoded in blocks with a skip table on write. */
+    private static final class PostingsBuffer {
+        int[] docs = new int[1024];
+        int[] freqs = new int[1024];
+        int size;
+        private byte[] scratch = new byte[8192];
+        private int scratchLength;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void writeTo(CountingOutput out) throws IOException {
+            int blockCount = (size + DiskSegment.BLOCK_SIZE - 1) / DiskSegment.BLOCK_SIZE;
+            int[] blockOffsets = new int[blockCount];
+            scratchLength = 0;
+            for (int block = 0; block < blockCount; block++) {
+                blockOffsets[block] = scratchLength;
+                int start = block * DiskSegment.BLOCK_SIZE;
+                int end = Math.min(size, start + DiskSegment.BLOCK_SIZE);
+                int previous = docs[start];
+                for (int i = start; i < end; i++) {
+                    putVInt(docs[i] - previous);
+                    putVInt(freqs[i]);
+                    previous = docs[i];
+                }
+            }
+            writeVInt(out, blockCount);
+            for (int block = 0; block < blockCount; block++) {
+                out.writeInt(docs[block * DiskSegment.BLOCK_SIZE]);
+                out.writeInt(blockOffsets[block]);
+            }
+            out.write(scratch, 0, scratchLength);
+        }
+
+        private void putVInt(int value) {
+            if (scratchLength + 5 > scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                scratch[scratchLength++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            scratch[scratchLength++] = (byte) value;
+        }
+
+        private static void writeVInt(OutputStream out, int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+    }
+
+    /** DataOutputStream that knows its position as a long (its own counter is an int). */
+    private static final class CountingOutput extends DataOutputStream {
+
+        CountingOutput(OutputStream out) {
+            super(new Counter(new BufferedOutputStream(out, 1 << 16)));
+        }
+
+        long position() {
+            return ((Counter) out).count;
+        }
+    }
+
+    private static final class Counter extends FilterOutputStream {
+        long count;
+
+        Counter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
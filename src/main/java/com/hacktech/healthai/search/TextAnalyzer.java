@@ -0,0 +1,68 @@
+package com.hacktech.healthai.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Turns note text into index terms: splits on anything that is not a letter
+ * or digit, lower-cases, drops stop words and single characters, and strips a
+ * plain-English plural "s" ("rashes" and "rash" both index as "rash").
+ * Queries go through the same analysis, so they match what was indexed.
+ */
+final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "had", "has", "have", "he", "her",
+            "his", "if", "in", "into", "is", "it", "its", "of", "on", "or", "she", "that", "the", "their", "then",
+            "there", "these", "they", "this", "to", "was", "were", "will", "with");
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        analyze(text, terms::add);
+        return terms;
+    }
+
+    static void analyze(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        StringBuilder term = new StringBuilder(16);
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            term.setLength(0);
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                term.append(Character.toLowerCase(text.charAt(i)));
+                i++;
+            }
+            if (term.length() < 2 || term.length() > MAX_TERM_LENGTH) {
+                continue;
+            }
+            String word = stem(term);
+            if (!STOP_WORDS.contains(word)) {
+                sink.accept(word);
+            }
+        }
+    }
+
+    private static String stem(StringBuilder word) {
+        int n = word.length();
+        if (n > 4 && word.charAt(n - 1) == 's' && word.charAt(n - 2) == 'e'
+                && (word.charAt(n - 3) == 's' || word.charAt(n - 3) == 'x' || word.charAt(n - 3) == 'h')) {
+            word.setLength(n - 2); // rashes, boxes
+        } else if (n > 3 && word.charAt(n - 1) == 's' && "suic".indexOf(word.charAt(n - 2)) < 0) {
+            word.setLength(n - 1); // tablets, but not loss, virus, analysis, sepsis
+        }
+        return word.toString();
+    }
+}
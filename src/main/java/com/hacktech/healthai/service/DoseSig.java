@@ -0,0 +1,96 @@
+package com.hacktech.healthai.service;
+
+/**
+ * Mutable result holder for {@link SigParser}. Instances are meant to be reused
+ * (call {@link #reset()} between prescriptions) so that parsing stays
+ * allocation-free on the hot path.
+ *
+ * Amounts are normalized to milligrams for mass, millilitres for volume and
+ * international units for IU-dosed drugs. Unset values are {@code NaN}.
+ */
+public final class DoseSig {
+
+    public static final int UNIT_UNKNOWN = 0;
+    public static final int UNIT_MG = 1;
+    public static final int UNIT_ML = 2;
+    public static final int UNIT_IU = 3;
+
+    // Parsed values
+    double strength;      // amount per unit/dose in the normalized unit
+    int unit;             // one of the UNIT_* constants
+    double count;         // dosage forms per dose, e.g. 2 for "2 tabs"
+    double dosesPerDay;
+    double courseDays;    // treatment length, e.g. 10 for "x 10 days" or "for 10 days"
+    boolean prn;
+    boolean weightBased;  // e.g. "10 mg/kg"; cannot be checked without a weight
+
+    // Parser scratch state carried across tokens (and from dosage into frequency)
+    double pendingLow;
+    double pendingHigh;
+    double timesPending;
+    boolean timesAfterX;  // timesPending came from "x N", which before "days" is a duration
+    boolean every;
+    boolean expectTimes;
+
+    public DoseSig() {
+        reset();
+    }
+
+    public void reset() {
+        strength = Double.NaN;
+        unit = UNIT_UNKNOWN;
+        count = Double.NaN;
+        dosesPerDay = Double.NaN;
+        courseDays = Double.NaN;
+        prn = false;
+        weightBased = false;
+        pendingLow = Double.NaN;
+        pendingHigh = Double.NaN;
+        timesPending = Double.NaN;
+        timesAfterX = false;
+        every = false;
+        expectTimes = false;
+    }
+
+    public double strength() {
+        return strength;
+    }
+
+    public int unit() {
+        return unit;
+    }
+
+    public double count() {
+        return count;
+    }
+
+    public double dosesPerDay() {
+        return dosesPerDay;
+    }
+
+    /** Length of the course in days, or NaN if none was given. Never affects {@link #dosesPerDay()}. */
+    public double courseDays() {
+        return courseDays;
+    }
+
+    public boolean prn() {
+        return prn;
+    }
+
+    public boolean weightBased() {
+        return weightBased;
+    }
+
+    /** Amount taken per dose in the normalized unit, or NaN if no strength was given. */
+    public double perDoseAmount() {
+        return Double.isNaN(count) ? strength : strength * count;
+    }
+
+    /**
+     * Amount taken per day in the normalized unit, or NaN if either the strength
+     * or the frequency is unknown. PRN sigs assume every allowed dose is taken.
+     */
+    public double dailyAmount() {
+        return perDoseAmount() * dosesPerDay;
+    }
+}
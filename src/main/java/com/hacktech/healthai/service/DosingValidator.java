@@ -0,0 +1,123 @@
+package com.hacktech.healthai.service;
+
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Checks the dosage and frequency of a proposed prescription against a
+ * maximum daily dose table indexed by {@link DrugClassIndex} drug ID.
+ *
+ * Parsing reuses a per-thread {@link DoseSig}, so a check that finds no issue
+ * does no allocation beyond the drug name lookup. This keeps it cheap enough
+ * to run on every keystroke of the review screen.
+ */
+@Component
+public class DosingValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DosingValidator.class);
+
+    private static final ThreadLocal<DoseSig> SIGS = ThreadLocal.withInitial(DoseSig::new);
+
+    private final DrugClassIndex drugClassIndex;
+    private final double[] maxDailyDose; // by drug ID, NaN if unknown
+    private final int[] maxDailyDoseUnit;
+
+    public DosingValidator(DrugClassIndex drugClassIndex,
+            @Value("${validation.max-daily-doses:classpath:drugs/max-daily-doses.csv}") Resource dosesResource)
+            throws IOException {
+        this.drugClassIndex = drugClassIndex;
+        this.maxDailyDose = new double[drugClassIndex.drugCount()];
+        this.maxDailyDoseUnit = new int[drugClassIndex.drugCount()];
+        Arrays.fill(maxDailyDose, Double.NaN);
+
+        int loaded = 0;
+        for (String[] row : DrugClassIndex.readCsv(dosesResource, 3)) {
+            int drugId = drugClassIndex.drugIdForCode(row[0]);
+            int unit = parseUnit(row[2]);
+            if (drugId < 0 || unit == DoseSig.UNIT_UNKNOWN) {
+                logger.warn("Ignoring max daily dose entry for unknown drug or unit: {}", Arrays.toString(row));
+                continue;
+            }
+            maxDailyDose[drugId] = Double.parseDouble(row[1]);
+            maxDailyDoseUnit[drugId] = unit;
+            loaded++;
+        }
+        logger.info("Loaded max daily doses for {} drugs", loaded);
+    }
+
+    /**
+     * Adds a {@code DOSAGE} issue if a single dose or the daily total of the
+     * proposed prescription exceeds the drug's maximum daily dose. Sigs that
+     * cannot be interpreted (or are weight based) are skipped.
+     */
+    public void validate(ProposedPrescriptionDto proposed, List<ValidationIssueDto> issues) {
+        if (proposed.dosage() == null && proposed.frequency() == null) {
+            return;
+        }
+        int drugId = drugClassIndex.drugId(proposed.medicationName());
+        if (drugId < 0 || Double.isNaN(maxDailyDose[drugId])) {
+            return;
+        }
+
+        DoseSig sig = SigParser.parse(proposed.dosage(), proposed.frequency(), SIGS.get());
+        if (sig.weightBased() || sig.unit() != maxDailyDoseUnit[drugId]) {
+            return;
+        }
+
+        double max = maxDailyDose[drugId];
+        String unit = unitLabel(sig.unit());
+        double perDose = sig.perDoseAmount();
+        double daily = sig.dailyAmount();
+        if (perDose > max) {
+            issues.add(new ValidationIssueDto("DOSAGE", proposed.medicationName(),
+                    "Single dose of " + format(perDose) + " " + unit + " exceeds the maximum daily dose of "
+                            + format(max) + " " + unit + " for " + drugClassIndex.drugName(drugId)));
+        } else if (daily > max) {
+            issues.add(new ValidationIssueDto("DOSAGE", proposed.medicationName(),
+                    (sig.prn() ? "Up to " : "") + format(daily) + " " + unit
+                            + "/day exceeds the maximum daily dose of " + format(max) + " " + unit + " for "
+                            + drugClassIndex.drugName(drugId)));
+        }
+    }
+
+    private static int parseUnit(String unit) {
+        switch (unit.toLowerCase(Locale.ROOT)) {
+            case "mg":
+                return DoseSig.UNIT_MG;
+            case "ml":
+                return DoseSig.UNIT_ML;
+            case "iu":
+                return DoseSig.UNIT_IU;
+            default:
+                return DoseSig.UNIT_UNKNOWN;
+        }
+    }
+
+    private static String unitLabel(int unit) {
+        switch (unit) {
+            case DoseSig.UNIT_MG:
+                return "mg";
+            case DoseSig.UNIT_ML:
+                return "mL";
+            case DoseSig.UNIT_IU:
+                return "units";
+            default:
+                return "";
+        }
+    }
+
+    private static String format(double amount) {
+        return amount == Math.rint(amount) ? Long.toString((long) amount)
+                : String.format(Locale.ROOT, "%.2f", amount);
+    }
+}
@@ -0,0 +1,296 @@
+package com.hacktech.healthai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory ATC-style drug class hierarchy.
+ *
+ * Every known drug gets a dense integer ID and a precomputed bitset of all of
+ * its ancestor classes (anatomical group, therapeutic group, ..., substance).
+ * Class bits are ordered by depth, so the highest set bit of an intersection is
+ * always the most specific shared class. Checking two drugs for duplicate
+ * therapy is then a handful of bitwise ANDs instead of a tree walk.
+ */
+@Component
+public class DrugClassIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DrugClassIndex.class);
+
+    // ATC level prefixes: anatomical, therapeutic, pharmacological, chemical, substance
+    private static final int[] ATC_PREFIX_LENGTHS = { 1, 3, 4, 5, 7 };
+    private static final int SUBSTANCE_CODE_LENGTH = 7;
+
+    private final String[] classCodes;
+    private final String[] classNames;
+    private final long[] duplicateMask;
+    private final int words;
+
+    private final String[] drugNames;
+    private final String[] drugCodes;
+    private final long[][] drugBits;
+    private final Map<String, Integer> classIdsByCode;
+    private final Map<String, Integer> drugIdsByName;
+    private final Map<String, Integer> drugIdsByCode;
+
+    public DrugClassIndex(
+            @Value("${validation.drug-classes:classpath:drugs/atc-classes.csv}") Resource classesResource,
+            @Value("${validation.drug-names:classpath:drugs/atc-drugs.csv}") Resource drugsResource)
+            throws IOException {
+        // code -> {name, duplicate}
+        Map<String, String[]> classRows = new HashMap<>();
+        for (String[] row : readCsv(classesResource, 3)) {
+            classRows.put(row[0].toUpperCase(Locale.ROOT), new String[] { row[1], row[2] });
+        }
+
+        // Substance codes keep the first (generic) name listed for them
+        Map<String, String> substanceNames = new LinkedHashMap<>();
+        Map<String, String> codesByName = new LinkedHashMap<>();
+        for (String[] row : readCsv(drugsResource, 2)) {
+            String name = normalize(row[0]);
+            String code = row[1].toUpperCase(Locale.ROOT);
+            if (code.length() != SUBSTANCE_CODE_LENGTH) {
+                logger.warn("Ignoring drug '{}' with non-substance ATC code '{}'", row[0], code);
+                continue;
+            }
+            substanceNames.putIfAbsent(code, row[0]);
+            codesByName.put(name, code);
+        }
+        for (Map.Entry<String, String> substance : substanceNames.entrySet()) {
+            classRows.putIfAbsent(substance.getKey(), new String[] { substance.getValue(), "true" });
+        }
+
+        // Shallow classes first so that deeper classes always get higher bit indices
+        List<String> codes = new ArrayList<>(classRows.keySet());
+        codes.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+
+        this.classCodes = codes.toArray(new String[0]);
+        this.classNames = new String[classCodes.length];
+        this.words = (classCodes.length + 63) >>> 6;
+        this.duplicateMask = new long[words];
+        this.classIdsByCode = new HashMap<>();
+        for (int i = 0; i < classCodes.length; i++) {
+            String[] row = classRows.get(classCodes[i]);
+            classNames[i] = row[0];
+            classIdsByCode.put(classCodes[i], i);
+            if (Boolean.parseBoolean(row[1])) {
+                duplicateMask[i >>> 6] |= 1L << i;
+            }
+        }
+
+        this.drugCodes = substanceNames.keySet().toArray(new String[0]);
+        this.drugNames = substanceNames.values().toArray(new String[0]);
+        this.drugBits = new long[drugCodes.length][];
+        this.drugIdsByCode = new HashMap<>();
+        for (int id = 0; id < drugCodes.length; id++) {
+            long[] bits = new long[words];
+            for (int prefixLength : ATC_PREFIX_LENGTHS) {
+                Integer classId = classIdsByCode.get(drugCodes[id].substring(0, prefixLength));
+                if (classId != null) {
+                    bits[classId >>> 6] |= 1L << classId;
+                }
+            }
+            drugBits[id] = bits;
+            drugIdsByCode.put(drugCodes[id], id);
+        }
+
+        this.drugIdsByName = new HashMap<>();
+        for (Map.Entry<String, String> entry : codesByName.entrySet()) {
+            drugIdsByName.put(entry.getKey(), drugIdsByCode.get(entry.getValue()));
+        }
+
+        logger.info("Loaded drug class index: {} classes, {} substances, {} names",
+                classCodes.length, drugCodes.length, drugIdsByName.size());
+    }
+
+    /**
+     * Resolves a free-text medication name (e.g. "Sertraline 50mg") to a drug ID.
+     *
+     * @return the drug ID, or -1 if the medication is not in the index.
+     */
+    public int drugId(String medicationName) {
+        if (medicationName == null) {
+            return -1;
+        }
+        String name = normalize(medicationName);
+        Integer id = drugIdsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        // Drop strength/form suffixes such as "50mg tablet"
+        int cut = 0;
+        while (cut < name.length() && !Character.isDigit(name.charAt(cut))) {
+            cut++;
+        }
+        if (cut < name.length()) {
+            id = drugIdsByName.get(name.substring(0, cut).trim());
+            if (id != null) {
+                return id;
+            }
+        }
+        int space = name.indexOf(' ');
+        if (space > 0) {
+            id = drugIdsByName.get(name.substring(0, space));
+        }
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Resolves an ATC substance code (e.g. "N06AB06") to a drug ID.
+     *
+     * @return the drug ID, or -1 if the code is not in the index.
+     */
+    public int drugIdForCode(String atcCode) {
+        Integer id = drugIdsByCode.get(atcCode.toUpperCase(Locale.ROOT));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Resolves an ATC code at any level (e.g. "N06AB" or "N06AB06") to a class ID.
+     *
+     * @return the class ID, or -1 if the code is not in the index.
+     */
+    public int classIdForCode(String atcCode) {
+        Integer id = classIdsByCode.get(atcCode.trim().toUpperCase(Locale.ROOT));
+        return id != null ? id : -1;
+    }
+
+    public int drugCount() {
+        return drugCodes.length;
+    }
+
+    public String drugName(int drugId) {
+        return drugNames[drugId];
+    }
+
+    public String atcCode(int drugId) {
+        return drugCodes[drugId];
+    }
+
+    /**
+     * Returns the ancestor-class bitset of a drug. The array is shared and must
+     * not be modified by callers.
+     */
+    public long[] classBits(int drugId) {
+        return drugBits[drugId];
+    }
+
+    /** Allocates an empty bitset sized for this index (e.g. for unions). */
+    public long[] newBitset() {
+        return new long[words];
+    }
+
+    /** ORs {@code source} into {@code target}. */
+    public void union(long[] target, long[] source) {
+        for (int i = 0; i < words; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    /** Sets a single class bit in {@code target}. */
+    public void addClass(long[] target, int classId) {
+        target[classId >>> 6] |= 1L << classId;
+    }
+
+    /** Whether the two bitsets share any class at all. */
+    public boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < words; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether the two bitsets share any class that counts as duplicate therapy. */
+    public boolean sharesDuplicateClass(long[] a, long[] b) {
+        for (int i = 0; i < words; i++) {
+            if ((a[i] & b[i] & duplicateMask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the most specific duplicate-therapy class shared by two bitsets.
+     *
+     * @return the class ID, or -1 if the bitsets share no such class.
+     */
+    public int sharedDuplicateClass(long[] a, long[] b) {
+        for (int i = words - 1; i >= 0; i--) {
+            long shared = a[i] & b[i] & duplicateMask[i];
+            if (shared != 0) {
+                return (i << 6) + 63 - Long.numberOfLeadingZeros(shared);
+            }
+        }
+        return -1;
+    }
+
+    public String classCode(int classId) {
+        return classCodes[classId];
+    }
+
+    public String className(int classId) {
+        return classNames[classId];
+    }
+
+    /** Whether the class is a single substance rather than a group of drugs. */
+    public boolean isSubstanceClass(int classId) {
+        return classCodes[classId].length() == SUBSTANCE_CODE_LENGTH;
+    }
+
+    private static String normalize(String medicationName) {
+        return medicationName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Reads a comma-separated resource, skipping blank lines and '#' comments
+    static List<String[]> readCsv(Resource resource, int columns) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                // Only the last (columns - 1) commas are separators; names may contain commas
+                String[] row = new String[columns];
+                int end = line.length();
+                for (int col = columns - 1; col > 0; col--) {
+                    int comma = line.lastIndexOf(',', end - 1);
+                    if (comma < 0) {
+                        throw new IOException("Malformed line in " + resource.getDescription() + ": " + line);
+                    }
+                    row[col] = line.substring(comma + 1, end).trim();
+                    end = comma;
+                }
+                row[0] = line.substring(0, end).trim();
+                if (!seen.add(row[0].toLowerCase(Locale.ROOT))) {
+                    logger.warn("Duplicate entry '{}' in {}", row[0], resource.getDescription());
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hacktech.healthai.service;
+
+/**
+ * The LLM provider could not be reached or returned a response we cannot use.
+ * Controllers map this to 502 Bad Gateway.
+ */
+public class LlmProviderException extends RuntimeException {
+
+    public LlmProviderException(String message) {
+        super(message);
+    }
+
+    public LlmProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -9,14 +9,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 // Google Cloud Vision Imports
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.cloud.vision.v1.AnnotateImageRequest;
 import com.google.cloud.vision.v1.AnnotateImageResponse;
 import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
 import com.google.cloud.vision.v1.Feature;
 import com.google.cloud.vision.v1.Image;
 import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import com.google.cloud.vision.v1.ImageAnnotatorSettings;
 import com.google.cloud.vision.v1.ImageSource;
 import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannelBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -30,12 +34,24 @@ public class OcrServiceImpl implements OcrService {
     private final boolean visionApiDisabled;
 
     @Autowired
-    public OcrServiceImpl(@Value("${DISABLE_VISION_API:false}") boolean disableVisionApi) throws IOException {
+    public OcrServiceImpl(@Value("${DISABLE_VISION_API:false}") boolean disableVisionApi,
+            @Value("${vision.endpoint:}") String visionEndpoint) throws IOException {
         this.visionApiDisabled = disableVisionApi;
 
         if (visionApiDisabled) {
             log.info("Google Cloud Vision API is disabled via configuration. OCR service will return mock responses.");
             this.visionClient = null;
+        } else if (!visionEndpoint.isBlank()) {
+            // Plaintext, unauthenticated channel to a local Vision stub (load tests only)
+            ImageAnnotatorSettings settings = ImageAnnotatorSettings.newBuilder()
+                    .setCredentialsProvider(NoCredentialsProvider.create())
+                    .setTransportChannelProvider(InstantiatingGrpcChannelProvider.newBuilder()
+                            .setEndpoint(visionEndpoint)
+                            .setChannelConfigurator(ManagedChannelBuilder::usePlaintext)
+                            .build())
+                    .build();
+            this.visionClient = ImageAnnotatorClient.create(settings);
+            log.info("OcrServiceImpl initialized with Google Cloud Vision client for endpoint {}.", visionEndpoint);
         } else {
             // Initialize the client using Application Default Credentials (ADC)
             // Ensure you have authenticated via `gcloud auth application-default login`
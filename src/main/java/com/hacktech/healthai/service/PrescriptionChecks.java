@@ -0,0 +1,129 @@
+package com.hacktech.healthai.service;
+
+import com.hacktech.healthai.dto.CurrentPrescriptionDto;
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The individual prescription checks, split by what they depend on so that
+ * callers can recompute only what an edit affects:
+ * <ul>
+ * <li>per-drug checks (allergy, dose/frequency) depend on one proposed drug;</li>
+ * <li>current-medication checks depend on one proposed drug and the patient's
+ * current meds;</li>
+ * <li>pairwise checks depend on two proposed drugs.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class PrescriptionChecks {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrescriptionChecks.class);
+
+    private final DrugClassIndex drugClassIndex;
+    private final DosingValidator dosingValidator;
+
+    /** Resolves a medication name to its drug class index ID (-1 if unknown). */
+    public int drugId(String medicationName) {
+        return drugClassIndex.drugId(medicationName);
+    }
+
+    /**
+     * Resolves the patient's current meds once; the class union lets unrelated
+     * proposals skip the per-med scan.
+     */
+    public CurrentMedications resolveCurrent(List<CurrentPrescriptionDto> currentPrescriptions) {
+        List<ResolvedDrug> drugs = new ArrayList<>();
+        long[] union = drugClassIndex.newBitset();
+        for (CurrentPrescriptionDto current : currentPrescriptions) {
+            int drugId = drugClassIndex.drugId(current.medicationName());
+            if (drugId >= 0) {
+                drugs.add(new ResolvedDrug(current.medicationName(), drugId));
+                drugClassIndex.union(union, drugClassIndex.classBits(drugId));
+            }
+        }
+        return new CurrentMedications(drugs, union);
+    }
+
+    /** Allergy and dose/frequency checks for a single proposed drug. */
+    public void checkDrug(ProposedPrescriptionDto proposed, List<String> allergies, String patientIdForLogging,
+            List<ValidationIssueDto> issues) {
+        // Allergy Check (Simple Example: exact match on name)
+        if (allergies.stream().anyMatch(allergy -> allergy.equalsIgnoreCase(proposed.medicationName()))) {
+            logger.warn("Potential Allergy for patient {}: {}", patientIdForLogging, proposed.medicationName());
+            issues.add(new ValidationIssueDto("ALLERGY", proposed.medicationName(),
+                    "Patient reported allergy to " + proposed.medicationName()));
+        }
+
+        // Dose/Frequency Check against the max daily dose table
+        dosingValidator.validate(proposed, issues);
+    }
+
+    /**
+     * Flags a proposed drug that shares a duplicate-therapy class with one of
+     * the patient's current meds.
+     */
+    public void checkAgainstCurrent(ProposedPrescriptionDto proposed, int drugId, CurrentMedications current,
+            String patientIdForLogging, List<ValidationIssueDto> issues) {
+        if (drugId < 0) {
+            return;
+        }
+        long[] bits = drugClassIndex.classBits(drugId);
+        if (!drugClassIndex.sharesDuplicateClass(bits, current.union())) {
+            return;
+        }
+        for (ResolvedDrug drug : current.drugs()) {
+            int classId = drugClassIndex.sharedDuplicateClass(bits, drugClassIndex.classBits(drug.drugId()));
+            if (classId >= 0) {
+                logger.warn("Potential Duplicate for patient {}: {} and current {}", patientIdForLogging,
+                        proposed.medicationName(), drug.medicationName());
+                issues.add(duplicateIssue(proposed.medicationName(), drug.medicationName(),
+                        "Patient is already prescribed ", classId));
+            }
+        }
+    }
+
+    /**
+     * Checks a proposed drug against an earlier entry of the same proposed list.
+     *
+     * @return the issue attributed to {@code proposed}, or null if the pair is fine.
+     */
+    public ValidationIssueDto checkPair(ProposedPrescriptionDto proposed, int drugId,
+            ProposedPrescriptionDto earlier, int earlierDrugId, String patientIdForLogging) {
+        if (drugId < 0 || earlierDrugId < 0) {
+            return null;
+        }
+        int classId = drugClassIndex.sharedDuplicateClass(drugClassIndex.classBits(drugId),
+                drugClassIndex.classBits(earlierDrugId));
+        if (classId < 0) {
+            return null;
+        }
+        logger.warn("Potential Duplicate for patient {}: {} and proposed {}", patientIdForLogging,
+                proposed.medicationName(), earlier.medicationName());
+        return duplicateIssue(proposed.medicationName(), earlier.medicationName(),
+                "Also proposed in this prescription: ", classId);
+    }
+
+    private ValidationIssueDto duplicateIssue(String medication, String otherMedication, String prefix,
+            int classId) {
+        String shared = drugClassIndex.isSubstanceClass(classId)
+                ? "same active ingredient: " + drugClassIndex.className(classId)
+                : "shared class " + drugClassIndex.classCode(classId) + " " + drugClassIndex.className(classId);
+        return new ValidationIssueDto("DUPLICATE", medication, prefix + otherMedication + " (" + shared + ")");
+    }
+
+    // A medication name paired with its resolved drug class index ID
+    public record ResolvedDrug(String medicationName, int drugId) {
+    }
+
+    // The patient's resolved current meds plus the union of their class bitsets
+    public record CurrentMedications(List<ResolvedDrug> drugs, long[] union) {
+    }
+}
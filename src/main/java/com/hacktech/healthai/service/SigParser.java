@@ -0,0 +1,431 @@
+package com.hacktech.healthai.service;
+
+/**
+ * Single-pass parser for prescription sigs such as "500 mg", "1 tab BID",
+ * "q6h prn", "b.i.d. x 10 days" or "2 capsules three times a day".
+ *
+ * The parser never allocates: it scans the input by index, matches keywords
+ * in place and writes into a caller-supplied {@link DoseSig}. Dosage and
+ * frequency strings can be fed one after the other into the same holder,
+ * followed by {@link #finish(DoseSig)}.
+ *
+ * The first frequency found wins; later words can add a course length
+ * ("x 10 days", "for 2 weeks") but never change the doses per day.
+ */
+public final class SigParser {
+
+    // Keyword kinds
+    private static final int MASS = 1;       // value = factor to mg
+    private static final int VOLUME = 2;     // value = factor to mL
+    private static final int IU = 3;
+    private static final int FORM = 4;       // tab, cap, puff, ...
+    private static final int PER_DAY = 5;    // value = doses per day (daily, bid, tid, ...)
+    private static final int TIMES = 6;      // value = times (once, twice, ...)
+    private static final int NUMBER = 7;     // value = number (one, two, ...)
+    private static final int DAY = 8;        // closes "N times a day" / "every N days"
+    private static final int WEEK = 9;       // closes "N times a week"
+    private static final int HOUR = 10;      // closes "every N hours" / "q N h"
+    private static final int EVERY = 11;     // every, q
+    private static final int X = 12;         // "x3", "3x", "3 times"
+    private static final int PRN = 13;
+    private static final int OTHER_DAY = 14; // every other day
+    private static final int KG = 15;
+
+    private static final Keyword[] KEYWORDS = {
+            new Keyword("mg", MASS, 1),
+            new Keyword("milligram", MASS, 1),
+            new Keyword("milligrams", MASS, 1),
+            new Keyword("g", MASS, 1000),
+            new Keyword("gm", MASS, 1000),
+            new Keyword("gram", MASS, 1000),
+            new Keyword("grams", MASS, 1000),
+            new Keyword("mcg", MASS, 0.001),
+            new Keyword("ug", MASS, 0.001),
+            new Keyword("\u00b5g", MASS, 0.001),
+            new Keyword("microgram", MASS, 0.001),
+            new Keyword("micrograms", MASS, 0.001),
+            new Keyword("ml", VOLUME, 1),
+            new Keyword("cc", VOLUME, 1),
+            new Keyword("l", VOLUME, 1000),
+            new Keyword("iu", IU, 1),
+            new Keyword("unit", IU, 1),
+            new Keyword("units", IU, 1),
+            new Keyword("tab", FORM, 1),
+            new Keyword("tabs", FORM, 1),
+            new Keyword("tablet", FORM, 1),
+            new Keyword("tablets", FORM, 1),
+            new Keyword("cap", FORM, 1),
+            new Keyword("caps", FORM, 1),
+            new Keyword("capsule", FORM, 1),
+            new Keyword("capsules", FORM, 1),
+            new Keyword("pill", FORM, 1),
+            new Keyword("pills", FORM, 1),
+            new Keyword("puff", FORM, 1),
+            new Keyword("puffs", FORM, 1),
+            new Keyword("drop", FORM, 1),
+            new Keyword("drops", FORM, 1),
+            new Keyword("gtt", FORM, 1),
+            new Keyword("gtts", FORM, 1),
+            new Keyword("spray", FORM, 1),
+            new Keyword("sprays", FORM, 1),
+            new Keyword("patch", FORM, 1),
+            new Keyword("patches", FORM, 1),
+            new Keyword("qd", PER_DAY, 1),
+            new Keyword("od", PER_DAY, 1),
+            new Keyword("daily", PER_DAY, 1),
+            new Keyword("nightly", PER_DAY, 1),
+            new Keyword("qam", PER_DAY, 1),
+            new Keyword("qpm", PER_DAY, 1),
+            new Keyword("qhs", PER_DAY, 1),
+            new Keyword("hs", PER_DAY, 1),
+            new Keyword("bid", PER_DAY, 2),
+            new Keyword("tid", PER_DAY, 3),
+            new Keyword("qid", PER_DAY, 4),
+            new Keyword("qod", PER_DAY, 0.5),
+            new Keyword("once", TIMES, 1),
+            new Keyword("twice", TIMES, 2),
+            new Keyword("thrice", TIMES, 3),
+            new Keyword("one", NUMBER, 1),
+            new Keyword("two", NUMBER, 2),
+            new Keyword("three", NUMBER, 3),
+            new Keyword("four", NUMBER, 4),
+            new Keyword("d", DAY, 0),
+            new Keyword("day", DAY, 0),
+            new Keyword("days", DAY, 0),
+            new Keyword("week", WEEK, 0),
+            new Keyword("weeks", WEEK, 0),
+            new Keyword("weekly", WEEK, 0),
+            new Keyword("h", HOUR, 0),
+            new Keyword("hr", HOUR, 0),
+            new Keyword("hrs", HOUR, 0),
+            new Keyword("hour", HOUR, 0),
+            new Keyword("hours", HOUR, 0),
+            new Keyword("every", EVERY, 0),
+            new Keyword("q", EVERY, 0),
+            new Keyword("x", X, 0),
+            new Keyword("times", X, 0),
+            new Keyword("prn", PRN, 0),
+            new Keyword("needed", PRN, 0),
+            new Keyword("other", OTHER_DAY, 0),
+            new Keyword("kg", KG, 0),
+    };
+
+    private SigParser() {
+    }
+
+    /** Parses dosage and frequency into a reset holder and finishes it. */
+    public static DoseSig parse(String dosage, String frequency, DoseSig sig) {
+        sig.reset();
+        parse(dosage, sig);
+        parse(frequency, sig);
+        return finish(sig);
+    }
+
+    /**
+     * Feeds one string into the holder. May be called several times before
+     * {@link #finish(DoseSig)}; null input is ignored.
+     */
+    public static DoseSig parse(String text, DoseSig sig) {
+        if (text == null) {
+            return sig;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isDigit(c) || (c == '.' && i + 1 < length && isDigit(text.charAt(i + 1)))) {
+                i = readNumber(text, i, sig);
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < length && Character.isLetter(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1 && isDottedLetter(text, i)) {
+                    // Dotted abbreviation such as "q.d." or "b.i.d.": single letters separated by dots
+                    while (isDottedLetter(text, i)) {
+                        i += 2;
+                    }
+                    onWord(text, start, i, true, sig);
+                } else {
+                    onWord(text, start, i, false, sig);
+                }
+            } else {
+                i++;
+            }
+        }
+        return sig;
+    }
+
+    /** Resolves state left open at the end of input, e.g. a bare "twice". */
+    public static DoseSig finish(DoseSig sig) {
+        if (Double.isNaN(sig.dosesPerDay) && !Double.isNaN(sig.timesPending)) {
+            sig.dosesPerDay = sig.timesPending;
+        }
+        sig.timesPending = Double.NaN;
+        sig.timesAfterX = false;
+        sig.pendingLow = Double.NaN;
+        sig.pendingHigh = Double.NaN;
+        sig.every = false;
+        sig.expectTimes = false;
+        return sig;
+    }
+
+    // A '.' at i followed by exactly one letter, e.g. the ".d" of "q.d."
+    private static boolean isDottedLetter(String text, int i) {
+        return i + 1 < text.length() && text.charAt(i) == '.' && Character.isLetter(text.charAt(i + 1))
+                && (i + 2 == text.length() || !Character.isLetter(text.charAt(i + 2)));
+    }
+
+    private static int readNumber(String text, int i, DoseSig sig) {
+        int length = text.length();
+        int end = scanDecimal(text, i);
+        double low = parseDecimal(text, i, end);
+        i = end;
+        double high = low;
+        if (i + 1 < length && isDigit(text.charAt(i + 1))) {
+            char separator = text.charAt(i);
+            if (separator == '/') {
+                // Fraction, e.g. "1/2 tab"
+                int denominator = 0;
+                i++;
+                while (i < length && isDigit(text.charAt(i))) {
+                    denominator = denominator * 10 + (text.charAt(i++) - '0');
+                }
+                if (denominator > 0) {
+                    low /= denominator;
+                    high = low;
+                }
+            } else if (separator == '-') {
+                // Range, e.g. "1-2 tabs", "1-1.5 mg" or "q4-6h"
+                end = scanDecimal(text, i + 1);
+                high = parseDecimal(text, i + 1, end);
+                i = end;
+                if (high < low) {
+                    // A reversed range is a typo we cannot interpret; drop the number
+                    return i;
+                }
+            }
+        }
+        onNumber(low, high, sig);
+        return i;
+    }
+
+    // End of the digits and optional decimal part starting at i
+    private static int scanDecimal(String text, int i) {
+        int length = text.length();
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i + 1 < length && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+            i++;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static double parseDecimal(String text, int start, int end) {
+        double value = 0;
+        int i = start;
+        while (i < end && text.charAt(i) != '.') {
+            value = value * 10 + (text.charAt(i++) - '0');
+        }
+        double scale = 0.1;
+        for (i++; i < end; i++) {
+            value += (text.charAt(i) - '0') * scale;
+            scale /= 10;
+        }
+        return value;
+    }
+
+    private static void onNumber(double low, double high, DoseSig sig) {
+        if (sig.expectTimes) {
+            // "x3 daily", or a duration in "x 10 days"
+            sig.timesPending = high;
+            sig.timesAfterX = true;
+            sig.expectTimes = false;
+        } else {
+            sig.pendingLow = low;
+            sig.pendingHigh = high;
+        }
+    }
+
+    private static void onWord(String text, int start, int end, boolean dotted, DoseSig sig) {
+        Keyword keyword = lookup(text, start, end, dotted);
+        if (keyword == null) {
+            return;
+        }
+        boolean pending = !Double.isNaN(sig.pendingHigh);
+        switch (keyword.kind) {
+            case MASS:
+                if (pending) {
+                    setStrength(sig, sig.pendingHigh * keyword.value, DoseSig.UNIT_MG);
+                }
+                break;
+            case VOLUME:
+                if (pending) {
+                    setStrength(sig, sig.pendingHigh * keyword.value, DoseSig.UNIT_ML);
+                }
+                break;
+            case IU:
+                if (pending) {
+                    setStrength(sig, sig.pendingHigh, DoseSig.UNIT_IU);
+                }
+                break;
+            case FORM:
+                if (pending) {
+                    sig.count = sig.pendingHigh;
+                    clearPending(sig);
+                }
+                break;
+            case PER_DAY:
+                // "twice daily" multiplies; a bare "daily" or "bid" stands alone
+                setDosesPerDay(sig, Double.isNaN(sig.timesPending) ? keyword.value : sig.timesPending * keyword.value);
+                clearTimes(sig);
+                sig.every = false;
+                break;
+            case TIMES:
+                sig.timesPending = keyword.value;
+                sig.timesAfterX = false;
+                break;
+            case NUMBER:
+                onNumber(keyword.value, keyword.value, sig);
+                break;
+            case DAY:
+                if (!Double.isNaN(sig.timesPending) && sig.timesAfterX) {
+                    // "x 10 days"
+                    sig.courseDays = sig.timesPending;
+                } else if (!Double.isNaN(sig.timesPending)) {
+                    // "three times a day"
+                    setDosesPerDay(sig, sig.timesPending);
+                } else if (sig.every) {
+                    // "every day" / "every 2 days"
+                    setDosesPerDay(sig, pending && sig.pendingLow > 0 ? 1 / sig.pendingLow : 1);
+                } else if (pending) {
+                    // "for 7 days"
+                    sig.courseDays = sig.pendingHigh;
+                } else {
+                    // "1 tab a day"
+                    setDosesPerDay(sig, 1);
+                }
+                clearTimes(sig);
+                clearPending(sig);
+                sig.every = false;
+                break;
+            case WEEK:
+                if (!Double.isNaN(sig.timesPending) && sig.timesAfterX) {
+                    // "x 2 weeks"
+                    sig.courseDays = sig.timesPending * 7;
+                } else if (!Double.isNaN(sig.timesPending)) {
+                    // "twice a week"
+                    setDosesPerDay(sig, sig.timesPending / 7);
+                } else if (sig.every) {
+                    // "every week" / "every 2 weeks"
+                    setDosesPerDay(sig, pending && sig.pendingLow > 0 ? 1 / (7 * sig.pendingLow) : 1.0 / 7);
+                } else if (pending) {
+                    // "for 2 weeks"
+                    sig.courseDays = sig.pendingHigh * 7;
+                } else {
+                    // "weekly"
+                    setDosesPerDay(sig, 1.0 / 7);
+                }
+                clearTimes(sig);
+                clearPending(sig);
+                sig.every = false;
+                break;
+            case HOUR:
+                if (pending && sig.pendingLow > 0) {
+                    // Shortest interval gives the highest possible daily amount
+                    setDosesPerDay(sig, 24 / sig.pendingLow);
+                    clearPending(sig);
+                }
+                sig.every = false;
+                break;
+            case EVERY:
+                sig.every = true;
+                break;
+            case X:
+                if (pending) {
+                    // "3x daily", "3 times a day"
+                    sig.timesPending = sig.pendingHigh;
+                    sig.timesAfterX = false;
+                    clearPending(sig);
+                } else {
+                    sig.expectTimes = true;
+                }
+                break;
+            case PRN:
+                sig.prn = true;
+                break;
+            case OTHER_DAY:
+                if (sig.every) {
+                    setDosesPerDay(sig, 0.5);
+                    sig.every = false;
+                }
+                break;
+            case KG:
+                sig.weightBased = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void setStrength(DoseSig sig, double amount, int unit) {
+        sig.strength = amount;
+        sig.unit = unit;
+        clearPending(sig);
+    }
+
+    // The first frequency in the sig is kept
+    private static void setDosesPerDay(DoseSig sig, double dosesPerDay) {
+        if (Double.isNaN(sig.dosesPerDay)) {
+            sig.dosesPerDay = dosesPerDay;
+        }
+    }
+
+    private static void clearTimes(DoseSig sig) {
+        sig.timesPending = Double.NaN;
+        sig.timesAfterX = false;
+    }
+
+    private static void clearPending(DoseSig sig) {
+        sig.pendingLow = Double.NaN;
+        sig.pendingHigh = Double.NaN;
+    }
+
+    private static Keyword lookup(String text, int start, int end, boolean dotted) {
+        if (!dotted) {
+            int length = end - start;
+            for (Keyword keyword : KEYWORDS) {
+                if (keyword.word.length() == length && text.regionMatches(true, start, keyword.word, 0, length)) {
+                    return keyword;
+                }
+            }
+            return null;
+        }
+        // Letters sit at every other position: "b.i.d" matches "bid"
+        int length = (end - start + 1) / 2;
+        for (Keyword keyword : KEYWORDS) {
+            if (keyword.word.length() != length) {
+                continue;
+            }
+            int k = 0;
+            while (k < length && Character.toLowerCase(text.charAt(start + 2 * k)) == keyword.word.charAt(k)) {
+                k++;
+            }
+            if (k == length) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private record Keyword(String word, int kind, double value) {
+    }
+}
@@ -1,8 +1,15 @@
 package com.hacktech.healthai.service;
 
 import com.hacktech.healthai.dto.PrescriptionValidationRequest;
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
 import com.hacktech.healthai.dto.ValidationResponse;
 
 public interface ValidationService {
     ValidationResponse validatePrescriptions(PrescriptionValidationRequest request);
+
+    /**
+     * Runs only the dose/frequency check for a single prescription. Cheap enough
+     * to call on every edit of the dosage or frequency field.
+     */
+    ValidationResponse validateDosage(ProposedPrescriptionDto proposed);
 }
\ No newline at end of file
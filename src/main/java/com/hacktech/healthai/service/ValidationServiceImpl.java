@@ -19,6 +19,9 @@ public class ValidationServiceImpl implements ValidationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ValidationServiceImpl.class);
 
+    private final PrescriptionChecks prescriptionChecks;
+    private final DosingValidator dosingValidator;
+
     @Override
     public ValidationResponse validatePrescriptions(PrescriptionValidationRequest request) {
         List<ValidationIssueDto> issues = new ArrayList<>();
@@ -38,23 +41,27 @@ public class ValidationServiceImpl implements ValidationService {
                     ? request.currentPrescriptions()
                     : new ArrayList<>();
 
+            PrescriptionChecks.CurrentMedications current = prescriptionChecks.resolveCurrent(currentPrescriptions);
+            List<ProposedPrescriptionDto> proposedSoFar = new ArrayList<>();
+            List<Integer> proposedDrugIds = new ArrayList<>();
+
             // --- Perform Validations using provided data ---
             for (ProposedPrescriptionDto proposed : request.proposedPrescriptions()) {
-                // a) Allergy Check (Simple Example: exact match on name)
-                if (allergies.stream().anyMatch(allergy -> allergy.equalsIgnoreCase(proposed.medicationName()))) {
-                    logger.warn("Potential Allergy for patient {}: {}", patientIdForLogging, proposed.medicationName());
-                    issues.add(new ValidationIssueDto("ALLERGY", proposed.medicationName(),
-                            "Patient reported allergy to " + proposed.medicationName()));
-                }
+                // a) Allergy and Dose/Frequency Checks
+                prescriptionChecks.checkDrug(proposed, allergies, patientIdForLogging, issues);
 
-                // b) Duplicate Therapy Check (Simple Example: exact match on name)
-                // if (currentPrescriptions.stream().anyMatch(current -> current.medicationName() != null &&
-                //         current.medicationName().equalsIgnoreCase(proposed.medicationName()))) {
-                //     logger.warn("Potential Duplicate for patient {}: {}", patientIdForLogging,
-                //             proposed.medicationName());
-                //     issues.add(new ValidationIssueDto("DUPLICATE", proposed.medicationName(),
-                //             "Patient is already prescribed " + proposed.medicationName()));
-                // }
+                // b) Duplicate Therapy Check (class level, e.g. two SSRIs or two ACE inhibitors)
+                int drugId = prescriptionChecks.drugId(proposed.medicationName());
+                prescriptionChecks.checkAgainstCurrent(proposed, drugId, current, patientIdForLogging, issues);
+                for (int i = 0; i < proposedSoFar.size(); i++) {
+                    ValidationIssueDto issue = prescriptionChecks.checkPair(proposed, drugId, proposedSoFar.get(i),
+                            proposedDrugIds.get(i), patientIdForLogging);
+                    if (issue != null) {
+                        issues.add(issue);
+                    }
+                }
+                proposedSoFar.add(proposed);
+                proposedDrugIds.add(drugId);
 
                 // c) Interaction Check (Placeholder - requires external data/library)
                 // TODO: Implement drug interaction checks using provided currentPrescriptions
@@ -71,4 +78,11 @@ public class ValidationServiceImpl implements ValidationService {
         logger.info("Validation complete for patient {}. Found {} issues.", patientIdForLogging, issues.size());
         return new ValidationResponse(issues);
     }
+
+    @Override
+    public ValidationResponse validateDosage(ProposedPrescriptionDto proposed) {
+        List<ValidationIssueDto> issues = new ArrayList<>();
+        dosingValidator.validate(proposed, issues);
+        return new ValidationResponse(issues);
+    }
 }
\ No newline at end of file
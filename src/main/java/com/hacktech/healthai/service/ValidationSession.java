@@ -0,0 +1,125 @@
+package com.hacktech.healthai.service;
+
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Last validated state of a clinician review session.
+ *
+ * Each proposed prescription is a {@link Slot} caching its own issues (per-drug
+ * and against current meds) and its pairwise issues with every earlier slot,
+ * keyed by the earlier slot's sequence number. Slots are only ever appended or
+ * edited in place, so sequence order always equals list order and the cached
+ * issues can be concatenated into the same response a full validation gives.
+ *
+ * Not thread-safe; callers synchronize on the session.
+ */
+public class ValidationSession {
+
+    private final String patientId;
+    private final String clinicianId;
+    private final String patientIdForLogging;
+    private final List<String> allergies;
+    private final PrescriptionChecks.CurrentMedications current;
+    private final List<Slot> slots = new ArrayList<>();
+    private long nextSeq;
+
+    public ValidationSession(String patientId, String clinicianId, List<String> allergies,
+            PrescriptionChecks.CurrentMedications current) {
+        this.patientId = patientId;
+        this.clinicianId = clinicianId;
+        this.patientIdForLogging = patientId != null ? patientId : "Unknown";
+        this.allergies = allergies;
+        this.current = current;
+    }
+
+    /** Patient the session was started for, as sent by the client (may be null). */
+    public String patientId() {
+        return patientId;
+    }
+
+    /** Clinician who started the session, as sent by the client (may be null). */
+    public String clinicianId() {
+        return clinicianId;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /** Appends a prescription: one per-drug check plus one pair check per existing slot. */
+    public void add(ProposedPrescriptionDto prescription, PrescriptionChecks checks) {
+        Slot slot = new Slot(nextSeq++);
+        evaluate(slot, prescription, checks);
+        for (Slot earlier : slots) {
+            putPair(slot, earlier, checks);
+        }
+        slots.add(slot);
+    }
+
+    /** Removes a prescription and drops every cached pair that involved it. */
+    public void remove(int index) {
+        Slot removed = slots.remove(index);
+        for (int i = index; i < slots.size(); i++) {
+            slots.get(i).pairIssues.remove(removed.seq);
+        }
+    }
+
+    /** Replaces a prescription in place, recomputing only its own checks and pairs. */
+    public void change(int index, ProposedPrescriptionDto prescription, PrescriptionChecks checks) {
+        Slot slot = slots.get(index);
+        evaluate(slot, prescription, checks);
+        slot.pairIssues.clear();
+        for (int i = 0; i < index; i++) {
+            putPair(slot, slots.get(i), checks);
+        }
+        for (int i = index + 1; i < slots.size(); i++) {
+            Slot later = slots.get(i);
+            later.pairIssues.remove(slot.seq);
+            putPair(later, slot, checks);
+        }
+    }
+
+    /** Assembles the cached issues in proposed-list order. */
+    public List<ValidationIssueDto> issues() {
+        List<ValidationIssueDto> issues = new ArrayList<>();
+        for (Slot slot : slots) {
+            issues.addAll(slot.ownIssues);
+            issues.addAll(slot.pairIssues.values());
+        }
+        return issues;
+    }
+
+    private void evaluate(Slot slot, ProposedPrescriptionDto prescription, PrescriptionChecks checks) {
+        slot.prescription = prescription;
+        slot.drugId = checks.drugId(prescription.medicationName());
+        slot.ownIssues.clear();
+        checks.checkDrug(prescription, allergies, patientIdForLogging, slot.ownIssues);
+        checks.checkAgainstCurrent(prescription, slot.drugId, current, patientIdForLogging, slot.ownIssues);
+    }
+
+    private void putPair(Slot later, Slot earlier, PrescriptionChecks checks) {
+        ValidationIssueDto issue = checks.checkPair(later.prescription, later.drugId, earlier.prescription,
+                earlier.drugId, patientIdForLogging);
+        if (issue != null) {
+            later.pairIssues.put(earlier.seq, issue);
+        }
+    }
+
+    private static final class Slot {
+        final long seq;
+        ProposedPrescriptionDto prescription;
+        int drugId;
+        final List<ValidationIssueDto> ownIssues = new ArrayList<>();
+        // Issues with earlier slots, ordered by their sequence number
+        final TreeMap<Long, ValidationIssueDto> pairIssues = new TreeMap<>();
+
+        Slot(long seq) {
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hacktech.healthai.service;
+
+import com.hacktech.healthai.dto.PrescriptionChangeDto;
+import com.hacktech.healthai.dto.PrescriptionValidationRequest;
+import com.hacktech.healthai.dto.ValidationResponse;
+
+import java.util.Optional;
+
+public interface ValidationSessionService {
+
+    /** Results of an edit, with the patient and clinician the session was started for. */
+    record Update(String patientId, String clinicianId, ValidationResponse response) {
+    }
+
+    /**
+     * Validates the full request and keeps the result as the state of the given
+     * review session, replacing any previous state.
+     *
+     * @param sessionId Client-chosen ID of the review session.
+     * @param request   The full validation request.
+     * @return The validation results for the whole proposed list.
+     */
+    ValidationResponse startSession(String sessionId, PrescriptionValidationRequest request);
+
+    /**
+     * Applies one edit to the session's proposed list, recomputing only the
+     * checks the edit affects.
+     *
+     * @param sessionId The review session.
+     * @param change    The edit to apply.
+     * @return The updated validation results, or empty if the session is unknown
+     *         or has expired (the client should start it again).
+     * @throws IllegalArgumentException If the change is malformed or its index is
+     *                                  out of range.
+     */
+    Optional<Update> applyChange(String sessionId, PrescriptionChangeDto change);
+
+    /**
+     * Discards the state of a review session.
+     */
+    void endSession(String sessionId);
+}
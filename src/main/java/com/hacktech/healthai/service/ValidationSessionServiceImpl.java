@@ -0,0 +1,96 @@
+package com.hacktech.healthai.service;
+
+import com.hacktech.healthai.dto.PrescriptionChangeDto;
+import com.hacktech.healthai.dto.PrescriptionValidationRequest;
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor // Lombok annotation for constructor injection
+public class ValidationSessionServiceImpl implements ValidationSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidationSessionServiceImpl.class);
+
+    private final PrescriptionChecks prescriptionChecks;
+    private final ValidationSessionStore sessionStore;
+
+    @Override
+    public ValidationResponse startSession(String sessionId, PrescriptionValidationRequest request) {
+        String patientIdForLogging = request.patientId() != null ? request.patientId() : "Unknown";
+        List<String> allergies = request.patientAllergies() != null ? request.patientAllergies()
+                : new ArrayList<>();
+        ValidationSession session = new ValidationSession(request.patientId(), request.clinicianId(), allergies,
+                prescriptionChecks.resolveCurrent(
+                        request.currentPrescriptions() != null ? request.currentPrescriptions() : new ArrayList<>()));
+        if (request.proposedPrescriptions() != null) {
+            for (ProposedPrescriptionDto proposed : request.proposedPrescriptions()) {
+                session.add(proposed, prescriptionChecks);
+            }
+        }
+        sessionStore.put(sessionId, session);
+
+        ValidationResponse response = new ValidationResponse(session.issues());
+        logger.info("Started validation session {} for patient {}. Found {} issues.", sessionId,
+                patientIdForLogging, response.validationIssues().size());
+        return response;
+    }
+
+    @Override
+    public Optional<Update> applyChange(String sessionId, PrescriptionChangeDto change) {
+        ValidationSession session = sessionStore.get(sessionId);
+        if (session == null) {
+            logger.debug("Validation session {} not found or expired", sessionId);
+            return Optional.empty();
+        }
+        if (change == null || change.op() == null) {
+            throw new IllegalArgumentException("Change operation is required.");
+        }
+
+        synchronized (session) {
+            switch (change.op()) {
+                case ADD:
+                    session.add(requirePrescription(change), prescriptionChecks);
+                    break;
+                case REMOVE:
+                    session.remove(requireIndex(change, session));
+                    break;
+                case CHANGE:
+                    session.change(requireIndex(change, session), requirePrescription(change), prescriptionChecks);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported change operation: " + change.op());
+            }
+            logger.debug("Applied {} to validation session {}", change.op(), sessionId);
+            return Optional.of(new Update(session.patientId(), session.clinicianId(),
+                    new ValidationResponse(session.issues())));
+        }
+    }
+
+    @Override
+    public void endSession(String sessionId) {
+        sessionStore.remove(sessionId);
+    }
+
+    private static ProposedPrescriptionDto requirePrescription(PrescriptionChangeDto change) {
+        if (change.prescription() == null || change.prescription().medicationName() == null) {
+            throw new IllegalArgumentException(change.op() + " requires a prescription with a medication name.");
+        }
+        return change.prescription();
+    }
+
+    private static int requireIndex(PrescriptionChangeDto change, ValidationSession session) {
+        if (change.index() == null || change.index() < 0 || change.index() >= session.size()) {
+            throw new IllegalArgumentException("Index " + change.index() + " is out of range for "
+                    + session.size() + " proposed prescriptions.");
+        }
+        return change.index();
+    }
+}
@@ -0,0 +1,85 @@
+package com.hacktech.healthai.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, expiring in-memory store of validation session state.
+ *
+ * Entries are kept in access order, so the eldest entry is always the least
+ * recently used one. Expired entries are dropped lazily from that end on every
+ * write, and the store never holds more than {@code maxSessions} entries.
+ */
+@Component
+public class ValidationSessionStore {
+
+    private final int maxSessions;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> sessions;
+
+    public ValidationSessionStore(@Value("${validation.sessions.max-size:10000}") int maxSessions,
+            @Value("${validation.sessions.ttl-minutes:30}") long ttlMinutes) {
+        this.maxSessions = maxSessions;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ValidationSessionStore.this.maxSessions;
+            }
+        };
+    }
+
+    /** Returns the live session, refreshing its expiry, or null if absent or expired. */
+    public synchronized ValidationSession get(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.lastAccess > ttlNanos) {
+            sessions.remove(sessionId);
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.session;
+    }
+
+    public synchronized void put(String sessionId, ValidationSession session) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        sessions.put(sessionId, new Entry(session, now));
+    }
+
+    public synchronized void remove(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastAccess <= ttlNanos) {
+                break; // everything after this was accessed more recently
+            }
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        final ValidationSession session;
+        long lastAccess;
+
+        Entry(ValidationSession session, long lastAccess) {
+            this.session = session;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -1,16 +1,118 @@
 package com.hacktech.healthai.service.impl;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.hacktech.healthai.service.LlmProviderException;
 import com.hacktech.healthai.service.LlmService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
 
 @Service
 public class LlmServiceImpl implements LlmService {
 
+    private static final Logger log = LoggerFactory.getLogger(LlmServiceImpl.class);
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final String model;
+    private final String apiKey;
+
+    public LlmServiceImpl(RestTemplate restTemplate,
+            @Value("${llm.base-url:https://generativelanguage.googleapis.com}") String baseUrl,
+            @Value("${llm.model:gemini-1.5-flash}") String model,
+            @Value("${llm.api-key:}") String apiKey) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        this.model = model;
+        this.apiKey = apiKey;
+    }
+
     @Override
     public String getCompletion(String prompt) {
-        // TODO: Implement actual call to LLM service
-        System.out.println("Received prompt in LlmServiceImpl: " + prompt);
-        // Return a placeholder response for now
-        return "Placeholder LLM response for prompt: [" + prompt + "]";
+        if (apiKey.isBlank()) {
+            // No provider configured: return a placeholder response
+            log.info("No LLM provider configured; returning placeholder for a {}-character prompt", prompt.length());
+            return "Placeholder LLM response for prompt: [" + prompt + "]";
+        }
+
+        // Gemini generateContent request: {"contents":[{"parts":[{"text": prompt}]}]}
+        JsonObject part = new JsonObject();
+        part.addProperty("text", prompt);
+        JsonArray parts = new JsonArray();
+        parts.add(part);
+        JsonObject content = new JsonObject();
+        content.add("parts", parts);
+        JsonArray contents = new JsonArray();
+        contents.add(content);
+        JsonObject body = new JsonObject();
+        body.add("contents", contents);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("x-goog-api-key", apiKey);
+        String url = baseUrl + "/v1beta/models/" + model + ":generateContent";
+
+        log.debug("Calling LLM provider model {}", model);
+        String response;
+        try {
+            response = restTemplate.postForObject(url, new HttpEntity<>(body.toString(), headers), String.class);
+        } catch (RestClientException e) {
+            throw new LlmProviderException("LLM provider call failed: " + e.getMessage(), e);
+        }
+        return extractText(response);
+    }
+
+    // {"candidates":[{"content":{"parts":[{"text": ...}]}}]}; every step is checked because
+    // error bodies and blocked prompts omit parts of this shape
+    static String extractText(String response) {
+        JsonObject root;
+        try {
+            root = asObject(response == null ? null : JsonParser.parseString(response));
+        } catch (JsonParseException e) {
+            throw new LlmProviderException("LLM provider returned malformed JSON", e);
+        }
+        if (root == null) {
+            throw new LlmProviderException("LLM provider returned an empty or non-object body");
+        }
+        JsonObject error = asObject(root.get("error"));
+        if (error != null) {
+            JsonElement message = error.get("message");
+            throw new LlmProviderException("LLM provider error: "
+                    + (message != null && message.isJsonPrimitive() ? message.getAsString() : error.toString()));
+        }
+        JsonObject candidate = asObject(first(root.get("candidates")));
+        if (candidate == null) {
+            log.warn("LLM provider returned no candidates.");
+            return "";
+        }
+        JsonObject content = asObject(candidate.get("content"));
+        JsonObject part = content == null ? null : asObject(first(content.get("parts")));
+        JsonElement text = part == null ? null : part.get("text");
+        if (text == null || !text.isJsonPrimitive()) {
+            throw new LlmProviderException("LLM provider candidate has no text part");
+        }
+        return text.getAsString();
+    }
+
+    private static JsonObject asObject(JsonElement element) {
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    private static JsonElement first(JsonElement element) {
+        if (element == null || !element.isJsonArray()) {
+            return null;
+        }
+        JsonArray array = element.getAsJsonArray();
+        return array.isEmpty() ? null : array.get(0);
     }
-}
\ No newline at end of file
+}
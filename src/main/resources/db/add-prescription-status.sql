@@ -0,0 +1,4 @@
+-- Review status of each prescription, read by the clinician dashboard (see Prescription.status).
+-- NULL, 'PENDING' and 'NEEDS_REVIEW' count as pending; 'APPROVED' and 'REJECTED' do not.
+-- Run once against the Supabase database before deploying a backend that maps the column.
+ALTER TABLE prescriptions ADD COLUMN IF NOT EXISTS status text;
@@ -0,0 +1,109 @@
+package com.hacktech.healthai.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.Principal;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class AdmissionControlInterceptorTests {
+
+	private final MockEnvironment environment = new MockEnvironment()
+			.withProperty("admission.llm.rate-per-second", String.valueOf(1.0 / 60))
+			.withProperty("admission.llm.burst", "1");
+	private final AdmissionControlInterceptor interceptor = interceptor(256, "X-Client-Id");
+
+	private AdmissionControlInterceptor interceptor(int maxPerSource, String clientIdHeader) {
+		return new AdmissionControlInterceptor(new ClientRateLimiter(environment, true, 100, maxPerSource, 10),
+				new LoadShedder(environment, true), clientIdHeader);
+	}
+
+	private int send(String remoteAddr, Principal principal, String clientId) throws Exception {
+		return send(interceptor, remoteAddr, principal, clientId);
+	}
+
+	private static int send(AdmissionControlInterceptor interceptor, String remoteAddr, Principal principal,
+			String clientId) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/llm/completion");
+		request.setRemoteAddr(remoteAddr);
+		request.setUserPrincipal(principal);
+		if (clientId != null) {
+			request.addHeader("X-Client-Id", clientId);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		if (interceptor.preHandle(request, response, null)) {
+			interceptor.afterCompletion(request, response, null, null);
+		}
+		return response.getStatus();
+	}
+
+	@Test
+	void clientsBehindOneAddressAreLimitedByTheirClientId() throws Exception {
+		assertEquals(200, send("10.0.0.1", null, "clinic-a"));
+		assertEquals(429, send("10.0.0.1", null, "clinic-a"));
+		assertEquals(200, send("10.0.0.1", null, "clinic-b"));
+		// The same client id is one client wherever it comes from
+		assertEquals(429, send("10.0.0.2", null, " clinic-b "));
+	}
+
+	@Test
+	void requestsWithoutAClientIdAreLimitedByAddress() throws Exception {
+		assertEquals(200, send("10.0.0.1", null, null));
+		assertEquals(429, send("10.0.0.1", null, ""));
+		assertEquals(200, send("10.0.0.2", null, null));
+		// An explicit id is a separate client from the bare address
+		assertEquals(200, send("10.0.0.1", null, "clinic-a"));
+	}
+
+	@Test
+	void inventedClientIdsAreCappedPerAddress() throws Exception {
+		AdmissionControlInterceptor capped = interceptor(2, "X-Client-Id");
+
+		assertEquals(200, send(capped, "10.0.0.1", null, "id-1"));
+		assertEquals(200, send(capped, "10.0.0.1", null, "id-2"));
+		// Past the cap, new ids from this address share the address's one bucket
+		assertEquals(200, send(capped, "10.0.0.1", null, "id-3"));
+		assertEquals(429, send(capped, "10.0.0.1", null, "id-4"));
+		assertEquals(200, send(capped, "10.0.0.2", null, "id-5"));
+	}
+
+	@Test
+	void clientIdHeaderCanBeDisabled() throws Exception {
+		AdmissionControlInterceptor addressOnly = interceptor(256, "");
+
+		assertEquals(200, send(addressOnly, "10.0.0.1", null, "clinic-a"));
+		assertEquals(429, send(addressOnly, "10.0.0.1", null, "clinic-b"));
+	}
+
+	@Test
+	void authenticatedPrincipalIsLimitedAcrossAddresses() throws Exception {
+		Principal alice = () -> "alice";
+
+		assertEquals(200, send("10.0.0.1", alice, null));
+		assertEquals(429, send("10.0.0.2", alice, "clinic-a"));
+		assertEquals(200, send("10.0.0.1", () -> "bob", null));
+	}
+
+	@Test
+	void rejectionCarriesRetryAfter() throws Exception {
+		send("10.0.0.9", null, null);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/llm/completion");
+		request.setRemoteAddr("10.0.0.9");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertFalse(interceptor.preHandle(request, response, null));
+		assertEquals(429, response.getStatus());
+		assertTrue(Long.parseLong(response.getHeader("Retry-After")) >= 59);
+	}
+
+	@Test
+	void ignoresPathsOutsideAdmissionControl() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hello");
+
+		assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+	}
+}
@@ -0,0 +1,78 @@
+package com.hacktech.healthai.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class ClientRateLimiterTests {
+
+	private static final EndpointClass LLM = EndpointClass.LLM;
+
+	private static ClientRateLimiter limiter(int maxClients, int maxPerSource) {
+		// One request per minute: a bucket never refills during a test
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("admission.llm.rate-per-second", String.valueOf(1.0 / 60))
+				.withProperty("admission.llm.burst", "2");
+		return new ClientRateLimiter(environment, true, maxClients, maxPerSource, 10);
+	}
+
+	private static int admitted(ClientRateLimiter limiter, String clientId, String source, int attempts) {
+		int admitted = 0;
+		for (int i = 0; i < attempts; i++) {
+			if (limiter.tryAcquire(clientId, source, LLM) == 0) {
+				admitted++;
+			}
+		}
+		return admitted;
+	}
+
+	@Test
+	void clientsHaveSeparateBuckets() {
+		ClientRateLimiter limiter = limiter(100, 10);
+
+		assertEquals(2, admitted(limiter, "user:alice", "10.0.0.1", 5));
+		assertEquals(2, admitted(limiter, "user:bob", "10.0.0.1", 5));
+		assertTrue(limiter.tryAcquire("user:alice", "10.0.0.2", LLM) > 0);
+		assertEquals(2, limiter.trackedClients());
+	}
+
+	@Test
+	void sourceOverItsKeyLimitSharesOneBucket() {
+		ClientRateLimiter limiter = limiter(100, 2);
+		admitted(limiter, "user:a", "10.0.0.1", 1);
+		admitted(limiter, "user:b", "10.0.0.1", 1);
+
+		// Further identities from the same address draw from a single shared bucket
+		int admitted = 0;
+		for (int i = 0; i < 1_000; i++) {
+			admitted += admitted(limiter, "user:random-" + i, "10.0.0.1", 1);
+		}
+
+		assertEquals(2, admitted);
+		assertEquals(3, limiter.trackedClients());
+		assertEquals(1, limiter.trackedSources());
+		assertEquals(2, admitted(limiter, "user:c", "10.0.0.2", 5));
+	}
+
+	@Test
+	void existingClientsKeepTheirBucketWhenSourceIsFull() {
+		ClientRateLimiter limiter = limiter(100, 1);
+		admitted(limiter, "user:a", "10.0.0.1", 1);
+		admitted(limiter, "user:b", "10.0.0.1", 2);
+
+		assertEquals(1, admitted(limiter, "user:a", "10.0.0.1", 5));
+	}
+
+	@Test
+	void globallyFullMapUsesOverflowBucket() {
+		ClientRateLimiter limiter = limiter(2, 10);
+		admitted(limiter, "user:a", "10.0.0.1", 1);
+		admitted(limiter, "user:b", "10.0.0.2", 1);
+
+		assertEquals(2, admitted(limiter, "user:c", "10.0.0.3", 5));
+		assertEquals(0, admitted(limiter, "user:d", "10.0.0.4", 5));
+		assertEquals(2, limiter.trackedClients());
+	}
+}
@@ -0,0 +1,90 @@
+package com.hacktech.healthai.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class LoadShedderTests {
+
+	private static final EndpointClass OCR = EndpointClass.OCR;
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+	private static LoadShedder shedder(boolean enabled) {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("admission.ocr.max-in-flight", "4")
+				.withProperty("admission.ocr.latency-threshold-ms", "100");
+		return new LoadShedder(environment, enabled);
+	}
+
+	@Test
+	void shedsAboveMaxInFlight() {
+		LoadShedder shedder = shedder(true);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(0, shedder.tryAcquire(OCR), "request " + i);
+		}
+
+		long retry = shedder.tryAcquire(OCR);
+
+		assertEquals(TimeUnit.SECONDS.toNanos(1), retry);
+		assertEquals(4, shedder.inFlight(OCR));
+		assertEquals(1, shedder.shedCount(OCR));
+		shedder.release(OCR, FAST);
+		assertEquals(0, shedder.tryAcquire(OCR));
+	}
+
+	@Test
+	void slowDependencyLeavesOnlyProbeCapacity() {
+		LoadShedder shedder = shedder(true);
+		shedder.tryAcquire(OCR);
+		shedder.release(OCR, SLOW);
+
+		// A quarter of max-in-flight (one request) keeps probing the slow dependency
+		assertEquals(0, shedder.tryAcquire(OCR));
+		assertTrue(shedder.tryAcquire(OCR) > 0);
+		assertEquals(1, shedder.inFlight(OCR));
+	}
+
+	@Test
+	void recoversOnceLatencyDrops() {
+		LoadShedder shedder = shedder(true);
+		shedder.tryAcquire(OCR);
+		shedder.release(OCR, SLOW);
+
+		// The average moves 20% towards each sample: 200 ms falls below 100 ms after four fast probes
+		for (int i = 0; i < 4; i++) {
+			assertEquals(0, shedder.tryAcquire(OCR));
+			shedder.release(OCR, FAST);
+		}
+
+		assertEquals(0, shedder.tryAcquire(OCR));
+		assertEquals(0, shedder.tryAcquire(OCR));
+	}
+
+	@Test
+	void cancelledRequestsDoNotAffectLatency() {
+		LoadShedder shedder = shedder(true);
+		shedder.tryAcquire(OCR);
+		shedder.release(OCR, SLOW);
+		shedder.tryAcquire(OCR);
+		shedder.cancel(OCR);
+
+		assertEquals(0, shedder.inFlight(OCR));
+		assertEquals(0, shedder.tryAcquire(OCR));
+		assertTrue(shedder.tryAcquire(OCR) > 0);
+	}
+
+	@Test
+	void disabledShedderOnlyCounts() {
+		LoadShedder shedder = shedder(false);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, shedder.tryAcquire(OCR));
+		}
+
+		assertEquals(10, shedder.inFlight(OCR));
+		assertEquals(0, shedder.shedCount(OCR));
+	}
+}
@@ -0,0 +1,82 @@
+package com.hacktech.healthai.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+	private static final long INTERVAL = 100;
+	private static final int BURST = 3;
+
+	@Test
+	void admitsBurstThenReportsWaitForNextToken() {
+		TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+
+		for (int i = 0; i < BURST; i++) {
+			assertEquals(0, bucket.tryAcquire(0), "request " + i);
+		}
+		// Theoretical arrival is now 300: a fourth request would put it 400 ahead, one interval over capacity
+		assertEquals(INTERVAL, bucket.tryAcquire(0));
+		assertEquals(INTERVAL - 40, bucket.tryAcquire(40));
+	}
+
+	@Test
+	void rejectedRequestsDoNotConsumeTokens() {
+		TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+		for (int i = 0; i < BURST; i++) {
+			bucket.tryAcquire(0);
+		}
+		for (int i = 0; i < 10; i++) {
+			assertTrue(bucket.tryAcquire(50) > 0);
+		}
+
+		assertEquals(0, bucket.tryAcquire(INTERVAL));
+	}
+
+	@Test
+	void retryHintIsExact() {
+		TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+		for (int i = 0; i < BURST; i++) {
+			bucket.tryAcquire(0);
+		}
+		long wait = bucket.tryAcquire(10);
+
+		assertTrue(bucket.tryAcquire(10 + wait - 1) > 0);
+		assertEquals(0, bucket.tryAcquire(10 + wait));
+	}
+
+	@Test
+	void sustainsConfiguredRateIndefinitely() {
+		TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+
+		for (long now = 0; now < 1_000 * INTERVAL; now += INTERVAL) {
+			assertEquals(0, bucket.tryAcquire(now), "at " + now);
+		}
+	}
+
+	@Test
+	void idleTimeRefillsUpToBurstOnly() {
+		TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+		bucket.tryAcquire(0);
+		long later = 1_000_000;
+
+		for (int i = 0; i < BURST; i++) {
+			assertEquals(0, bucket.tryAcquire(later), "request " + i);
+		}
+		assertTrue(bucket.tryAcquire(later) > 0);
+	}
+
+	@Test
+	void idleOnceFullForIdlePeriod() {
+		TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+		bucket.tryAcquire(0);
+		bucket.tryAcquire(0);
+		// Theoretical arrival is 200: full from then on
+
+		assertFalse(bucket.idleSince(200 + 999, 1_000));
+		assertTrue(bucket.idleSince(200 + 1_000, 1_000));
+	}
+}
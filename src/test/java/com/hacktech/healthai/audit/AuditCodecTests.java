@@ -0,0 +1,84 @@
+package com.hacktech.healthai.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AuditCodecTests {
+
+	private final CRC32 crc = new CRC32();
+
+	@Test
+	void roundTripsRecords() {
+		AuditRecord validation = new AuditRecord(AuditRecord.Type.VALIDATION, 1_700_000_000_123L, "patient-1",
+				"clinician-1", "validate", List.of(
+						new AuditRecord.Entry("INTERACTION", "Warfarin", "Bleeding risk with aspirin"),
+						new AuditRecord.Entry("DOSAGE", "Paracetamol", "5,00 g/day exceeds 4 g – reduce")));
+		AuditRecord decision = new AuditRecord(AuditRecord.Type.DECISION, 42L, null, "clinician-2", "decision",
+				List.of(new AuditRecord.Entry("REJECTED", null, null)));
+		AuditRecord empty = new AuditRecord(AuditRecord.Type.VALIDATION, 0L, "", "", null, List.of());
+
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		for (AuditRecord record : List.of(validation, decision, empty)) {
+			AuditCodec.Encoded encoded = new AuditCodec.Encoded(record);
+			int start = buffer.position();
+			AuditCodec.write(buffer, encoded, crc);
+			assertEquals(encoded.totalLength(), buffer.position() - start);
+		}
+		buffer.flip().limit(buffer.capacity());
+
+		assertEquals(validation, AuditCodec.read(buffer, crc));
+		assertEquals(decision, AuditCodec.read(buffer, crc));
+		assertEquals(empty, AuditCodec.read(buffer, crc));
+		assertNull(AuditCodec.read(buffer, crc));
+	}
+
+	@Test
+	void checksumMismatchReadsAsTheEnd() {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		AuditCodec.write(buffer, new AuditCodec.Encoded(record("first")), crc);
+		int second = buffer.position();
+		AuditCodec.write(buffer, new AuditCodec.Encoded(record("second")), crc);
+		// Flip one byte of the second record's body
+		int at = second + AuditCodec.HEADER_BYTES + 12;
+		buffer.put(at, (byte) (buffer.get(at) ^ 0x01));
+		buffer.position(0);
+
+		assertEquals(record("first"), AuditCodec.read(buffer, crc));
+		assertNull(AuditCodec.read(buffer, crc));
+		assertEquals(second, buffer.position());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, 1, 7, 8, 20 })
+	void tornRecordReadsAsTheEnd(int keptBytes) {
+		ByteBuffer full = ByteBuffer.allocate(1024);
+		AuditCodec.write(full, new AuditCodec.Encoded(record("torn")), crc);
+		// Only part of the record reached the end of the buffer
+		ByteBuffer torn = ByteBuffer.wrap(full.array(), 0, keptBytes).slice();
+
+		assertNull(AuditCodec.read(torn, crc));
+		assertEquals(0, torn.position());
+	}
+
+	@Test
+	void uncommittedLengthReadsAsTheEnd() {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		AuditCodec.write(buffer, new AuditCodec.Encoded(record("uncommitted")), crc);
+		// A crash before the length word is written leaves it zero
+		buffer.putInt(0, 0).position(0);
+
+		assertNull(AuditCodec.read(buffer, crc));
+	}
+
+	private static AuditRecord record(String context) {
+		return new AuditRecord(AuditRecord.Type.DECISION, 1L, "p", "c", context,
+				List.of(new AuditRecord.Entry("APPROVED", "Ibuprofen", "ok")));
+	}
+}
@@ -0,0 +1,143 @@
+package com.hacktech.healthai.audit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditJournalTests {
+
+	private static final int SEGMENT_MB = 1;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void rollsToANewSegmentWhenFullAndReplaysInOrder() throws Exception {
+		// About five of these fit in a 1 MB segment
+		String text = "x".repeat(200_000);
+		AuditJournal journal = open();
+		for (int i = 0; i < 12; i++) {
+			assertTrue(journal.append(record(i, text)));
+		}
+		journal.close();
+
+		assertEquals(12, journal.writtenCount());
+		assertEquals(0, journal.droppedCount());
+		assertEquals(3, AuditJournalReader.listSegments(dir).size());
+		assertEquals(contexts(0, 12), contexts(new AuditJournalReader(dir).query(record -> true, 100)));
+	}
+
+	@Test
+	void restartAppendsAfterTheExistingRecords() throws Exception {
+		AuditJournal first = open();
+		first.append(record(0, "a"));
+		first.append(record(1, "b"));
+		first.close();
+
+		AuditJournal second = open();
+		second.append(record(2, "c"));
+		second.close();
+
+		assertEquals(1, AuditJournalReader.listSegments(dir).size());
+		assertEquals(contexts(0, 3), contexts(new AuditJournalReader(dir).query(record -> true, 100)));
+	}
+
+	@Test
+	void restartAfterACorruptRecordKeepsWhatFollowsIt() throws Exception {
+		AuditJournal first = open();
+		for (int i = 0; i < 3; i++) {
+			first.append(record(i, "text " + i));
+		}
+		first.close();
+		Path segment = AuditJournalReader.listSegments(dir).get(0);
+		byte[] bytes = Files.readAllBytes(segment);
+		int second = new AuditCodec.Encoded(record(0, "text 0")).totalLength();
+		bytes[second + 4] ^= 0x01; // checksum of the second record
+		Files.write(segment, bytes);
+
+		AuditJournal restarted = open();
+		restarted.append(record(3, "text 3"));
+		restarted.close();
+
+		assertArrayEquals(bytes, Files.readAllBytes(segment));
+		List<Path> segments = AuditJournalReader.listSegments(dir);
+		assertEquals(2, segments.size());
+		assertEquals(1, AuditJournalReader.segmentIndex(segments.get(1)));
+		assertEquals(List.of("record-0", "record-3"),
+				contexts(new AuditJournalReader(dir).query(record -> true, 100)));
+	}
+
+	@Test
+	void readerStopsAtTheLimitAndFilters() throws Exception {
+		AuditJournal journal = open();
+		for (int i = 0; i < 6; i++) {
+			journal.append(record(i, "text"));
+		}
+		journal.close();
+
+		AuditJournalReader reader = new AuditJournalReader(dir);
+		assertEquals(List.of("record-1", "record-3"),
+				contexts(reader.query(record -> record.type() == AuditRecord.Type.DECISION, 2)));
+		long[] visited = { 0 };
+		assertEquals(4, reader.replay(record -> ++visited[0] < 4));
+	}
+
+	@Test
+	void toolPrintsMatchingRecordsAcrossSegments() throws Exception {
+		String text = "y".repeat(300_000);
+		AuditJournal journal = open();
+		for (int i = 0; i < 8; i++) {
+			journal.append(record(i, text));
+		}
+		journal.close();
+		assertTrue(AuditJournalReader.listSegments(dir).size() > 1);
+
+		PrintStream stdout = System.out;
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+		try {
+			AuditLogTool.main(new String[] { "--dir", dir.toString(), "--type", "decision" });
+		} finally {
+			System.setOut(stdout);
+		}
+
+		List<String> contexts = new ArrayList<>();
+		for (String line : captured.toString(StandardCharsets.UTF_8).split("\n")) {
+			if (line.contains(" DECISION ")) {
+				contexts.add(line.substring(line.indexOf("context=") + "context=".length()).trim());
+			}
+		}
+		assertEquals(List.of("record-1", "record-3", "record-5", "record-7"), contexts);
+	}
+
+	private AuditJournal open() throws IOException {
+		return new AuditJournal(true, dir.toString(), SEGMENT_MB, 10, 1000);
+	}
+
+	/** Odd records are decisions, even ones validations. */
+	private static AuditRecord record(int n, String text) {
+		AuditRecord.Type type = n % 2 == 0 ? AuditRecord.Type.VALIDATION : AuditRecord.Type.DECISION;
+		return new AuditRecord(type, 1_000L + n, "patient-" + n, "clinician", "record-" + n,
+				List.of(new AuditRecord.Entry("CODE", "Drug", text)));
+	}
+
+	private static List<String> contexts(int from, int to) {
+		return IntStream.range(from, to).mapToObj(i -> "record-" + i).toList();
+	}
+
+	private static List<String> contexts(List<AuditRecord> records) {
+		return records.stream().map(AuditRecord::context).toList();
+	}
+}
@@ -0,0 +1,83 @@
+package com.hacktech.healthai.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.hacktech.healthai.export.HistoryExporter;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class ExportControllerTests {
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', nullValues = "null", value = {
+			"null                    | false",
+			"''                      | false",
+			"gzip                    | true",
+			"GZIP, deflate, br       | true",
+			"deflate, x-gzip         | true",
+			"gzip;q=0.5              | true",
+			"gzip ; Q=1.0            | true",
+			"gzip;q=0                | false",
+			"gzip;q=0.000, deflate   | false",
+			"deflate, br             | false",
+			"identity                | false",
+			"*                       | true",
+			"*;q=0                   | false",
+			"*, gzip;q=0             | false",
+			"gzip;q=0.1, *;q=0       | true",
+			"gzip;q=oops             | false",
+			"gzipped                 | false",
+	})
+	void parsesQValuesOfAcceptEncoding(String acceptEncoding, boolean expected) {
+		assertEquals(expected, ExportController.acceptsGzip(acceptEncoding));
+	}
+
+	@Test
+	void reportsErrorsAsPlainText() throws Exception {
+		HistoryExporter exporter = new HistoryExporter(noDataSource(), 1000, 4);
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ExportController(exporter)).build();
+
+		mockMvc.perform(get("/api/exports/patients"))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string("Unknown export 'patients'; expected 'visits' or 'prescriptions'."));
+		mockMvc.perform(get("/api/exports/visits").param("format", "xml"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/exports/visits").param("after", "yesterday"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/exports/visits"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(content().string("Exports require a database connection."));
+	}
+
+	private static ObjectProvider<DataSource> noDataSource() {
+		return new ObjectProvider<>() {
+			@Override
+			public DataSource getObject() {
+				throw new IllegalStateException("No DataSource");
+			}
+
+			@Override
+			public DataSource getObject(Object... args) {
+				throw new IllegalStateException("No DataSource");
+			}
+
+			@Override
+			public DataSource getIfAvailable() {
+				return null;
+			}
+
+			@Override
+			public DataSource getIfUnique() {
+				return null;
+			}
+		};
+	}
+}
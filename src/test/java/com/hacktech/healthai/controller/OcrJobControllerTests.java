@@ -0,0 +1,92 @@
+package com.hacktech.healthai.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.hacktech.healthai.dto.OcrResponseDto;
+import com.hacktech.healthai.ocr.OcrJobService;
+import com.hacktech.healthai.service.OcrService;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/** Submission and polling of OCR jobs through {@link OcrController}, including 503 when the queue is full. */
+class OcrJobControllerTests {
+
+	private static final String IMAGE = "{\"base64Image\":\"aW1hZ2U=\"}";
+
+	private final CountDownLatch ocrRelease = new CountDownLatch(1);
+	private OcrJobService ocrJobService;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		OcrService ocrService = request -> {
+			ocrRelease.await();
+			return new OcrResponseDto("text");
+		};
+		// One worker and one queue slot: the third concurrent submission is rejected
+		ocrJobService = new OcrJobService(ocrService, 1, 1, 100, 600, 300, 10);
+		mockMvc = MockMvcBuilders.standaloneSetup(new OcrController(ocrService, ocrJobService)).build();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		ocrRelease.countDown();
+		ocrJobService.shutdown();
+	}
+
+	@Test
+	void acceptsJobsUntilTheQueueIsFull() throws Exception {
+		UUID first = submit();
+		awaitStatus(first, "RUNNING");
+		submit();
+
+		mockMvc.perform(post("/ocr/jobs").contentType(MediaType.APPLICATION_JSON).content(IMAGE))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+		ocrRelease.countDown();
+		awaitStatus(first, "SUCCEEDED");
+		mockMvc.perform(get("/ocr/jobs/" + first).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.extractedText").value("text"));
+	}
+
+	@Test
+	void rejectsMissingImagesAndUnknownJobs() throws Exception {
+		mockMvc.perform(post("/ocr/jobs").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/ocr/jobs/" + UUID.randomUUID()).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound());
+	}
+
+	private UUID submit() throws Exception {
+		MvcResult result = mockMvc.perform(post("/ocr/jobs").contentType(MediaType.APPLICATION_JSON).content(IMAGE)
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists(HttpHeaders.LOCATION))
+				.andReturn();
+		String location = result.getResponse().getHeader(HttpHeaders.LOCATION);
+		return UUID.fromString(location.substring(location.lastIndexOf('/') + 1));
+	}
+
+	private void awaitStatus(UUID jobId, String expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (ocrJobService.status(jobId) == null || !expected.equals(ocrJobService.status(jobId).status())) {
+			assertTrue(System.currentTimeMillis() < deadline, "job " + jobId + " never reached " + expected);
+			Thread.sleep(10);
+		}
+	}
+}
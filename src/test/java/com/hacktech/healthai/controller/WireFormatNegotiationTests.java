@@ -0,0 +1,143 @@
+package com.hacktech.healthai.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hacktech.healthai.audit.AuditJournal;
+import com.hacktech.healthai.config.WireFormatConfig;
+import com.hacktech.healthai.dto.CurrentPrescriptionDto;
+import com.hacktech.healthai.dto.PrescriptionValidationRequest;
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import com.hacktech.healthai.dto.ValidationResponse;
+import com.hacktech.healthai.service.ValidationService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Content negotiation of {@link ValidationController} with the converters from
+ * {@link WireFormatConfig}: every supported format must decode back to the same
+ * response, whichever format the request body was sent in.
+ */
+class WireFormatNegotiationTests {
+
+	private static final MediaType SMILE = MediaType.parseMediaType(WireFormatConfig.APPLICATION_SMILE_VALUE);
+
+	private final WireFormatConfig wireFormatConfig = new WireFormatConfig();
+	private final MappingJackson2HttpMessageConverter json = new MappingJackson2HttpMessageConverter(
+			Jackson2ObjectMapperBuilder.json().build());
+	private final MappingJackson2CborHttpMessageConverter cbor = wireFormatConfig
+			.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+	private final MappingJackson2SmileHttpMessageConverter smile = wireFormatConfig
+			.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// Echoes each proposed prescription back as an issue so the request decoding is checked too
+		ValidationService validationService = new ValidationService() {
+			@Override
+			public ValidationResponse validatePrescriptions(PrescriptionValidationRequest request) {
+				List<ValidationIssueDto> issues = new ArrayList<>();
+				for (ProposedPrescriptionDto proposed : request.proposedPrescriptions()) {
+					issues.add(new ValidationIssueDto("DOSAGE", proposed.medicationName(),
+							proposed.dosage() + " " + proposed.frequency() + " for " + request.patientId()));
+				}
+				return new ValidationResponse(issues);
+			}
+
+			@Override
+			public ValidationResponse validateDosage(ProposedPrescriptionDto proposed) {
+				return new ValidationResponse(List.of());
+			}
+		};
+		ValidationController controller = new ValidationController(validationService,
+				null, new AuditJournal(false, "audit", 1, 1000, 16));
+		List<HttpMessageConverter<?>> converters = List.of(json, cbor, smile);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).setMessageConverters(converters.toArray(
+				new HttpMessageConverter<?>[0])).build();
+	}
+
+	static Stream<Arguments> formats() {
+		MediaType[] types = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE };
+		return Stream.of(types).flatMap(request -> Stream.of(types).map(response -> Arguments.of(request, response)));
+	}
+
+	@ParameterizedTest
+	@MethodSource("formats")
+	void roundTripsInEveryFormat(MediaType requestType, MediaType responseType) throws Exception {
+		PrescriptionValidationRequest request = new PrescriptionValidationRequest("patient-1", "clinician-1",
+				List.of(new ProposedPrescriptionDto("Amoxicillin", "500 mg", "TID"),
+						new ProposedPrescriptionDto("Ibuprofen", "400 mg", "q6h prn")),
+				List.of("Penicillin"), List.of(new CurrentPrescriptionDto("Warfarin")));
+
+		MvcResult result = mockMvc.perform(post("/api/prescriptions/validate")
+				.contentType(requestType)
+				.accept(responseType)
+				.content(mapperFor(requestType).writeValueAsBytes(request)))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(responseType))
+				.andReturn();
+
+		ValidationResponse response = mapperFor(responseType).readValue(result.getResponse().getContentAsByteArray(),
+				ValidationResponse.class);
+		assertEquals(List.of(
+				new ValidationIssueDto("DOSAGE", "Amoxicillin", "500 mg TID for patient-1"),
+				new ValidationIssueDto("DOSAGE", "Ibuprofen", "400 mg q6h prn for patient-1")),
+				response.validationIssues());
+	}
+
+	@Test
+	void defaultsToJsonWithoutAccept() throws Exception {
+		mockMvc.perform(post("/api/prescriptions/validate/dosage")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"medicationName\":\"Ibuprofen\",\"dosage\":\"400 mg\"}"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(content().json("{\"validationIssues\":[]}"));
+	}
+
+	@Test
+	void unsupportedAcceptIsNotAcceptable() throws Exception {
+		mockMvc.perform(post("/api/prescriptions/validate/dosage")
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_XML)
+				.content("{\"medicationName\":\"Ibuprofen\"}"))
+				.andExpect(status().isNotAcceptable());
+	}
+
+	@Test
+	void unsupportedContentTypeIsRejected() throws Exception {
+		mockMvc.perform(post("/api/prescriptions/validate/dosage")
+				.contentType(MediaType.TEXT_PLAIN)
+				.accept(MediaType.APPLICATION_CBOR)
+				.content("Ibuprofen"))
+				.andExpect(status().isUnsupportedMediaType());
+	}
+
+	private ObjectMapper mapperFor(MediaType type) {
+		if (MediaType.APPLICATION_CBOR.equals(type)) {
+			return cbor.getObjectMapper();
+		}
+		return SMILE.equals(type) ? smile.getObjectMapper() : json.getObjectMapper();
+	}
+}
@@ -0,0 +1,202 @@
+package com.hacktech.healthai.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.dto.ClinicianDashboardDto;
+import com.hacktech.healthai.entity.Clinician;
+import com.hacktech.healthai.entity.Patient;
+import com.hacktech.healthai.entity.Prescription;
+import com.hacktech.healthai.entity.Visit;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class DashboardReadModelTests {
+
+	private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+	private final DashboardReadModel model = new DashboardReadModel(20, 50);
+	private final Clinician clinician = clinician();
+	private final Patient patient = patient();
+
+	@Test
+	void holdsBackLiveChangesWhileWarming() {
+		model.prescriptionCreated(prescription(1, "PENDING"));
+
+		assertFalse(model.isReady());
+		assertEquals(1, model.heldCount());
+		assertEquals(0, model.dashboard(clinician.getId()).prescriptionCount());
+	}
+
+	@Test
+	void createAlreadyInSnapshotIsCountedOnce() {
+		Prescription inSnapshot = prescription(1, "PENDING");
+		Prescription afterSnapshot = prescription(2, "PENDING");
+		model.prescriptionCreated(inSnapshot);
+		model.loadPrescription(inSnapshot);
+		model.prescriptionCreated(afterSnapshot);
+
+		assertTrue(finish(inSnapshot.getId()));
+
+		ClinicianDashboardDto dashboard = model.dashboard(clinician.getId());
+		assertEquals(2, dashboard.prescriptionCount());
+		assertEquals(2, dashboard.pendingPrescriptionCount());
+		assertEquals(1, dashboard.patientCount());
+	}
+
+	@Test
+	void deleteMissingFromSnapshotIsNotAppliedTwice() {
+		Visit kept = visit(1);
+		Visit deletedBefore = visit(2);
+		Visit deletedAfter = visit(3);
+		model.loadVisit(kept);
+		model.visitDeleted(deletedBefore);
+		model.loadVisit(deletedAfter);
+		model.visitDeleted(deletedAfter);
+
+		assertTrue(finish(kept.getId(), deletedAfter.getId()));
+
+		ClinicianDashboardDto dashboard = model.dashboard(clinician.getId());
+		assertEquals(1, dashboard.visitCount());
+		assertEquals(List.of(kept.getId()), dashboard.recentVisits().stream()
+				.map(ClinicianDashboardDto.RecentVisit::visitId).toList());
+	}
+
+	@Test
+	void createThenDeleteDuringWarmupCancelsOut() {
+		Prescription created = prescription(1, "PENDING");
+		model.prescriptionCreated(created);
+		model.prescriptionDeleted(created);
+
+		assertTrue(finish());
+
+		assertEquals(0, model.dashboard(clinician.getId()).prescriptionCount());
+		assertEquals(0, model.dashboard(clinician.getId()).patientCount());
+	}
+
+	@Test
+	void updatesReplayToLatestState() {
+		Prescription prescription = prescription(1, "PENDING");
+		model.loadPrescription(prescription);
+		prescription.setStatus("APPROVED");
+		model.prescriptionUpdated(prescription);
+
+		assertTrue(finish(prescription.getId()));
+
+		assertEquals(0, model.dashboard(clinician.getId()).pendingPrescriptionCount());
+		assertEquals(1, model.dashboard(clinician.getId()).prescriptionCount());
+	}
+
+	@Test
+	void finishingFailsIfChangesArriveAfterTheCheck() {
+		model.prescriptionCreated(prescription(1, "PENDING"));
+		int seen = model.heldCount();
+		model.prescriptionCreated(prescription(2, "PENDING"));
+
+		assertFalse(model.finishWarming(seen, Set.of()));
+		assertFalse(model.isReady());
+		assertTrue(model.finishWarming(model.heldCount(), Set.of()));
+		assertEquals(2, model.dashboard(clinician.getId()).prescriptionCount());
+	}
+
+	@Test
+	void appliesLiveChangesDirectlyOnceReady() {
+		finish();
+		model.prescriptionCreated(prescription(1, "PENDING"));
+
+		assertTrue(model.isReady());
+		assertEquals(0, model.heldCount());
+		assertEquals(1, model.dashboard(clinician.getId()).prescriptionCount());
+	}
+
+	@Test
+	void abandonedModelStaysUnavailableAndDropsChanges() {
+		model.prescriptionCreated(prescription(1, "PENDING"));
+		model.abandonWarming();
+		model.prescriptionCreated(prescription(2, "PENDING"));
+
+		assertFalse(model.isReady());
+		assertEquals(0, model.heldCount());
+		assertEquals(0, model.dashboard(clinician.getId()).prescriptionCount());
+	}
+
+	@Test
+	void prescriptionBackToPendingKeepsCreationOrder() {
+		finish();
+		Prescription first = prescription(1, "PENDING");
+		Prescription second = prescription(2, "PENDING");
+		Prescription third = prescription(3, "PENDING");
+		model.prescriptionCreated(first);
+		model.prescriptionCreated(second);
+		model.prescriptionCreated(third);
+		first.setStatus("APPROVED");
+		model.prescriptionUpdated(first);
+		first.setStatus("NEEDS_REVIEW");
+		model.prescriptionUpdated(first);
+
+		List<UUID> newestFirst = model.dashboard(clinician.getId()).pendingPrescriptions().stream()
+				.map(ClinicianDashboardDto.PendingPrescription::prescriptionId).toList();
+
+		assertEquals(List.of(third.getId(), second.getId(), first.getId()), newestFirst);
+	}
+
+	@Test
+	void collectsHeldIdsByEntityType() {
+		Visit visit = visit(1);
+		Prescription prescription = prescription(2, "PENDING");
+		model.visitCreated(visit);
+		model.prescriptionCreated(prescription);
+		Set<UUID> visitIds = new HashSet<>();
+		Set<UUID> prescriptionIds = new HashSet<>();
+
+		model.collectHeldIds(0, model.heldCount(), visitIds, prescriptionIds);
+
+		assertEquals(Set.of(visit.getId()), visitIds);
+		assertEquals(Set.of(prescription.getId()), prescriptionIds);
+	}
+
+	// Finishes warming as the bootstrap would, with the given rows found in its snapshot
+	private boolean finish(UUID... inSnapshot) {
+		return model.finishWarming(model.heldCount(), Set.of(inSnapshot));
+	}
+
+	private Prescription prescription(int minute, String status) {
+		Prescription prescription = new Prescription();
+		prescription.setId(UUID.randomUUID());
+		prescription.setClinician(clinician);
+		prescription.setPatient(patient);
+		prescription.setMedication("Drug " + minute);
+		prescription.setStatus(status);
+		prescription.setCreatedAt(T0.plusMinutes(minute));
+		return prescription;
+	}
+
+	private Visit visit(int minute) {
+		Visit visit = new Visit();
+		visit.setId(UUID.randomUUID());
+		visit.setClinician(clinician);
+		visit.setPatient(patient);
+		visit.setVisitDate(T0.plusMinutes(minute));
+		visit.setReason("Visit " + minute);
+		visit.setCreatedAt(T0.plusMinutes(minute));
+		return visit;
+	}
+
+	private static Clinician clinician() {
+		Clinician clinician = new Clinician();
+		clinician.setId(UUID.randomUUID());
+		return clinician;
+	}
+
+	private static Patient patient() {
+		Patient patient = new Patient();
+		patient.setId(UUID.randomUUID());
+		return patient;
+	}
+}
@@ -0,0 +1,55 @@
+package com.hacktech.healthai.entity;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class VisitTests {
+
+	@Test
+	void allowsUpdatesThatKeepTheOwner() {
+		Visit visit = loadedVisit();
+		visit.setReason("Follow-up");
+
+		assertDoesNotThrow(visit::rejectOwnerChange);
+	}
+
+	@Test
+	void rejectsMovingToAnotherClinician() {
+		Visit visit = loadedVisit();
+		visit.setClinician(clinician());
+
+		assertThrows(IllegalStateException.class, visit::rejectOwnerChange);
+	}
+
+	@Test
+	void rejectsMovingToAnotherPatient() {
+		Visit visit = loadedVisit();
+		visit.setPatient(patient());
+
+		assertThrows(IllegalStateException.class, visit::rejectOwnerChange);
+	}
+
+	private static Visit loadedVisit() {
+		Visit visit = new Visit();
+		visit.setId(UUID.randomUUID());
+		visit.setClinician(clinician());
+		visit.setPatient(patient());
+		visit.rememberOwner();
+		return visit;
+	}
+
+	private static Clinician clinician() {
+		Clinician clinician = new Clinician();
+		clinician.setId(UUID.randomUUID());
+		return clinician;
+	}
+
+	private static Patient patient() {
+		Patient patient = new Patient();
+		patient.setId(UUID.randomUUID());
+		return patient;
+	}
+}
@@ -0,0 +1,47 @@
+package com.hacktech.healthai.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ExportCursorTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"2025-04-05T10:15:30.123456Z,1b4e28ba-2fa1-11d2-883f-0016d3cca427",
+			"2025-04-05T12:15:30+02:00,00000000-0000-0000-0000-000000000001",
+			"2025-04-05T10:15Z,ffffffff-ffff-ffff-ffff-ffffffffffff"
+	})
+	void roundTripsThroughItsStringForm(String value) {
+		ExportCursor cursor = ExportCursor.parse(value);
+
+		assertEquals(value, cursor.toString());
+		assertEquals(cursor, ExportCursor.parse(cursor.toString()));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { " 2025-04-05T10:15:30Z , 1b4e28ba-2fa1-11d2-883f-0016d3cca427 " })
+	void toleratesSurroundingWhitespace(String value) {
+		ExportCursor cursor = ExportCursor.parse(value);
+
+		assertEquals(OffsetDateTime.parse("2025-04-05T10:15:30Z"), cursor.createdAt());
+		assertEquals(UUID.fromString("1b4e28ba-2fa1-11d2-883f-0016d3cca427"), cursor.id());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"",
+			"2025-04-05T10:15:30Z",
+			"2025-04-05 10:15:30,1b4e28ba-2fa1-11d2-883f-0016d3cca427",
+			"2025-04-05T10:15:30,1b4e28ba-2fa1-11d2-883f-0016d3cca427",
+			"2025-04-05T10:15:30Z,not-a-uuid",
+			"1b4e28ba-2fa1-11d2-883f-0016d3cca427,2025-04-05T10:15:30Z"
+	})
+	void rejectsMalformedCursors(String value) {
+		assertThrows(IllegalArgumentException.class, () -> ExportCursor.parse(value));
+	}
+}
@@ -0,0 +1,275 @@
+package com.hacktech.healthai.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+class HistoryExporterTests {
+
+	private static final UUID PATIENT = new UUID(0, 1);
+	private static final UUID CLINICIAN_A = new UUID(0, 2);
+	private static final UUID CLINICIAN_B = new UUID(0, 3);
+	private static final OffsetDateTime T0 = OffsetDateTime.parse("2025-04-05T10:15:30.123456Z");
+
+	private final FakeDatabase database = new FakeDatabase();
+	private final HistoryExporter exporter = new HistoryExporter(provider(database.dataSource()), 2, 4);
+
+	HistoryExporterTests() {
+		// Three visits share a created_at, so only the id separates them
+		database.add(visit(7, CLINICIAN_A, T0));
+		database.add(visit(3, CLINICIAN_B, T0));
+		database.add(visit(5, CLINICIAN_A, T0));
+		database.add(visit(1, CLINICIAN_A, T0.plusNanos(1000)));
+		database.add(visit(9, CLINICIAN_B, T0.minusSeconds(60)));
+		database.add(visit(2, CLINICIAN_A, T0.plusDays(1)));
+		database.add(visit(4, CLINICIAN_A, T0.plusDays(1).withOffsetSameInstant(ZoneOffset.ofHours(2))));
+	}
+
+	@Test
+	void resumingFromAnyExportedRowContinuesWithoutGapsOrRepeats() throws Exception {
+		List<String[]> all = rows(export(null, null));
+		assertEquals(7, all.size());
+
+		for (int k = 0; k < all.size(); k++) {
+			ExportCursor cursor = ExportCursor.parse(all.get(k)[6] + "," + all.get(k)[0]);
+			List<String[]> rest = rows(export(null, cursor));
+
+			assertEquals(all.size() - k - 1, rest.size(), "after row " + k);
+			for (int i = 0; i < rest.size(); i++) {
+				assertEquals(Arrays.asList(all.get(k + 1 + i)), Arrays.asList(rest.get(i)));
+			}
+		}
+	}
+
+	@Test
+	void resumingAFilteredExportKeepsTheFilter() throws Exception {
+		List<String[]> all = rows(export(CLINICIAN_A, null));
+		assertEquals(5, all.size());
+		ExportCursor cursor = ExportCursor.parse(all.get(1)[6] + "," + all.get(1)[0]);
+
+		List<String[]> rest = rows(export(CLINICIAN_A, cursor));
+
+		assertEquals(3, rest.size());
+		for (String[] row : rest) {
+			assertEquals(CLINICIAN_A.toString(), row[2]);
+		}
+		assertEquals(Arrays.asList(all.get(2)), Arrays.asList(rest.get(0)));
+	}
+
+	@Test
+	void usesAKeysetPredicateInsteadOfAnOffset() throws Exception {
+		ExportCursor cursor = new ExportCursor(T0, new UUID(0, 5));
+		export(CLINICIAN_A, cursor);
+
+		assertTrue(database.sql.endsWith(" where true and clinician_id = ? and (created_at, id) > (?, ?)"
+				+ " order by created_at, id"), database.sql);
+		assertFalse(database.sql.contains("offset"));
+		assertEquals(List.of(CLINICIAN_A, T0, new UUID(0, 5)), database.parameters);
+		assertEquals(2, database.fetchSize);
+		assertTrue(database.readOnlyTransaction);
+		assertTrue(database.rolledBackAndClosed);
+	}
+
+	@Test
+	void lastCursorOfACompleteExportYieldsNothingMore() throws Exception {
+		List<String[]> all = rows(export(null, null));
+		String[] last = all.get(all.size() - 1);
+
+		String csv = export(null, ExportCursor.parse(last[6] + "," + last[0]));
+
+		assertEquals(1, csv.split("\r\n").length);
+	}
+
+	private String export(UUID clinicianId, ExportCursor after) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(ExportTable.VISITS, ExportFormat.CSV, clinicianId, null, after, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	/** Data rows of a CSV export; none of the fixture values need quoting. */
+	private static List<String[]> rows(String csv) {
+		List<String[]> rows = new ArrayList<>();
+		String[] lines = csv.split("\r\n");
+		for (int i = 1; i < lines.length; i++) {
+			rows.add(lines[i].split(",", -1));
+		}
+		return rows;
+	}
+
+	private static Map<String, Object> visit(long id, UUID clinicianId, OffsetDateTime createdAt) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", new UUID(0, 100 + id));
+		row.put("patient_id", PATIENT);
+		row.put("clinician_id", clinicianId);
+		row.put("visit_date", createdAt);
+		row.put("reason", "checkup " + id);
+		row.put("created_at", createdAt);
+		return row;
+	}
+
+	private static ObjectProvider<DataSource> provider(DataSource dataSource) {
+		return new ObjectProvider<>() {
+			@Override
+			public DataSource getObject() {
+				return dataSource;
+			}
+
+			@Override
+			public DataSource getObject(Object... args) {
+				return dataSource;
+			}
+
+			@Override
+			public DataSource getIfAvailable() {
+				return dataSource;
+			}
+
+			@Override
+			public DataSource getIfUnique() {
+				return dataSource;
+			}
+		};
+	}
+
+	/**
+	 * Just enough JDBC to run the exporter's query against in-memory rows,
+	 * honouring its filters, the (created_at, id) row comparison and the order.
+	 * UUIDs compare as their text, which matches PostgreSQL's byte order.
+	 */
+	private static final class FakeDatabase {
+
+		private final List<Map<String, Object>> rows = new ArrayList<>();
+		String sql;
+		List<Object> parameters;
+		int fetchSize;
+		boolean readOnlyTransaction;
+		boolean rolledBackAndClosed;
+
+		void add(Map<String, Object> row) {
+			rows.add(row);
+		}
+
+		DataSource dataSource() {
+			return proxy(DataSource.class, (method, args) -> method.equals("getConnection") ? connection() : null);
+		}
+
+		private Connection connection() {
+			boolean[] state = new boolean[3]; // auto-commit off, read-only, rolled back
+			return proxy(Connection.class, (method, args) -> switch (method) {
+				case "setAutoCommit" -> {
+					state[0] = !(Boolean) args[0];
+					yield null;
+				}
+				case "setReadOnly" -> {
+					state[1] = (Boolean) args[0];
+					yield null;
+				}
+				case "prepareStatement" -> {
+					readOnlyTransaction = state[0] && state[1];
+					yield statement((String) args[0]);
+				}
+				case "rollback" -> {
+					state[2] = true;
+					yield null;
+				}
+				case "close" -> {
+					rolledBackAndClosed = state[2];
+					yield null;
+				}
+				default -> null;
+			});
+		}
+
+		private PreparedStatement statement(String sql) {
+			this.sql = sql;
+			this.parameters = new ArrayList<>();
+			return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+				case "setFetchSize" -> {
+					fetchSize = (Integer) args[0];
+					yield null;
+				}
+				case "setObject" -> {
+					parameters.add((Integer) args[0] - 1, args[1]);
+					yield null;
+				}
+				case "executeQuery" -> resultSet(query());
+				default -> null;
+			});
+		}
+
+		private List<Object[]> query() {
+			String[] columns = sql.substring("select ".length(), sql.indexOf(" from ")).split(", ");
+			int next = 0;
+			UUID clinicianId = sql.contains("clinician_id = ?") ? (UUID) parameters.get(next++) : null;
+			UUID patientId = sql.contains("patient_id = ?") ? (UUID) parameters.get(next++) : null;
+			OffsetDateTime afterCreatedAt = null;
+			UUID afterId = null;
+			if (sql.contains("(created_at, id) > (?, ?)")) {
+				afterCreatedAt = (OffsetDateTime) parameters.get(next++);
+				afterId = (UUID) parameters.get(next);
+			}
+			Comparator<Map<String, Object>> order = Comparator
+					.comparing((Map<String, Object> row) -> ((OffsetDateTime) row.get("created_at")).toInstant())
+					.thenComparing(row -> row.get("id").toString());
+			Map<String, Object> after = null;
+			if (afterCreatedAt != null) {
+				after = Map.of("created_at", afterCreatedAt, "id", afterId);
+			}
+			List<Object[]> result = new ArrayList<>();
+			for (Map<String, Object> row : rows.stream().sorted(order).toList()) {
+				if ((clinicianId != null && !clinicianId.equals(row.get("clinician_id")))
+						|| (patientId != null && !patientId.equals(row.get("patient_id")))
+						|| (after != null && order.compare(row, after) <= 0)) {
+					continue;
+				}
+				Object[] values = new Object[columns.length];
+				for (int i = 0; i < columns.length; i++) {
+					values[i] = row.get(columns[i]);
+				}
+				result.add(values);
+			}
+			return result;
+		}
+
+		private static ResultSet resultSet(List<Object[]> result) {
+			int[] position = { -1 };
+			return proxy(ResultSet.class, (method, args) -> switch (method) {
+				case "next" -> ++position[0] < result.size();
+				case "getString" -> {
+					Object value = result.get(position[0])[(Integer) args[0] - 1];
+					yield value != null ? value.toString() : null;
+				}
+				case "getObject" -> result.get(position[0])[(Integer) args[0] - 1];
+				default -> null;
+			});
+		}
+
+		private interface Handler {
+			Object invoke(String method, Object[] args) throws Exception;
+		}
+
+		private static <T> T proxy(Class<T> type, Handler handler) {
+			return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+					(proxy, method, args) -> handler.invoke(method.getName(), args)));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.hacktech.healthai.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The endpoints exercised by the load test, each with a representative payload.
+ */
+public enum Endpoint {
+
+    VALIDATE("/api/prescriptions/validate") {
+        @Override
+        String body() {
+            return VALIDATION_REQUEST;
+        }
+    },
+    OCR("/ocr") {
+        @Override
+        String body() {
+            return OCR_REQUEST;
+        }
+    },
+    LLM("/llm/completion") {
+        @Override
+        String body() {
+            return "{\"prompt\":\"Suggest a first-line antidepressant covered at tier 1 for patient "
+                    + ThreadLocalRandom.current().nextInt(1_000_000) + " with a penicillin allergy.\"}";
+        }
+    };
+
+    private static final String VALIDATION_REQUEST = "{\"patientId\":\"loadtest\","
+            + "\"proposedPrescriptions\":["
+            + "{\"medicationName\":\"sertraline\",\"dosage\":\"50 mg\",\"frequency\":\"daily\"},"
+            + "{\"medicationName\":\"lisinopril\",\"dosage\":\"10 mg\",\"frequency\":\"1 tab daily\"},"
+            + "{\"medicationName\":\"ibuprofen\",\"dosage\":\"800 mg\",\"frequency\":\"q6h prn\"},"
+            + "{\"medicationName\":\"amoxicillin\",\"dosage\":\"500 mg\",\"frequency\":\"TID\"},"
+            + "{\"medicationName\":\"atorvastatin\",\"dosage\":\"40 mg\",\"frequency\":\"nightly\"}],"
+            + "\"patientAllergies\":[\"penicillin\",\"sulfa\"],"
+            + "\"currentPrescriptions\":[{\"medicationName\":\"fluoxetine\"},{\"medicationName\":\"metformin\"},"
+            + "{\"medicationName\":\"losartan\"},{\"medicationName\":\"naproxen\"},{\"medicationName\":\"omeprazole\"}]}";
+
+    // ~48 KB, roughly a compressed phone photo of an insurance card
+    private static final String OCR_REQUEST;
+
+    static {
+        byte[] image = new byte[48 * 1024];
+        ThreadLocalRandom.current().nextBytes(image);
+        OCR_REQUEST = "{\"base64Image\":\"data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image)
+                + "\"}";
+    }
+
+    private final String path;
+
+    Endpoint(String path) {
+        this.path = path;
+    }
+
+    abstract String body();
+
+    public String path() {
+        return path;
+    }
+
+    public HttpRequest request(String baseUrl, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body(), StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.hacktech.healthai.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency and error injection for the local stub servers.
+ *
+ * Latency is a fixed base plus an exponentially distributed tail with the given
+ * mean, which gives the long right tail typical of remote APIs.
+ */
+public record FaultInjector(long baseLatencyMs, long tailLatencyMs, double errorRate) {
+
+    /** Reads {@code <prefix>.latencyMs}, {@code <prefix>.tailMs} and {@code <prefix>.errorRate}. */
+    public static FaultInjector fromSystemProperties(String prefix, long defaultLatencyMs, long defaultTailMs) {
+        return new FaultInjector(
+                Long.getLong(prefix + ".latencyMs", defaultLatencyMs),
+                Long.getLong(prefix + ".tailMs", defaultTailMs),
+                Double.parseDouble(System.getProperty(prefix + ".errorRate", "0")));
+    }
+
+    public long nextLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long tail = tailLatencyMs > 0 ? (long) (-tailLatencyMs * Math.log(1 - random.nextDouble())) : 0;
+        return baseLatencyMs + tail;
+    }
+
+    public boolean nextIsError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    public void sleep() throws InterruptedException {
+        long latency = nextLatencyMs();
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "latency=" + baseLatencyMs + "ms+exp(" + tailLatencyMs + "ms), errorRate=" + errorRate;
+    }
+}
@@ -0,0 +1,143 @@
+package com.hacktech.healthai.loadtest;
+
+import com.hacktech.healthai.HealthaiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Self-contained load test: starts local stubs for Google Vision and the LLM
+ * provider, boots the app against them on a random port, then drives
+ * open-model traffic at increasing arrival rates and reports p50/p95/p99 per
+ * endpoint and the first saturated rate. Needs no network access.
+ *
+ * Run with {@code ./mvnw -Ploadtest -Dfrontend.skip=true verify}. Settings are
+ * system properties:
+ * <ul>
+ * <li>{@code loadtest.rates} - comma-separated requests/second per step (default 25,50,100,200,400)</li>
+ * <li>{@code loadtest.stepSeconds} - duration of each step (default 30)</li>
+ * <li>{@code loadtest.warmupSeconds} - warm-up at the first rate, not reported (default 10)</li>
+ * <li>{@code loadtest.mix} - endpoint weights (default validate=6,ocr=2,llm=2)</li>
+ * <li>{@code loadtest.sloP99Ms} - p99 objective used for saturation (default 1000)</li>
+ * <li>{@code loadtest.maxErrorRate} - error rate used for saturation; keep it above any injected stub
+ * error rate (default 0.01)</li>
+ * <li>{@code loadtest.maxOutstanding} - client-side cap on in-flight requests (default 2000)</li>
+ * <li>{@code loadtest.timeoutSeconds} - per-request timeout (default 30)</li>
+ * <li>{@code loadtest.output} - CSV report path (default target/loadtest/results.csv)</li>
+ * <li>{@code stub.vision.latencyMs}, {@code .tailMs}, {@code .errorRate} - Vision stub faults
+ * (default 120, 40, 0)</li>
+ * <li>{@code stub.llm.latencyMs}, {@code .tailMs}, {@code .errorRate} - LLM stub faults
+ * (default 400, 150, 0)</li>
+ * </ul>
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Double> rates = new ArrayList<>();
+        for (String rate : System.getProperty("loadtest.rates", "25,50,100,200,400").split(",")) {
+            rates.add(Double.parseDouble(rate.trim()));
+        }
+        Duration stepDuration = Duration.ofSeconds(Long.getLong("loadtest.stepSeconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+        TrafficMix mix = TrafficMix.parse(System.getProperty("loadtest.mix", "validate=6,ocr=2,llm=2"));
+        double sloP99Millis = Double.parseDouble(System.getProperty("loadtest.sloP99Ms", "1000"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+        int maxOutstanding = Integer.getInteger("loadtest.maxOutstanding", 2000);
+        Duration timeout = Duration.ofSeconds(Long.getLong("loadtest.timeoutSeconds", 30));
+        Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest/results.csv"));
+
+        FaultInjector visionFaults = FaultInjector.fromSystemProperties("stub.vision", 120, 40);
+        FaultInjector llmFaults = FaultInjector.fromSystemProperties("stub.llm", 400, 150);
+
+        try (StubVisionServer vision = new StubVisionServer(visionFaults);
+                StubLlmServer llm = new StubLlmServer(llmFaults);
+                ConfigurableApplicationContext app = new SpringApplicationBuilder(HealthaiApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "DISABLE_VISION_API=false",
+                                "vision.endpoint=localhost:" + vision.port(),
+                                "llm.base-url=http://localhost:" + llm.port(),
+                                "llm.api-key=loadtest",
+                                // All driver traffic comes from one client; measure capacity, not its quota
+                                "admission.rate-limit.enabled=false",
+                                "logging.level.com.hacktech.healthai=WARN")
+                        .run(args)) {
+
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            System.out.printf("Stubs: vision on %d (%s), llm on %d (%s); app on %d%n",
+                    vision.port(), visionFaults, llm.port(), llmFaults, port);
+
+            OpenLoopDriver driver = new OpenLoopDriver("http://localhost:" + port, mix, timeout, maxOutstanding);
+            if (!warmup.isZero()) {
+                System.out.printf("Warming up at %.0f req/s for %ds...%n", rates.get(0), warmup.toSeconds());
+                driver.run(rates.get(0), warmup);
+            }
+
+            List<StepResult> results = new ArrayList<>();
+            Double saturationRate = null;
+            for (double rate : rates) {
+                System.out.printf("Running %.0f req/s for %ds...%n", rate, stepDuration.toSeconds());
+                StepResult result = driver.run(rate, stepDuration);
+                results.add(result);
+                printStep(result);
+                if (result.saturated(maxErrorRate, sloP99Millis)) {
+                    saturationRate = rate;
+                    break; // further steps would only measure the pile-up
+                }
+            }
+
+            if (saturationRate != null) {
+                System.out.printf("%nSaturated at %.0f req/s (p99 SLO %.0f ms, max error rate %.1f%%).%n",
+                        saturationRate, sloP99Millis, maxErrorRate * 100);
+            } else {
+                System.out.printf("%nNo saturation up to %.0f req/s.%n", rates.get(rates.size() - 1));
+            }
+            writeCsv(output, results);
+            System.out.println("Report written to " + output.toAbsolutePath());
+        }
+    }
+
+    private static void printStep(StepResult result) {
+        System.out.printf("  offered %.0f req/s, achieved %.1f req/s, errors %.2f%%%n",
+                result.offeredRate(), result.achievedRate(), result.errorRate() * 100);
+        System.out.printf("  %-10s %8s %8s %8s %8s %10s %10s %10s %10s%n",
+                "endpoint", "offered", "ok", "failed", "dropped", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<Endpoint, OpenLoopDriver.EndpointStats> entry : result.stats().entrySet()) {
+            OpenLoopDriver.EndpointStats s = entry.getValue();
+            System.out.printf("  %-10s %8d %8d %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey().name().toLowerCase(), s.offered(), s.ok(), s.failed(), s.dropped(),
+                    s.latency().percentileMicros(50) / 1000.0, s.latency().percentileMicros(95) / 1000.0,
+                    s.latency().percentileMicros(99) / 1000.0, s.latency().maxMicros() / 1000.0);
+        }
+    }
+
+    private static void writeCsv(Path output, List<StepResult> results) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output))) {
+            out.println("offered_rps,endpoint,offered,ok,failed,dropped,p50_ms,p95_ms,p99_ms,max_ms");
+            for (StepResult result : results) {
+                for (Map.Entry<Endpoint, OpenLoopDriver.EndpointStats> entry : result.stats().entrySet()) {
+                    OpenLoopDriver.EndpointStats s = entry.getValue();
+                    out.printf("%.0f,%s,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.2f%n", result.offeredRate(),
+                            entry.getKey().path(), s.offered(), s.ok(), s.failed(), s.dropped(),
+                            s.latency().percentileMicros(50) / 1000.0, s.latency().percentileMicros(95) / 1000.0,
+                            s.latency().percentileMicros(99) / 1000.0, s.latency().maxMicros() / 1000.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.hacktech.healthai.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are issued at a constant arrival rate
+ * regardless of how quickly earlier ones complete, so a slow server builds a
+ * queue instead of silently throttling the client.
+ *
+ * Latency is measured from each request's intended start time, not from when
+ * it was actually sent, to avoid coordinated omission.
+ */
+public class OpenLoopDriver {
+
+    private final String baseUrl;
+    private final TrafficMix mix;
+    private final Duration timeout;
+    private final int maxOutstanding;
+    private final HttpClient client;
+
+    public OpenLoopDriver(String baseUrl, TrafficMix mix, Duration timeout, int maxOutstanding) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.timeout = timeout;
+        this.maxOutstanding = maxOutstanding;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /** Drives {@code ratePerSecond} requests per second for {@code duration} and waits for stragglers. */
+    public StepResult run(double ratePerSecond, Duration duration) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : mix.endpoints()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        for (long intended = start; intended < end; intended = start + (++sent) * intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = mix.next();
+            EndpointStats endpointStats = stats.get(endpoint);
+            endpointStats.offered.incrementAndGet();
+            if (!outstanding.tryAcquire()) {
+                // Client-side cap reached: the server is far past saturation
+                endpointStats.dropped.incrementAndGet();
+                continue;
+            }
+            long intendedStart = intended;
+            client.sendAsync(endpoint.request(baseUrl, timeout), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long micros = (System.nanoTime() - intendedStart) / 1_000;
+                        if (error == null && response.statusCode() < 400) {
+                            endpointStats.ok.incrementAndGet();
+                            endpointStats.latency.recordMicros(micros);
+                        } else {
+                            endpointStats.failed.incrementAndGet();
+                        }
+                        outstanding.release();
+                    });
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        // Let in-flight requests finish (bounded by the request timeout)
+        outstanding.tryAcquire(maxOutstanding, timeout.toMillis() + 1_000, TimeUnit.MILLISECONDS);
+        return new StepResult(ratePerSecond, elapsedNanos, stats);
+    }
+
+    /** Per-endpoint counters and latency for one step. */
+    public static final class EndpointStats {
+        final AtomicLong offered = new AtomicLong();
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        public long offered() {
+            return offered.get();
+        }
+
+        public long ok() {
+            return ok.get();
+        }
+
+        public long failed() {
+            return failed.get();
+        }
+
+        public long dropped() {
+            return dropped.get();
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+    }
+}
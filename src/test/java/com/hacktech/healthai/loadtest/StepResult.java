@@ -0,0 +1,46 @@
+package com.hacktech.healthai.loadtest;
+
+import java.util.Map;
+
+/**
+ * Outcome of one constant-rate step of the load test.
+ */
+public record StepResult(double offeredRate, long elapsedNanos, Map<Endpoint, OpenLoopDriver.EndpointStats> stats) {
+
+    public double achievedRate() {
+        long ok = 0;
+        for (OpenLoopDriver.EndpointStats s : stats.values()) {
+            ok += s.ok();
+        }
+        return ok * 1e9 / elapsedNanos;
+    }
+
+    public double errorRate() {
+        long offered = 0;
+        long bad = 0;
+        for (OpenLoopDriver.EndpointStats s : stats.values()) {
+            offered += s.offered();
+            bad += s.failed() + s.dropped();
+        }
+        return offered == 0 ? 0 : (double) bad / offered;
+    }
+
+    /** Worst p99 across endpoints, in milliseconds. */
+    public double worstP99Millis() {
+        long worst = 0;
+        for (OpenLoopDriver.EndpointStats s : stats.values()) {
+            worst = Math.max(worst, s.latency().percentileMicros(99));
+        }
+        return worst / 1000.0;
+    }
+
+    /**
+     * A step is saturated when the server no longer keeps up with the offered
+     * rate, fails too often, or breaches the p99 latency objective.
+     */
+    public boolean saturated(double maxErrorRate, double sloP99Millis) {
+        return achievedRate() < 0.95 * offeredRate * (1 - errorRate())
+                || errorRate() > maxErrorRate
+                || worstP99Millis() > sloP99Millis;
+    }
+}
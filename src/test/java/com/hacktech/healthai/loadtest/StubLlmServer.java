@@ -0,0 +1,69 @@
+package com.hacktech.healthai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP stand-in for the Gemini generateContent API. The app is pointed at
+ * it with {@code llm.base-url=http://localhost:<port>} and any non-blank
+ * {@code llm.api-key}.
+ */
+public class StubLlmServer implements AutoCloseable {
+
+    private static final byte[] RESPONSE = ("{\"candidates\":[{\"content\":{\"role\":\"model\",\"parts\":"
+            + "[{\"text\":\"Stub completion: sertraline 50 mg daily is covered at tier 1.\"}]},"
+            + "\"finishReason\":\"STOP\"}]}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR = "{\"error\":{\"code\":503,\"status\":\"UNAVAILABLE\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+    private final FaultInjector faults;
+
+    public StubLlmServer(FaultInjector faults) throws IOException {
+        this.faults = faults;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/v1beta/models/", this::handle);
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            try {
+                faults.sleep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean error = faults.nextIsError();
+            byte[] payload = error ? ERROR : RESPONSE;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(error ? 503 : 200, payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.hacktech.healthai.loadtest;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorGrpc;
+import com.google.cloud.vision.v1.TextAnnotation;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local gRPC stand-in for Google Cloud Vision's ImageAnnotator service. The app
+ * is pointed at it with {@code vision.endpoint=localhost:<port>}.
+ */
+public class StubVisionServer implements AutoCloseable {
+
+    static final String EXTRACTED_TEXT = "MEMBER ID: XJH123456789\nGROUP: 0042\nRX BIN: 610014\nRX PCN: STUB";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Server server;
+
+    public StubVisionServer(FaultInjector faults) throws IOException {
+        this.server = ServerBuilder.forPort(0)
+                .executor(executor)
+                .addService(new ImageAnnotatorGrpc.ImageAnnotatorImplBase() {
+                    @Override
+                    public void batchAnnotateImages(BatchAnnotateImagesRequest request,
+                            StreamObserver<BatchAnnotateImagesResponse> responseObserver) {
+                        try {
+                            faults.sleep();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        if (faults.nextIsError()) {
+                            responseObserver.onError(Status.UNAVAILABLE
+                                    .withDescription("Injected stub failure").asRuntimeException());
+                            return;
+                        }
+                        BatchAnnotateImagesResponse.Builder response = BatchAnnotateImagesResponse.newBuilder();
+                        for (AnnotateImageRequest ignored : request.getRequestsList()) {
+                            response.addResponses(AnnotateImageResponse.newBuilder()
+                                    .setFullTextAnnotation(TextAnnotation.newBuilder().setText(EXTRACTED_TEXT)));
+                        }
+                        responseObserver.onNext(response.build());
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build()
+                .start();
+    }
+
+    public int port() {
+        return server.getPort();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+}
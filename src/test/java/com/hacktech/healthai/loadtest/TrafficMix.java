@@ -0,0 +1,61 @@
+package com.hacktech.healthai.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted mix of endpoints, parsed from a spec such as
+ * {@code "validate=6,ocr=2,llm=2"}.
+ */
+public class TrafficMix {
+
+    private final Endpoint[] endpoints;
+    private final double[] cumulative;
+
+    private TrafficMix(Map<Endpoint, Double> weights) {
+        this.endpoints = weights.keySet().toArray(new Endpoint[0]);
+        this.cumulative = new double[endpoints.length];
+        double total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    public static TrafficMix parse(String spec) {
+        Map<Endpoint, Double> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + entry);
+            }
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no endpoints: " + spec);
+        }
+        return new TrafficMix(weights);
+    }
+
+    public Endpoint next() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public Endpoint[] endpoints() {
+        return endpoints.clone();
+    }
+}
@@ -0,0 +1,179 @@
+package com.hacktech.healthai.loadtest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.hacktech.healthai.dto.LlmResponseDto;
+import com.hacktech.healthai.dto.OcrResponseDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import com.hacktech.healthai.dto.ValidationResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares JSON, CBOR and Smile for the API's typical response payloads:
+ * encoded size (raw and gzipped), serialization time through the same
+ * streaming {@code ObjectWriter -> OutputStream} path the HTTP message
+ * converters use, and the cost of a client walking the tokens back.
+ *
+ * Run with {@code ./mvnw -Pbenchmark -Dfrontend.skip=true verify}. Settings
+ * are system properties: {@code benchmark.iterations} per timed round
+ * (default 20000), {@code benchmark.rounds} (default 7, the median is
+ * reported) and {@code benchmark.warmupRounds} (default 3).
+ */
+public final class WireFormatBenchmark {
+
+    private static final String OCR_TEXT = """
+            Dr. Maria Lopez, MD  NPI 1234567890
+            123 Main Street, Suite 400, Pasadena CA 91101  Tel (626) 555-0134
+            Patient: John A. Smith   DOB: 04/12/1961   Date: 03/18/2025
+            Rx
+            1. Amoxicillin 500 mg capsule - take 1 capsule by mouth three times daily for 10 days. Disp #30, RF 0
+            2. Ibuprofen 400 mg tablet - take 1 tablet by mouth every 6 hours as needed for pain. Disp #20, RF 1
+            3. Lisinopril 10 mg tablet - take 1 tablet by mouth once daily. Disp #90, RF 3
+            4. Atorvastatin 20 mg tablet - take 1 tablet by mouth at bedtime. Disp #90, RF 3
+            Substitution permitted.  Signature: ______________________
+            """;
+
+    private static final String LLM_TEXT = """
+            Summary of the proposed regimen: amoxicillin 500 mg three times daily is appropriate for the \
+            documented indication and within the usual adult dose range. Ibuprofen as needed may reduce the \
+            antihypertensive effect of lisinopril and, with prolonged use, increase the risk of renal impairment; \
+            consider acetaminophen for analgesia or limit ibuprofen to the shortest effective course and monitor \
+            blood pressure. Atorvastatin 20 mg at bedtime has no clinically significant interaction with the other \
+            agents. The patient's recorded penicillin sensitivity should be confirmed before dispensing \
+            amoxicillin; if the reaction history includes urticaria or anaphylaxis, an alternative such as \
+            azithromycin or doxycycline should be selected. No therapeutic duplicates were identified. Suggested \
+            follow-up: basic metabolic panel in two weeks if ibuprofen is continued beyond five days.\
+            """;
+
+    private WireFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int iterations = Integer.getInteger("benchmark.iterations", 20_000);
+        int rounds = Integer.getInteger("benchmark.rounds", 7);
+        int warmupRounds = Integer.getInteger("benchmark.warmupRounds", 3);
+
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", new ObjectMapper());
+        formats.put("cbor", new CBORMapper());
+        formats.put("smile", new SmileMapper());
+
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("validation (6 issues)", validationResponse(6));
+        payloads.put("validation batch (200 issues)", validationResponse(200));
+        payloads.put("ocr", new OcrResponseDto(OCR_TEXT));
+        payloads.put("llm", new LlmResponseDto(LLM_TEXT));
+
+        System.out.printf("%-30s %-6s %8s %8s %11s %11s%n", "payload", "format", "bytes", "gzip", "write ns/op",
+                "parse ns/op");
+        for (Map.Entry<String, Object> payload : payloads.entrySet()) {
+            int jsonBytes = 0;
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                ObjectWriter writer = format.getValue().writer();
+                JsonFactory factory = format.getValue().getFactory();
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+                byte[] encoded = writer.writeValueAsBytes(payload.getValue());
+                if (jsonBytes == 0) {
+                    jsonBytes = encoded.length;
+                }
+
+                for (int i = 0; i < warmupRounds; i++) {
+                    timeWrite(writer, payload.getValue(), buffer, iterations);
+                    timeParse(factory, encoded, iterations);
+                }
+                double[] writeNanos = new double[rounds];
+                double[] parseNanos = new double[rounds];
+                for (int i = 0; i < rounds; i++) {
+                    writeNanos[i] = timeWrite(writer, payload.getValue(), buffer, iterations);
+                    parseNanos[i] = timeParse(factory, encoded, iterations);
+                }
+
+                System.out.printf("%-30s %-6s %8d %8d %11.0f %11.0f   (%.0f%% of json)%n", payload.getKey(),
+                        format.getKey(), encoded.length, gzipLength(encoded), median(writeNanos),
+                        median(parseNanos), 100.0 * encoded.length / jsonBytes);
+            }
+        }
+    }
+
+    private static ValidationResponse validationResponse(int issueCount) {
+        String[][] templates = {
+                { "ALLERGY", "Amoxicillin", "Patient has a documented allergy to penicillin; amoxicillin is a penicillin." },
+                { "INTERACTION", "Ibuprofen", "Ibuprofen may reduce the antihypertensive effect of Lisinopril." },
+                { "DUPLICATE", "Sertraline", "Sertraline duplicates current therapy Fluoxetine (N06AB SSRIs)." },
+                { "DOSAGE", "Acetaminophen", "Daily dose 6000 mg exceeds the maximum of 4000 mg." },
+                { "INTERACTION", "Warfarin", "Concurrent aspirin increases the risk of bleeding with warfarin." },
+                { "DOSAGE", "Lisinopril", "Frequency could not be parsed: 'as directed'." },
+        };
+        List<ValidationIssueDto> issues = new ArrayList<>(issueCount);
+        for (int i = 0; i < issueCount; i++) {
+            String[] template = templates[i % templates.length];
+            issues.add(new ValidationIssueDto(template[0], template[1], template[2]));
+        }
+        return new ValidationResponse(issues);
+    }
+
+    /** Average nanoseconds per serialization into a reused buffer. */
+    private static double timeWrite(ObjectWriter writer, Object value, ByteArrayOutputStream buffer, int iterations)
+            throws IOException {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            buffer.reset();
+            writer.writeValue(buffer, value);
+            sink += buffer.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) elapsed / iterations;
+    }
+
+    /** Average nanoseconds to walk every token, as a client decoding into its own types would. */
+    private static double timeParse(JsonFactory factory, byte[] encoded, int iterations) throws IOException {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            try (JsonParser parser = factory.createParser(encoded)) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    if (token == JsonToken.VALUE_STRING) {
+                        sink += parser.getTextLength();
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) elapsed / iterations;
+    }
+
+    private static int gzipLength(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
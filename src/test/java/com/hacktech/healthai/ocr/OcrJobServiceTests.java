@@ -0,0 +1,239 @@
+package com.hacktech.healthai.ocr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.dto.OcrJobDto;
+import com.hacktech.healthai.dto.OcrRequestDto;
+import com.hacktech.healthai.dto.OcrResponseDto;
+import com.hacktech.healthai.service.OcrService;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class OcrJobServiceTests {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	/** Holds every OCR call until released, so tests control when jobs finish. */
+	private final CountDownLatch ocrRelease = new CountDownLatch(1);
+	private final OcrService ocrService = request -> {
+		ocrRelease.await();
+		if (request.getBase64Image().equals("bad")) {
+			throw new IOException("Vision unavailable");
+		}
+		return new OcrResponseDto("text of " + request.getBase64Image());
+	};
+
+	/** Stalls the sends of the emitters created while set. */
+	private volatile CountDownLatch stall;
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+	private final List<OcrJobService> services = new ArrayList<>();
+
+	@AfterEach
+	void shutDown() throws InterruptedException {
+		ocrRelease.countDown();
+		for (RecordingEmitter emitter : emitters) {
+			if (emitter.stall != null) {
+				emitter.stall.countDown();
+			}
+		}
+		for (OcrJobService service : services) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void runsSubmittedJobs() throws Exception {
+		OcrJobService service = service(1, 10, 600, 10);
+		OcrJobDto ok = service.submit(new OcrRequestDto("image"));
+		await(() -> "RUNNING".equals(service.status(ok.jobId()).status()));
+		OcrJobDto bad = service.submit(new OcrRequestDto("bad"));
+		assertEquals("QUEUED", bad.status());
+		assertEquals("QUEUED", service.status(bad.jobId()).status());
+
+		ocrRelease.countDown();
+		await(() -> isFinished(service.status(ok.jobId())) && isFinished(service.status(bad.jobId())));
+
+		OcrJobDto succeeded = service.status(ok.jobId());
+		assertEquals("SUCCEEDED", succeeded.status());
+		assertEquals("text of image", succeeded.result().getExtractedText());
+		assertNotNull(succeeded.startedAt());
+		assertNotNull(succeeded.finishedAt());
+		OcrJobDto failed = service.status(bad.jobId());
+		assertEquals("FAILED", failed.status());
+		assertNull(failed.result());
+		assertNotNull(failed.error());
+	}
+
+	@Test
+	void rejectsSubmissionsWhenTheQueueIsFull() throws Exception {
+		OcrJobService service = service(1, 1, 600, 10);
+		OcrJobDto running = service.submit(new OcrRequestDto("first"));
+		await(() -> "RUNNING".equals(service.status(running.jobId()).status()));
+		assertNotNull(service.submit(new OcrRequestDto("queued")));
+
+		assertNull(service.submit(new OcrRequestDto("rejected")));
+		assertTrue(service.retryAfterSeconds() >= 1);
+	}
+
+	@Test
+	void rejectsSubmissionsWhenTheJobTableIsFull() {
+		OcrJobService service = service(1, 10, 600, 2);
+		assertNotNull(service.submit(new OcrRequestDto("one")));
+		assertNotNull(service.submit(new OcrRequestDto("two")));
+
+		assertNull(service.submit(new OcrRequestDto("three")));
+	}
+
+	@Test
+	void forgetsFinishedJobsAfterTheirTtl() throws Exception {
+		OcrJobService service = service(1, 10, 1, 10);
+		OcrJobDto job = service.submit(new OcrRequestDto("image"));
+		ocrRelease.countDown();
+		await(() -> isFinished(service.status(job.jobId())));
+
+		await(() -> service.status(job.jobId()) == null);
+		assertNull(service.subscribe(job.jobId()));
+	}
+
+	@Test
+	void sendsEveryChangeToEverySubscriber() throws Exception {
+		OcrJobService service = service(1, 10, 600, 10);
+		OcrJobDto running = service.submit(new OcrRequestDto("first"));
+		await(() -> "RUNNING".equals(service.status(running.jobId()).status()));
+		OcrJobDto queued = service.submit(new OcrRequestDto("second"));
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(service.subscribe(queued.jobId()));
+		}
+
+		ocrRelease.countDown();
+		await(() -> emitters.stream().allMatch(emitter -> emitter.completed));
+
+		for (RecordingEmitter emitter : emitters) {
+			assertEquals(List.of("QUEUED", "RUNNING", "SUCCEEDED"), emitter.statuses());
+			assertNull(emitter.error);
+		}
+	}
+
+	@Test
+	void subscribingToAFinishedJobSendsItsStateAndCompletes() throws Exception {
+		OcrJobService service = service(1, 10, 600, 10);
+		OcrJobDto job = service.submit(new OcrRequestDto("image"));
+		ocrRelease.countDown();
+		await(() -> isFinished(service.status(job.jobId())));
+
+		service.subscribe(job.jobId());
+		await(() -> emitters.get(0).completed);
+		assertEquals(List.of("SUCCEEDED"), emitters.get(0).statuses());
+	}
+
+	@Test
+	void dropsStalledSubscribersWhileOthersKeepReceiving() throws Exception {
+		OcrJobService service = service(1, 10, 600, 10);
+		OcrJobDto job = service.submit(new OcrRequestDto("image"));
+		await(() -> "RUNNING".equals(service.status(job.jobId()).status()));
+		// More stalled clients than there used to be sender threads
+		stall = new CountDownLatch(1);
+		for (int i = 0; i < 8; i++) {
+			service.subscribe(job.jobId());
+		}
+		stall = null;
+		List<RecordingEmitter> stalled = List.copyOf(emitters);
+		service.subscribe(job.jobId());
+		service.subscribe(job.jobId());
+		List<RecordingEmitter> healthy = List.copyOf(emitters.subList(stalled.size(), emitters.size()));
+
+		ocrRelease.countDown();
+		await(() -> healthy.stream().allMatch(emitter -> emitter.completed));
+		for (RecordingEmitter emitter : healthy) {
+			assertEquals(List.of("RUNNING", "SUCCEEDED"), emitter.statuses());
+		}
+
+		// Closed while their first send is still blocked
+		await(() -> stalled.stream().allMatch(emitter -> emitter.error != null));
+		for (RecordingEmitter emitter : stalled) {
+			assertTrue(emitter.statuses().isEmpty());
+			assertEquals(1, emitter.stall.getCount());
+		}
+	}
+
+	private OcrJobService service(int workers, int queueCapacity, long resultTtlSeconds, int maxJobs) {
+		OcrJobService service = new OcrJobService(ocrService, workers, queueCapacity, maxJobs, resultTtlSeconds,
+				300, 1) {
+			@Override
+			SseEmitter newEmitter(long timeoutMillis) {
+				RecordingEmitter emitter = new RecordingEmitter(timeoutMillis, stall);
+				emitters.add(emitter);
+				return emitter;
+			}
+		};
+		services.add(service);
+		return service;
+	}
+
+	private static boolean isFinished(OcrJobDto job) {
+		return job != null && (job.status().equals("SUCCEEDED") || job.status().equals("FAILED"));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+			Thread.sleep(10);
+		}
+	}
+
+	/** Records the job states sent to one client; a stalled one blocks in send like a client that stopped reading. */
+	private static final class RecordingEmitter extends SseEmitter {
+		final CountDownLatch stall;
+		final List<OcrJobDto> events = new CopyOnWriteArrayList<>();
+		volatile boolean completed;
+		volatile Throwable error;
+
+		RecordingEmitter(long timeoutMillis, CountDownLatch stall) {
+			super(timeoutMillis);
+			this.stall = stall;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (stall != null) {
+				try {
+					stall.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				if (part.getData() instanceof OcrJobDto job) {
+					events.add(job);
+				}
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			error = ex;
+		}
+
+		List<String> statuses() {
+			return events.stream().map(OcrJobDto::status).toList();
+		}
+	}
+}
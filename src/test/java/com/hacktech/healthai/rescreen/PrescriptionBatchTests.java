@@ -0,0 +1,50 @@
+package com.hacktech.healthai.rescreen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PrescriptionBatchTests {
+
+	@Test
+	void growsPastInitialCapacityWithoutLosingRows() {
+		// Well past the initial 1024 patients and 4096 rows, with some patients having no rows
+		int patients = 5000;
+		PrescriptionBatch batch = new PrescriptionBatch();
+		for (int p = 0; p < patients; p++) {
+			batch.startPatient(new UUID(p, -p));
+			for (int r = 0; r < p % 4; r++) {
+				batch.addRow(new UUID(p, r), r == 2 ? null : new UUID(-1, p), "drug " + p + "/" + r, p + r);
+			}
+		}
+
+		assertEquals(patients, batch.patientCount());
+		int row = 0;
+		for (int p = 0; p < patients; p++) {
+			assertEquals(new UUID(p, -p), batch.patientId(p));
+			assertEquals(row, batch.firstRow(p));
+			for (int r = 0; r < p % 4; r++, row++) {
+				assertEquals(new UUID(p, r), batch.prescriptionId(row));
+				if (r == 2) {
+					assertNull(batch.clinicianId(row));
+				} else {
+					assertEquals(new UUID(-1, p), batch.clinicianId(row));
+				}
+				assertEquals("drug " + p + "/" + r, batch.medication(row));
+				assertEquals(p + r, batch.drugId(row));
+			}
+		}
+		assertEquals(row, batch.rowCount());
+		assertEquals(row, batch.firstRow(patients));
+	}
+
+	@Test
+	void emptyBatchHasNoRows() {
+		PrescriptionBatch batch = new PrescriptionBatch();
+
+		assertEquals(0, batch.patientCount());
+		assertEquals(0, batch.firstRow(0));
+	}
+}
@@ -0,0 +1,87 @@
+package com.hacktech.healthai.rescreen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.hacktech.healthai.dto.RescreenJobDto;
+import com.hacktech.healthai.dto.RescreenRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RescreenJobTests {
+
+	private static final UUID CLINICIAN_A = new UUID(9, 1);
+	private static final UUID CLINICIAN_B = new UUID(9, 2);
+
+	@TempDir
+	Path root;
+
+	@Test
+	void checkpointOfRunningJobRoundTrips() throws Exception {
+		RescreenJob job = newJob(new RescreenRequest("Advisory 2025-07", "INTERACTION",
+				List.of("warfarin", "N06AB"), List.of("aspirin")));
+		job.batchDone(new UUID(5, 10), 10, 25,
+				List.of(affected(1, CLINICIAN_A), affected(2, CLINICIAN_A, CLINICIAN_B)), 512);
+		job.batchDone(new UUID(5, 20), 10, 18, List.of(affected(3, CLINICIAN_A)), 700);
+		job.save();
+
+		RescreenJob loaded = RescreenJob.load(job.directory);
+
+		assertEquals(job.id, loaded.id);
+		assertEquals(job.request, loaded.request);
+		assertEquals(RescreenJob.Status.RUNNING, loaded.status());
+		assertEquals(new UUID(5, 20), loaded.lastPatientId());
+		assertEquals(700, loaded.resultBytes());
+		assertEquals(job.snapshot(), loaded.snapshot());
+		assertEquals(List.of(new RescreenJobDto.AffectedClinician(CLINICIAN_A, 3),
+				new RescreenJobDto.AffectedClinician(CLINICIAN_B, 1)), loaded.snapshot().affectedClinicians());
+	}
+
+	@Test
+	void checkpointOfFinishedJobRoundTrips() throws Exception {
+		RescreenJob job = newJob(new RescreenRequest("Recall #12", "RECALL", List.of("sertraline"), null));
+		job.finish(RescreenJob.Status.FAILED, "Database unavailable: url=jdbc:postgresql://db\nretry later");
+		job.save();
+
+		RescreenJob loaded = RescreenJob.load(job.directory);
+
+		assertEquals(job.request, loaded.request);
+		assertNull(loaded.request.interactsWith());
+		assertNull(loaded.lastPatientId());
+		assertEquals(0, loaded.resultBytes());
+		assertEquals(job.snapshot(), loaded.snapshot());
+	}
+
+	@Test
+	void saveReplacesThePreviousCheckpoint() throws Exception {
+		RescreenJob job = newJob(new RescreenRequest("Recall #13", "RECALL", List.of("warfarin"), null));
+		job.save();
+		job.batchDone(new UUID(5, 1), 1, 1, List.of(affected(1, CLINICIAN_B)), 64);
+		job.save();
+
+		assertEquals(64, RescreenJob.load(job.directory).resultBytes());
+		try (Stream<Path> files = Files.list(job.directory)) {
+			assertEquals(List.of(RescreenJob.CHECKPOINT), files.map(file -> file.getFileName().toString()).toList());
+		}
+	}
+
+	private RescreenJob newJob(RescreenRequest request) throws Exception {
+		UUID id = UUID.randomUUID();
+		Path directory = Files.createDirectories(root.resolve(id.toString()));
+		return new RescreenJob(id, directory, request, Instant.parse("2025-07-01T08:30:00.123456Z"));
+	}
+
+	private static AffectedPatient affected(long patient, UUID... clinicians) {
+		AffectedPatient affected = new AffectedPatient(new UUID(5, patient));
+		for (UUID clinician : clinicians) {
+			affected.add(new UUID(6, patient), clinician, "Warfarin 5mg");
+		}
+		return affected;
+	}
+}
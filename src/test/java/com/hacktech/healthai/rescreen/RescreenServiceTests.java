@@ -0,0 +1,317 @@
+package com.hacktech.healthai.rescreen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.dto.RescreenJobDto;
+import com.hacktech.healthai.dto.RescreenRequest;
+import com.hacktech.healthai.service.DrugClassIndex;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+
+class RescreenServiceTests {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+	private static final UUID CLINICIAN_A = new UUID(0, 1);
+	private static final UUID CLINICIAN_B = new UUID(0, 2);
+	private static final RescreenRequest WARFARIN_ASPIRIN = new RescreenRequest("Advisory 2025-07", "INTERACTION",
+			List.of("warfarin"), List.of("aspirin"));
+
+	@TempDir
+	Path root;
+
+	private final DrugClassIndex index;
+	private final FakeDatabase database = new FakeDatabase();
+	private final List<RescreenService> services = new ArrayList<>();
+
+	RescreenServiceTests() throws IOException {
+		index = new DrugClassIndex(new ClassPathResource("drugs/atc-classes.csv"),
+				new ClassPathResource("drugs/atc-drugs.csv"));
+		database.add(1, CLINICIAN_A, "Warfarin 5mg");
+		database.add(1, CLINICIAN_A, "Aspirin 81mg");
+		database.add(2, CLINICIAN_A, "Warfarin 5mg");
+		database.add(3, CLINICIAN_A, "Aspirin 81mg");
+		database.add(3, CLINICIAN_B, "Warfarin 5mg");
+		database.add(3, CLINICIAN_B, "Omeprazole");
+		database.add(4, CLINICIAN_B, "Omeprazole");
+		database.add(5, CLINICIAN_A, "Warfarin 5mg");
+		database.add(5, CLINICIAN_A, "Aspirin 81mg");
+	}
+
+	@AfterEach
+	void shutDown() throws InterruptedException {
+		database.gate.countDown();
+		for (RescreenService service : services) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void screensEveryPatientInBatchesAndCheckpointsTheLast() throws Exception {
+		RescreenService service = service(provider(database.dataSource()), 2, 2);
+
+		RescreenJobDto started = service.start(WARFARIN_ASPIRIN);
+		RescreenJobDto done = awaitStatus(service, started.jobId(), "COMPLETED");
+
+		assertFalse(database.sql.contains("patient_id > ?"), database.sql);
+		assertTrue(database.sql.endsWith(" order by patient_id"), database.sql);
+		assertEquals(5, done.patientsScreened());
+		assertEquals(9, done.prescriptionsScreened());
+		assertEquals(3, done.affectedPatients());
+		assertEquals(List.of(new RescreenJobDto.AffectedClinician(CLINICIAN_A, 3),
+				new RescreenJobDto.AffectedClinician(CLINICIAN_B, 1)), done.affectedClinicians());
+
+		List<String> lines = results(service, started.jobId());
+		assertEquals(3, lines.size());
+		assertTrue(lines.get(0).startsWith("{\"patientId\":\"" + patient(1) + "\""), lines.get(0));
+		assertTrue(lines.get(1).startsWith("{\"patientId\":\"" + patient(3) + "\""), lines.get(1));
+		assertTrue(lines.get(1).contains("\"clinicianIds\":[\"" + CLINICIAN_A + "\",\"" + CLINICIAN_B + "\"]"),
+				lines.get(1));
+		assertTrue(lines.get(2).startsWith("{\"patientId\":\"" + patient(5) + "\""), lines.get(2));
+
+		RescreenJob checkpoint = RescreenJob.load(root.resolve(started.jobId().toString()));
+		assertEquals(RescreenJob.Status.COMPLETED, checkpoint.status());
+		assertEquals(patient(5), checkpoint.lastPatientId());
+		assertEquals(Files.size(checkpoint.directory.resolve(RescreenJob.RESULTS)), checkpoint.resultBytes());
+		assertEquals(done, checkpoint.snapshot());
+	}
+
+	@Test
+	void resumesAfterTheLastCheckpointAndDropsResultsWrittenAfterIt() throws Exception {
+		RescreenService reference = service(provider(database.dataSource()), 2, 2);
+		RescreenJobDto uninterrupted = awaitStatus(reference, reference.start(WARFARIN_ASPIRIN).jobId(),
+				"COMPLETED");
+		List<String> expected = results(reference, uninterrupted.jobId());
+
+		// A crash after the first batch (patients 1 and 2) was checkpointed, while patient 3 was being written
+		RescreenJob crashed = newJob();
+		byte[] checkpointed = (expected.get(0) + "\n").getBytes(StandardCharsets.UTF_8);
+		AffectedPatient first = new AffectedPatient(patient(1));
+		first.add(new UUID(1, 1), CLINICIAN_A, "Warfarin 5mg");
+		crashed.batchDone(patient(2), 2, 3, List.of(first), checkpointed.length);
+		crashed.save();
+		try (var out = Files.newOutputStream(crashed.directory.resolve(RescreenJob.RESULTS))) {
+			out.write(checkpointed);
+			// Longer than the rest of the results, so only truncation removes it
+			out.write("{\"patientId\":\"half-written".repeat(100).getBytes(StandardCharsets.UTF_8));
+		}
+
+		RescreenService service = service(provider(database.dataSource()), 2, 2);
+		service.resumeInterruptedJobs();
+		RescreenJobDto done = awaitStatus(service, crashed.id, "COMPLETED");
+
+		assertTrue(database.sql.contains(" and patient_id > ? order by patient_id"), database.sql);
+		assertEquals(List.of(patient(2)), database.parameters);
+		assertEquals(expected, results(service, crashed.id));
+		assertEquals(String.join("\n", expected) + "\n",
+				Files.readString(crashed.directory.resolve(RescreenJob.RESULTS)));
+		assertEquals(uninterrupted.patientsScreened(), done.patientsScreened());
+		assertEquals(uninterrupted.prescriptionsScreened(), done.prescriptionsScreened());
+		assertEquals(uninterrupted.affectedPatients(), done.affectedPatients());
+		assertEquals(uninterrupted.affectedClinicians(), done.affectedClinicians());
+	}
+
+	@Test
+	void marksJobsInterruptedWithoutADatabaseAndResumesThemLater() throws Exception {
+		RescreenJob job = newJob();
+		job.save();
+
+		RescreenService offline = service(provider(null), 2, 2);
+		offline.resumeInterruptedJobs();
+
+		RescreenJobDto interrupted = offline.status(job.id);
+		assertEquals("INTERRUPTED", interrupted.status());
+		assertNotNull(interrupted.error());
+		assertNull(interrupted.finishedAt());
+		assertEquals(RescreenJob.Status.INTERRUPTED, RescreenJob.load(job.directory).status());
+
+		RescreenService online = service(provider(database.dataSource()), 2, 2);
+		online.resumeInterruptedJobs();
+		RescreenJobDto done = awaitStatus(online, job.id, "COMPLETED");
+		assertNull(done.error());
+		assertEquals(3, done.affectedPatients());
+	}
+
+	@Test
+	void marksJobsBeyondTheConcurrencyLimitInterrupted() throws Exception {
+		RescreenJob a = newJob();
+		a.save();
+		RescreenJob b = newJob();
+		b.save();
+		database.gate = new CountDownLatch(1);
+
+		RescreenService service = service(provider(database.dataSource()), 2, 1);
+		service.resumeInterruptedJobs();
+
+		List<String> statuses = new ArrayList<>(List.of(service.status(a.id).status(), service.status(b.id).status()));
+		statuses.sort(null);
+		assertEquals(List.of("INTERRUPTED", "RUNNING"), statuses);
+		UUID resumed = service.status(a.id).status().equals("RUNNING") ? a.id : b.id;
+		UUID interrupted = resumed.equals(a.id) ? b.id : a.id;
+
+		// Nothing runs an interrupted job, so cancelling it takes effect at once
+		assertTrue(service.cancel(interrupted));
+		assertEquals("CANCELLED", service.status(interrupted).status());
+		assertEquals(RescreenJob.Status.CANCELLED, RescreenJob.load(root.resolve(interrupted.toString())).status());
+
+		database.gate.countDown();
+		awaitStatus(service, resumed, "COMPLETED");
+	}
+
+	private RescreenService service(ObjectProvider<DataSource> dataSource, int batchPatients, int maxConcurrent)
+			throws IOException {
+		RescreenService service = new RescreenService(dataSource, index, root.toString(), 2, batchPatients, 100,
+				maxConcurrent);
+		services.add(service);
+		return service;
+	}
+
+	private RescreenJob newJob() throws IOException {
+		UUID id = UUID.randomUUID();
+		Path directory = Files.createDirectories(root.resolve(id.toString()));
+		return new RescreenJob(id, directory, WARFARIN_ASPIRIN, Instant.parse("2025-07-01T08:30:00Z"));
+	}
+
+	private static List<String> results(RescreenService service, UUID jobId) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(service.writeResults(jobId, out));
+		String text = out.toString(StandardCharsets.UTF_8);
+		return text.isEmpty() ? List.of() : Arrays.asList(text.split("\n"));
+	}
+
+	private static RescreenJobDto awaitStatus(RescreenService service, UUID jobId, String expected)
+			throws InterruptedException {
+		await(() -> expected.equals(service.status(jobId).status()));
+		return service.status(jobId);
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+			Thread.sleep(10);
+		}
+	}
+
+	private static UUID patient(long n) {
+		return new UUID(0, 100 + n);
+	}
+
+	private static ObjectProvider<DataSource> provider(DataSource dataSource) {
+		return new ObjectProvider<>() {
+			@Override
+			public DataSource getObject() {
+				return dataSource;
+			}
+
+			@Override
+			public DataSource getObject(Object... args) {
+				return dataSource;
+			}
+
+			@Override
+			public DataSource getIfAvailable() {
+				return dataSource;
+			}
+
+			@Override
+			public DataSource getIfUnique() {
+				return dataSource;
+			}
+		};
+	}
+
+	/**
+	 * Just enough JDBC to run the re-screening query against in-memory
+	 * prescriptions, honouring {@code patient_id > ?} and the order by patient.
+	 * Queries wait for {@link #gate} to open.
+	 */
+	private static final class FakeDatabase {
+
+		private final List<Object[]> rows = new ArrayList<>();
+		volatile CountDownLatch gate = new CountDownLatch(0);
+		volatile String sql;
+		volatile List<Object> parameters;
+
+		void add(long patient, UUID clinicianId, String medication) {
+			rows.add(new Object[] { patient(patient), new UUID(1, rows.size() + 1), clinicianId, medication });
+		}
+
+		DataSource dataSource() {
+			return proxy(DataSource.class, (method, args) -> method.equals("getConnection") ? connection() : null);
+		}
+
+		private Connection connection() {
+			return proxy(Connection.class,
+					(method, args) -> method.equals("prepareStatement") ? statement((String) args[0]) : null);
+		}
+
+		private PreparedStatement statement(String sql) {
+			List<Object> parameters = new ArrayList<>();
+			return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+				case "setObject" -> {
+					parameters.add((Integer) args[0] - 1, args[1]);
+					yield null;
+				}
+				case "executeQuery" -> {
+					this.sql = sql;
+					this.parameters = parameters;
+					gate.await();
+					yield resultSet(query(sql, parameters));
+				}
+				default -> null;
+			});
+		}
+
+		private List<Object[]> query(String sql, List<Object> parameters) {
+			UUID after = sql.contains("patient_id > ?") ? (UUID) parameters.get(0) : null;
+			return rows.stream()
+					.filter(row -> after == null || ((UUID) row[0]).compareTo(after) > 0)
+					.sorted(Comparator.comparing(row -> (UUID) row[0]))
+					.toList();
+		}
+
+		private static ResultSet resultSet(List<Object[]> result) {
+			int[] position = { -1 };
+			return proxy(ResultSet.class, (method, args) -> switch (method) {
+				case "next" -> ++position[0] < result.size();
+				case "getString" -> (String) result.get(position[0])[(Integer) args[0] - 1];
+				case "getObject" -> result.get(position[0])[(Integer) args[0] - 1];
+				default -> null;
+			});
+		}
+
+		private interface Handler {
+			Object invoke(String method, Object[] args) throws Exception;
+		}
+
+		private static <T> T proxy(Class<T> type, Handler handler) {
+			return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+					(proxy, method, args) -> handler.invoke(method.getName(), args)));
+		}
+	}
+}
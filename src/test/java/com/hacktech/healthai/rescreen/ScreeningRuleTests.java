@@ -0,0 +1,125 @@
+package com.hacktech.healthai.rescreen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.service.DrugClassIndex;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+class ScreeningRuleTests {
+
+	private static final UUID CLINICIAN = new UUID(0, 7);
+
+	private final DrugClassIndex index;
+
+	ScreeningRuleTests() throws IOException {
+		index = new DrugClassIndex(new ClassPathResource("drugs/atc-classes.csv"),
+				new ClassPathResource("drugs/atc-drugs.csv"));
+	}
+
+	@Test
+	void interactionNeedsOnePrescriptionOnEachSide() {
+		ScreeningRule rule = compile("INTERACTION", List.of("warfarin"), List.of("aspirin"));
+
+		AffectedPatient affected = rule.evaluate(batch("Warfarin 5mg", "Aspirin 81mg", "Omeprazole"), 0);
+		assertNotNull(affected);
+		assertEquals(List.of("Warfarin 5mg", "Aspirin 81mg"), affected.medications);
+		assertEquals(List.of(CLINICIAN), affected.clinicianIds);
+
+		assertNull(rule.evaluate(batch("Warfarin 5mg", "Omeprazole"), 0));
+		assertNull(rule.evaluate(batch("Aspirin 81mg"), 0));
+	}
+
+	@Test
+	void prescriptionMatchingBothSidesIsNotAPairOnItsOwn() {
+		// Sertraline is itself an SSRI, so it matches both sides
+		ScreeningRule rule = compile("INTERACTION", List.of("N06AB"), List.of("sertraline"));
+
+		assertNull(rule.evaluate(batch("Sertraline 50mg"), 0));
+
+		AffectedPatient affected = rule.evaluate(batch("Sertraline 50mg", "Fluoxetine 20mg"), 0);
+		assertNotNull(affected);
+		assertEquals(List.of("Sertraline 50mg", "Fluoxetine 20mg"), affected.medications);
+
+		// Two prescriptions of the same drug are still a pair
+		assertNotNull(rule.evaluate(batch("Sertraline 50mg", "Sertraline 100mg"), 0));
+	}
+
+	@Test
+	void atcClassTermCoversEveryMemberDrug() {
+		ScreeningRule rule = compile("RECALL", List.of("n06ab"), null);
+
+		assertNotNull(rule.evaluate(batch("Fluoxetine 20mg"), 0));
+		assertNotNull(rule.evaluate(batch("Sertraline 50mg"), 0));
+		assertNull(rule.evaluate(batch("Warfarin 5mg"), 0));
+	}
+
+	@Test
+	void drugNameTermCoversOnlyThatSubstance() {
+		ScreeningRule rule = compile("recall", List.of("Sertraline"), null);
+
+		AffectedPatient affected = rule.evaluate(batch("Fluoxetine 20mg", "Sertraline 50mg"), 0);
+		assertNotNull(affected);
+		assertEquals(List.of("Sertraline 50mg"), affected.medications);
+		assertNull(rule.evaluate(batch("Fluoxetine 20mg"), 0));
+	}
+
+	@Test
+	void unknownMedicationsAreIgnored() {
+		ScreeningRule rule = compile("RECALL", List.of("warfarin"), null);
+
+		AffectedPatient affected = rule.evaluate(batch("Unlisted herbal tea", "Warfarin 5mg"), 0);
+		assertNotNull(affected);
+		assertEquals(1, affected.prescriptionIds.size());
+		assertNull(rule.evaluate(batch("Unlisted herbal tea"), 0));
+	}
+
+	@Test
+	void evaluatesEachPatientOfTheBatchSeparately() {
+		ScreeningRule rule = compile("INTERACTION", List.of("warfarin"), List.of("aspirin"));
+		PrescriptionBatch batch = new PrescriptionBatch();
+		addPatient(batch, new UUID(1, 1), "Warfarin 5mg");
+		addPatient(batch, new UUID(1, 2), "Aspirin 81mg");
+		addPatient(batch, new UUID(1, 3), "Aspirin 81mg", "Warfarin 5mg");
+
+		assertNull(rule.evaluate(batch, 0));
+		assertNull(rule.evaluate(batch, 1));
+		assertEquals(new UUID(1, 3), rule.evaluate(batch, 2).patientId);
+	}
+
+	@Test
+	void rejectsRulesThatCannotBeResolved() {
+		IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+				() -> compile("RECALL", List.of("warfarin", "notadrug", "Z99"), null));
+		assertTrue(unknown.getMessage().contains("[notadrug, Z99]"), unknown.getMessage());
+
+		assertThrows(IllegalArgumentException.class, () -> compile("SHORTAGE", List.of("warfarin"), null));
+		assertThrows(IllegalArgumentException.class, () -> compile(null, List.of("warfarin"), null));
+		assertThrows(IllegalArgumentException.class, () -> compile("RECALL", List.of(), null));
+		assertThrows(IllegalArgumentException.class, () -> compile("INTERACTION", List.of("warfarin"), null));
+	}
+
+	private ScreeningRule compile(String type, List<String> drugs, List<String> interactsWith) {
+		return ScreeningRule.compile(type, drugs, interactsWith, index);
+	}
+
+	private PrescriptionBatch batch(String... medications) {
+		PrescriptionBatch batch = new PrescriptionBatch();
+		addPatient(batch, new UUID(1, 0), medications);
+		return batch;
+	}
+
+	private void addPatient(PrescriptionBatch batch, UUID patientId, String... medications) {
+		batch.startPatient(patientId);
+		for (int i = 0; i < medications.length; i++) {
+			batch.addRow(new UUID(2, batch.rowCount()), CLINICIAN, medications[i], index.drugId(medications[i]));
+		}
+	}
+}
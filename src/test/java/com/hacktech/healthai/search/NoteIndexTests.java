@@ -0,0 +1,180 @@
+package com.hacktech.healthai.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.dto.NoteSearchResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NoteIndexTests {
+
+	private static final UUID CLINICIAN = new UUID(0, 1);
+	private static final UUID PATIENT = new UUID(0, 2);
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	@TempDir
+	Path dir;
+
+	private final List<NoteIndex> open = new ArrayList<>();
+
+	@AfterEach
+	void closeAll() throws InterruptedException {
+		for (NoteIndex index : open) {
+			index.close();
+		}
+	}
+
+	@Test
+	void higherTermFrequencyRanksHigher() throws Exception {
+		NoteIndex index = open(1000, 3600, 10, 4);
+		UUID once = note(index, 1, "aspirin rash fever");
+		UUID twice = note(index, 2, "aspirin aspirin rash");
+
+		assertEquals(List.of(twice, once), await(index, "aspirin", 2));
+	}
+
+	@Test
+	void rarerTermRanksHigher() throws Exception {
+		NoteIndex index = open(1000, 3600, 10, 4);
+		UUID rare = note(index, 1, "warfarin bleeding");
+		UUID common = note(index, 2, "aspirin bleeding");
+		note(index, 3, "aspirin headache");
+		note(index, 4, "aspirin fever");
+
+		List<UUID> hits = await(index, "warfarin aspirin", 4);
+		assertEquals(rare, hits.get(0));
+		assertTrue(hits.contains(common));
+	}
+
+	@Test
+	void shorterDocumentRanksHigher() throws Exception {
+		NoteIndex index = open(1000, 3600, 10, 4);
+		UUID longer = note(index, 1, "insulin dose adjusted after review");
+		UUID shorter = note(index, 2, "insulin");
+
+		assertEquals(List.of(shorter, longer), await(index, "insulin", 2));
+	}
+
+	@Test
+	void mergesSegmentsAndDropsDeletedNotes() throws Exception {
+		NoteIndex index = open(1, 3600, 2, 2);
+		List<UUID> kept = new ArrayList<>();
+		for (int i = 1; i <= 8; i++) {
+			UUID id = note(index, i, "metformin note" + i);
+			await(index, "note" + i, 1);
+			if (i % 2 == 0) {
+				index.delete(NoteDocument.Type.VISIT, id);
+				await(index, "note" + i, 0);
+			} else {
+				kept.add(id);
+			}
+		}
+
+		assertEquals(kept.size(), await(index, "metformin", kept.size()).size());
+		awaitSegmentFiles(2);
+		index.close();
+
+		NoteIndex reopened = open(1, 3600, 2, 2);
+		List<UUID> hits = reopened.search("metformin", null, null, false, 100).hits().stream()
+				.map(NoteSearchResponse.Hit::id).toList();
+		assertEquals(kept.size(), hits.size());
+		assertTrue(hits.containsAll(kept));
+		assertTrue(segmentFiles() <= 2);
+	}
+
+	@Test
+	void reopenKeepsCommittedNotesAndFilters() throws Exception {
+		NoteIndex index = open(1000, 3600, 10, 4);
+		UUID visit = note(index, 1, "amoxicillin allergy reported");
+		index.index(new NoteDocument(NoteDocument.Type.PRESCRIPTION, new UUID(1, 2), new UUID(0, 9), PATIENT,
+				"amoxicillin course"));
+		await(index, "amoxicillin", 2);
+		index.close();
+
+		NoteIndex reopened = open(1000, 3600, 10, 4);
+		NoteSearchResponse response = reopened.search("amoxicillin allergy", CLINICIAN, null, true, 10);
+		assertEquals(1, response.totalHits());
+		assertEquals(visit, response.hits().get(0).id());
+		assertEquals("VISIT", response.hits().get(0).type());
+		assertEquals(2, reopened.search("amoxicillin", null, PATIENT, false, 10).totalHits());
+	}
+
+	@Test
+	void replaysUncommittedUpdatesAndDeletesFromTheLog() throws Exception {
+		NoteIndex first = open(1000, 3600, 10, 4);
+		UUID edited = note(first, 1, "lisinopril cough");
+		UUID removed = note(first, 2, "lisinopril dizziness");
+		await(first, "lisinopril", 2);
+		first.close();
+
+		// Neither change is committed before this instance is abandoned, as in a crash
+		NoteIndex crashed = new NoteIndex(true, dir.toString(), 1000, 3600, 10, 4, 5_000_000, 1024, 1000);
+		crashed.index(new NoteDocument(NoteDocument.Type.VISIT, edited, CLINICIAN, PATIENT, "losartan switched"));
+		crashed.delete(NoteDocument.Type.VISIT, removed);
+		await(crashed, "lisinopril", 0);
+
+		NoteIndex recovered = open(1000, 3600, 10, 4);
+		assertEquals(List.of(edited), ids(recovered.search("losartan", null, null, false, 10)));
+		assertEquals(0, recovered.search("lisinopril cough dizziness", null, null, false, 10).totalHits());
+		recovered.close();
+		open.remove(recovered);
+
+		// After the replay is committed the log is no longer needed
+		NoteIndex reopened = open(1000, 3600, 10, 4);
+		assertEquals(List.of(edited), ids(reopened.search("losartan", null, null, false, 10)));
+		assertEquals(0, reopened.search("lisinopril", null, null, false, 10).totalHits());
+	}
+
+	private NoteIndex open(int memoryDocs, long flushSeconds, int maxSegments, int mergeFactor) throws IOException {
+		NoteIndex index = new NoteIndex(true, dir.toString(), memoryDocs, flushSeconds, maxSegments, mergeFactor,
+				5_000_000, 1024, 1000);
+		open.add(index);
+		return index;
+	}
+
+	private static UUID note(NoteIndex index, int n, String text) {
+		UUID id = new UUID(0, 100 + n);
+		index.index(new NoteDocument(NoteDocument.Type.VISIT, id, CLINICIAN, PATIENT, text));
+		return id;
+	}
+
+	/** Polls until the query has {@code expected} hits; indexing is asynchronous. */
+	private static List<UUID> await(NoteIndex index, String query, int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (true) {
+			NoteSearchResponse response = index.search(query, null, null, false, 100);
+			if (response.totalHits() == expected || System.currentTimeMillis() > deadline) {
+				assertEquals(expected, response.totalHits(), query);
+				return ids(response);
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private void awaitSegmentFiles(int max) throws Exception {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (segmentFiles() > max && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(segmentFiles() <= max);
+	}
+
+	private long segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(file -> file.toString().endsWith(DiskSegment.SUFFIX)).count();
+		}
+	}
+
+	private static List<UUID> ids(NoteSearchResponse response) {
+		return response.hits().stream().map(NoteSearchResponse.Hit::id).toList();
+	}
+}
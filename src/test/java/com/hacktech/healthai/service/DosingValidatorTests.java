@@ -0,0 +1,76 @@
+package com.hacktech.healthai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.core.io.ClassPathResource;
+
+class DosingValidatorTests {
+
+	private final DosingValidator validator;
+
+	DosingValidatorTests() throws IOException {
+		DrugClassIndex index = new DrugClassIndex(new ClassPathResource("drugs/atc-classes.csv"),
+				new ClassPathResource("drugs/atc-drugs.csv"));
+		validator = new DosingValidator(index, new ClassPathResource("drugs/max-daily-doses.csv"));
+	}
+
+	// Maxima from max-daily-doses.csv: paracetamol (acetaminophen) 4000 mg, ibuprofen 3200 mg, metformin 2550 mg
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"Paracetamol     | 1 g      | q4h      | 6000 mg/day exceeds the maximum daily dose of 4000 mg for acetaminophen",
+			"paracetamol 500mg | 1000 mg | q4-6h prn | Up to 6000 mg/day exceeds the maximum daily dose of 4000 mg for acetaminophen",
+			"Ibuprofen       | 4 g      | once     | Single dose of 4000 mg exceeds the maximum daily dose of 3200 mg for ibuprofen",
+			"Metformin       | 1000 mg  | TID      | 3000 mg/day exceeds the maximum daily dose of 2550 mg for metformin",
+	})
+	void reportsDosesAboveTheDailyMaximum(String medication, String dosage, String frequency, String details) {
+		assertEquals(List.of(new ValidationIssueDto("DOSAGE", medication, details)),
+				validate(medication, dosage, frequency));
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', nullValues = "-", value = {
+			"Paracetamol | 500 mg    | QID",
+			"Ibuprofen   | 800 mg    | QID x 5 days",
+			"Paracetamol | 10 mL     | q4h",
+			"Paracetamol | 15 mg/kg  | q4h",
+			"Paracetamol | 2 tabs    | q4h",
+			"Paracetamol | -         | -",
+			"Warfarin    | 50 mg     | BID",
+			"Unobtainium | 9000 mg   | QID",
+			"-           | 9000 mg   | QID",
+	})
+	void skipsWhatCannotBeCompared(String medication, String dosage, String frequency) {
+		// Within or at the maximum, unit mismatch, weight based, no strength, no sig, no maximum, unknown drug
+		assertEquals(List.of(), validate(medication, dosage, frequency));
+	}
+
+	@Test
+	void formatsAmountsIndependentlyOfTheDefaultLocale() {
+		Locale defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.GERMANY);
+		try {
+			List<ValidationIssueDto> issues = validate("Paracetamol", "1333.5 mg", "TID");
+
+			assertEquals(1, issues.size());
+			assertTrue(issues.get(0).details().startsWith("4000.50 mg/day"), issues.get(0).details());
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	private List<ValidationIssueDto> validate(String medication, String dosage, String frequency) {
+		List<ValidationIssueDto> issues = new ArrayList<>();
+		validator.validate(new ProposedPrescriptionDto(medication, dosage, frequency), issues);
+		return issues;
+	}
+}
@@ -0,0 +1,126 @@
+package com.hacktech.healthai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.core.io.ClassPathResource;
+
+class DrugClassIndexTests {
+
+	private final DrugClassIndex index;
+
+	DrugClassIndexTests() throws IOException {
+		index = new DrugClassIndex(new ClassPathResource("drugs/atc-classes.csv"),
+				new ClassPathResource("drugs/atc-drugs.csv"));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"sertraline, N06AB06",
+			"'  Sertraline ', N06AB06",
+			"Sertraline 50mg, N06AB06",
+			"sertraline 50 mg tablet, N06AB06",
+			"Prozac, N06AB03",
+			"Prozac oral solution, N06AB03",
+			"Zestril 10mg, C09AA03"
+	})
+	void resolvesMedicationNamesToSubstances(String medication, String code) {
+		int drugId = index.drugId(medication);
+
+		assertTrue(drugId >= 0, medication);
+		assertEquals(code, index.atcCode(drugId));
+		assertEquals(drugId, index.drugIdForCode(code.toLowerCase()));
+	}
+
+	@Test
+	void unknownMedicationsAndCodesDoNotResolve() {
+		assertEquals(-1, index.drugId("unlisted herbal tea"));
+		assertEquals(-1, index.drugId("50mg"));
+		assertEquals(-1, index.drugId(null));
+		assertEquals(-1, index.drugIdForCode("N06AB99"));
+		assertEquals(-1, index.classIdForCode("Z99"));
+	}
+
+	@Test
+	void brandNamesShareTheGenericDisplayName() {
+		assertEquals("fluoxetine", index.drugName(index.drugId("Prozac")));
+		assertEquals(index.drugId("fluoxetine"), index.drugId("PROZAC"));
+	}
+
+	@Test
+	void drugBitsHoldEveryAncestorClass() {
+		long[] bits = index.classBits(index.drugId("sertraline"));
+
+		for (String code : new String[] { "N", "N06", "N06A", "N06AB", "N06AB06" }) {
+			assertTrue(hasClass(bits, code), code);
+		}
+		assertFalse(hasClass(bits, "N06AA"));
+		assertFalse(hasClass(bits, "C09"));
+		assertTrue(index.isSubstanceClass(index.classIdForCode("n06ab06")));
+		assertFalse(index.isSubstanceClass(index.classIdForCode("N06AB")));
+	}
+
+	@Test
+	void deeperClassesGetHigherIds() {
+		assertTrue(index.classIdForCode("C") < index.classIdForCode("C09"));
+		assertTrue(index.classIdForCode("C09") < index.classIdForCode("C09A"));
+		assertTrue(index.classIdForCode("C09A") < index.classIdForCode("C09AA"));
+		assertTrue(index.classIdForCode("C09AA") < index.classIdForCode("C09AA03"));
+	}
+
+	// first | second | most specific shared duplicate class, blank if none
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"lisinopril   | ramipril     | C09AA",
+			"lisinopril   | losartan     | C09",
+			"lisinopril   | Zestril 10mg | C09AA03",
+			"fluoxetine   | sertraline   | N06AB",
+			"metoprolol   | atenolol     | C07AB",
+			"sertraline   | amitriptyline |",
+			"warfarin     | aspirin      |",
+			"metformin    | sertraline   |"
+	})
+	void findsTheMostSpecificSharedDuplicateClass(String first, String second, String expected) {
+		long[] a = index.classBits(index.drugId(first));
+		long[] b = index.classBits(index.drugId(second));
+
+		int shared = index.sharedDuplicateClass(a, b);
+		assertEquals(expected, shared >= 0 ? index.classCode(shared) : null);
+		assertEquals(expected != null, index.sharesDuplicateClass(a, b));
+		assertEquals(shared, index.sharedDuplicateClass(b, a));
+	}
+
+	@Test
+	void classesCanOverlapWithoutCountingAsDuplicates() {
+		// Both antithrombotic (B01A), which is not a duplicate-therapy group
+		long[] warfarin = index.classBits(index.drugId("warfarin"));
+		long[] aspirin = index.classBits(index.drugId("aspirin"));
+
+		assertTrue(index.intersects(warfarin, aspirin));
+		assertFalse(index.sharesDuplicateClass(warfarin, aspirin));
+		assertFalse(index.intersects(warfarin, index.classBits(index.drugId("sertraline"))));
+	}
+
+	@Test
+	void unionAndAddClassBuildMasksAcrossWords() {
+		long[] mask = index.newBitset();
+		int ssri = index.classIdForCode("N06AB");
+		index.addClass(mask, ssri);
+		assertTrue(index.intersects(mask, index.classBits(index.drugId("citalopram"))));
+		assertFalse(index.intersects(mask, index.classBits(index.drugId("lisinopril"))));
+
+		index.union(mask, index.classBits(index.drugId("lisinopril")));
+		assertTrue(index.intersects(mask, index.classBits(index.drugId("ramipril"))));
+		assertTrue(mask.length > 1, "fixture should need more than one word");
+	}
+
+	private boolean hasClass(long[] bits, String code) {
+		int classId = index.classIdForCode(code);
+		return (bits[classId >>> 6] & (1L << classId)) != 0;
+	}
+}
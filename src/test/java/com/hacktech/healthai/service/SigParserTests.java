@@ -0,0 +1,60 @@
+package com.hacktech.healthai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SigParserTests {
+
+	private static final double DELTA = 1e-9;
+
+	// dosage | frequency | strength (mg) | count | doses per day | course days; blank means unset (NaN)
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', nullValues = "NaN", value = {
+			"500 mg     | BID x 10 days        | 500 |     | 2   | 10",
+			"500 mg     | b.i.d. x10 days      | 500 |     | 2   | 10",
+			"250 mg     | TID for 7 days       | 250 |     | 3   | 7",
+			"250 mg     | twice daily for 2 weeks | 250 |  | 2   | 14",
+			"1 tab      | daily x 5 days       |     | 1   | 1   | 5",
+			"1 tab      | for 10 days          |     | 1   |     | 10",
+			"1 tab      | x3 daily             |     | 1   | 3   | NaN",
+			"1-1.5 mg   | q.d.                 | 1.5 |     | 1   | NaN",
+			"0.5-1 mg   | t.i.d.               | 1   |     | 3   | NaN",
+			"2-1 mg     | daily                |     |     | 1   | NaN",
+			"1/2 tab    | Q.D.                 |     | 0.5 | 1   | NaN",
+			"1-2 tabs   | q4-6h                |     | 2   | 6   | NaN",
+			"10 mg      | q.i.d.               | 10  |     | 4   | NaN",
+			"10 mg      | three times a day    | 10  |     | 3   | NaN",
+			"10 mg      | every other day      | 10  |     | 0.5 | NaN",
+			"10 mg      | BID then daily       | 10  |     | 2   | NaN",
+	})
+	void parsesDosageAndFrequency(String dosage, String frequency, Double strength, Double count,
+			Double dosesPerDay, Double courseDays) {
+		DoseSig sig = SigParser.parse(dosage, frequency, new DoseSig());
+
+		assertEquals(orNaN(strength), sig.strength(), DELTA, "strength");
+		assertEquals(orNaN(count), sig.count(), DELTA, "count");
+		assertEquals(orNaN(dosesPerDay), sig.dosesPerDay(), DELTA, "doses per day");
+		assertEquals(orNaN(courseDays), sig.courseDays(), DELTA, "course days");
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"'500 mg BID x 10 days', 1000",
+			"'1 g q.d. for 5 days', 1000",
+			"'250 mg q6h x 7 days', 1000",
+	})
+	void courseLengthDoesNotInflateDailyAmount(String sigText, double expectedMgPerDay) {
+		DoseSig sig = SigParser.finish(SigParser.parse(sigText, new DoseSig()));
+
+		assertEquals(DoseSig.UNIT_MG, sig.unit());
+		assertEquals(expectedMgPerDay, sig.dailyAmount(), DELTA);
+		assertTrue(sig.courseDays() > 0);
+	}
+
+	private static double orNaN(Double value) {
+		return value == null ? Double.NaN : value;
+	}
+}
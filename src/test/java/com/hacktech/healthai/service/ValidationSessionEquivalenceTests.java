@@ -0,0 +1,128 @@
+package com.hacktech.healthai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hacktech.healthai.dto.CurrentPrescriptionDto;
+import com.hacktech.healthai.dto.PrescriptionChangeDto;
+import com.hacktech.healthai.dto.PrescriptionChangeDto.Operation;
+import com.hacktech.healthai.dto.PrescriptionValidationRequest;
+import com.hacktech.healthai.dto.ProposedPrescriptionDto;
+import com.hacktech.healthai.dto.ValidationIssueDto;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * A validation session edited one change at a time must always report exactly
+ * what a full validation of the same proposed list reports, in the same order.
+ */
+class ValidationSessionEquivalenceTests {
+
+	private static final String SESSION = "session-1";
+	private static final List<String> ALLERGIES = List.of("Penicillin", "aspirin");
+	private static final List<CurrentPrescriptionDto> CURRENT = List.of(new CurrentPrescriptionDto("Lisinopril 10mg"),
+			new CurrentPrescriptionDto("Citalopram"), new CurrentPrescriptionDto("unlisted supplement"));
+
+	// Mix of duplicates (with current meds and with each other), allergies, overdoses and unknown drugs
+	private static final List<ProposedPrescriptionDto> POOL = List.of(
+			new ProposedPrescriptionDto("Sertraline", "50 mg", "daily"),
+			new ProposedPrescriptionDto("Fluoxetine 20mg", null, null),
+			new ProposedPrescriptionDto("Prozac", "100 mg", "BID"),
+			new ProposedPrescriptionDto("Ramipril", "5 mg", "daily"),
+			new ProposedPrescriptionDto("Losartan", null, null),
+			new ProposedPrescriptionDto("Aspirin", "81 mg", "daily"),
+			new ProposedPrescriptionDto("Warfarin", "5 mg", "daily"),
+			new ProposedPrescriptionDto("Metformin", "1000 mg", "TID"),
+			new ProposedPrescriptionDto("Penicillin", null, null),
+			new ProposedPrescriptionDto("Unlisted herbal tea", "1 cup", "daily"));
+
+	private final PrescriptionChecks checks;
+	private final ValidationServiceImpl batch;
+	private final ValidationSessionServiceImpl sessions;
+
+	ValidationSessionEquivalenceTests() throws IOException {
+		DrugClassIndex index = new DrugClassIndex(new ClassPathResource("drugs/atc-classes.csv"),
+				new ClassPathResource("drugs/atc-drugs.csv"));
+		DosingValidator dosing = new DosingValidator(index, new ClassPathResource("drugs/max-daily-doses.csv"));
+		checks = new PrescriptionChecks(index, dosing);
+		batch = new ValidationServiceImpl(checks, dosing);
+		sessions = new ValidationSessionServiceImpl(checks, new ValidationSessionStore(10, 30));
+	}
+
+	@Test
+	void scriptedEditsMatchFullValidation() {
+		List<ProposedPrescriptionDto> proposed = new ArrayList<>(List.of(POOL.get(0), POOL.get(3)));
+		assertEquals(validate(proposed), sessions.startSession(SESSION, request(proposed)).validationIssues());
+
+		apply(proposed, new PrescriptionChangeDto(Operation.ADD, null, POOL.get(1)));
+		apply(proposed, new PrescriptionChangeDto(Operation.ADD, null, POOL.get(4)));
+		apply(proposed, new PrescriptionChangeDto(Operation.ADD, null, POOL.get(2)));
+		// Editing the first entry reorders nothing but changes every pair it was in
+		apply(proposed, new PrescriptionChangeDto(Operation.CHANGE, 0, POOL.get(6)));
+		apply(proposed, new PrescriptionChangeDto(Operation.REMOVE, 1, null));
+		apply(proposed, new PrescriptionChangeDto(Operation.CHANGE, 2, POOL.get(0)));
+		apply(proposed, new PrescriptionChangeDto(Operation.REMOVE, 0, null));
+
+		List<ValidationIssueDto> issues = validate(proposed);
+		assertTrue(issues.stream().anyMatch(issue -> issue.type().equals("DUPLICATE")));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1, 2, 3, 42, 2025 })
+	void randomEditsMatchFullValidation(long seed) {
+		Random random = new Random(seed);
+		List<ProposedPrescriptionDto> proposed = new ArrayList<>();
+		for (int i = random.nextInt(4); i > 0; i--) {
+			proposed.add(POOL.get(random.nextInt(POOL.size())));
+		}
+		assertEquals(validate(proposed), sessions.startSession(SESSION, request(proposed)).validationIssues());
+
+		for (int step = 0; step < 200; step++) {
+			int choice = proposed.isEmpty() ? 0 : random.nextInt(3);
+			ProposedPrescriptionDto prescription = POOL.get(random.nextInt(POOL.size()));
+			if (choice == 0) {
+				apply(proposed, new PrescriptionChangeDto(Operation.ADD, null, prescription));
+			} else if (choice == 1) {
+				apply(proposed, new PrescriptionChangeDto(Operation.REMOVE, random.nextInt(proposed.size()), null));
+			} else {
+				apply(proposed, new PrescriptionChangeDto(Operation.CHANGE, random.nextInt(proposed.size()),
+						prescription));
+			}
+		}
+	}
+
+	@Test
+	void unknownSessionHasNoUpdate() {
+		assertFalse(sessions.applyChange("missing", new PrescriptionChangeDto(Operation.ADD, null, POOL.get(0)))
+				.isPresent());
+	}
+
+	/** Applies the change to both the session and the plain list, then compares the results. */
+	private void apply(List<ProposedPrescriptionDto> proposed, PrescriptionChangeDto change) {
+		switch (change.op()) {
+			case ADD -> proposed.add(change.prescription());
+			case REMOVE -> proposed.remove((int) change.index());
+			case CHANGE -> proposed.set(change.index(), change.prescription());
+		}
+		ValidationSessionService.Update update = sessions.applyChange(SESSION, change).orElseThrow();
+		assertEquals(validate(proposed), update.response().validationIssues(), change + " on " + proposed);
+		assertEquals("patient-1", update.patientId());
+		assertEquals("clinician-1", update.clinicianId());
+	}
+
+	private List<ValidationIssueDto> validate(List<ProposedPrescriptionDto> proposed) {
+		return batch.validatePrescriptions(request(proposed)).validationIssues();
+	}
+
+	private static PrescriptionValidationRequest request(List<ProposedPrescriptionDto> proposed) {
+		return new PrescriptionValidationRequest("patient-1", "clinician-1", List.copyOf(proposed), ALLERGIES,
+				CURRENT);
+	}
+}
@@ -0,0 +1,48 @@
+package com.hacktech.healthai.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.hacktech.healthai.service.LlmProviderException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LlmServiceImplTests {
+
+	@Test
+	void extractsFirstCandidateText() {
+		String body = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"hello\"},{\"text\":\"ignored\"}]}}]}";
+
+		assertEquals("hello", LlmServiceImpl.extractText(body));
+	}
+
+	@Test
+	void missingCandidatesGiveEmptyCompletion() {
+		assertEquals("", LlmServiceImpl.extractText("{\"promptFeedback\":{\"blockReason\":\"SAFETY\"}}"));
+		assertEquals("", LlmServiceImpl.extractText("{\"candidates\":[]}"));
+	}
+
+	@Test
+	void providerErrorBodyCarriesItsMessage() {
+		LlmProviderException e = assertThrows(LlmProviderException.class,
+				() -> LlmServiceImpl.extractText("{\"error\":{\"code\":429,\"message\":\"quota exceeded\"}}"));
+
+		assertEquals("LLM provider error: quota exceeded", e.getMessage());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"",
+			"not json {",
+			"[1, 2]",
+			"{\"candidates\":[{}]}",
+			"{\"candidates\":[{\"content\":{}}]}",
+			"{\"candidates\":[{\"content\":{\"parts\":[]}}]}",
+			"{\"candidates\":[{\"content\":{\"parts\":[{\"inlineData\":{}}]}}]}",
+			"{\"candidates\":[{\"content\":{\"parts\":[{\"text\":{\"nested\":true}}]}}]}",
+	})
+	void malformedResponsesThrowProviderException(String body) {
+		assertThrows(LlmProviderException.class, () -> LlmServiceImpl.extractText(body));
+	}
+}